@@ -0,0 +1,39 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ContactSheetConfig {
+
+    // Thumbnails per sheet, i.e. per page of GET /api/images/sheet
+    @Value("${image.sheet.page-size:100}")
+    private int pageSize;
+
+    // Thumbnails are fitted inside a square cell of this many pixels
+    @Value("${image.sheet.tile-size:150}")
+    private int tileSize;
+
+    @Value("${image.sheet.columns:10}")
+    private int columns;
+
+    // Rendered sheets kept in memory across all users
+    @Value("${image.sheet.cache-max-entries:256}")
+    private int cacheMaxEntries;
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+}
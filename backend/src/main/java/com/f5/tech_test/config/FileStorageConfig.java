@@ -3,6 +3,7 @@ package com.f5.tech_test.config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @PropertySource("classpath:application.properties")
@@ -13,6 +14,14 @@ public class FileStorageConfig {
 
     @Value("${file.base-url:http://localhost:8080/uploads}")
     private String baseUrl;
+
+    // Limit for bodies streamed straight to storage, which bypass the multipart limits
+    @Value("${file.max-upload-size:50MB}")
+    private DataSize maxUploadSize;
+
+    // Content-addressed storage hashes uploads up to this size in memory before writing anything
+    @Value("${file.content-addressed.buffer-size:4MB}")
+    private DataSize contentAddressedBufferSize;
     
     public String getUploadDir() {
         return uploadDir;
@@ -21,4 +30,12 @@ public class FileStorageConfig {
     public String getBaseUrl() {
         return baseUrl;
     }
+
+    public DataSize getMaxUploadSize() {
+        return maxUploadSize;
+    }
+
+    public DataSize getContentAddressedBufferSize() {
+        return contentAddressedBufferSize;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class HotImageCacheConfig {
+
+    // Off-heap memory reserved at startup; 0 disables the cache
+    @Value("${image.hot-cache.max-size:64MB}")
+    private DataSize maxSize;
+
+    // Larger files are always sent from disk
+    @Value("${image.hot-cache.max-entry-size:2MB}")
+    private DataSize maxEntrySize;
+
+    // Unit of allocation; an entry wastes at most one block minus a byte
+    @Value("${image.hot-cache.block-size:16KB}")
+    private DataSize blockSize;
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public DataSize getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    public DataSize getBlockSize() {
+        return blockSize;
+    }
+}
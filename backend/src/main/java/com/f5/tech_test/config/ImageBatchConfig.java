@@ -0,0 +1,38 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImageBatchConfig {
+
+    @Value("${image.batch.max-files:100}")
+    private int maxFiles;
+
+    @Value("${image.batch.pool-size:4}")
+    private int poolSize;
+
+    @Value("${image.batch.queue-capacity:200}")
+    private int queueCapacity;
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor batchUploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-batch-");
+        // When every worker is busy the request thread processes the file itself
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,66 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+public class ImageOptimizerConfig {
+
+    // Images looked at per run; runs are image.optimizer.interval apart
+    @Value("${image.optimizer.batch-size:20}")
+    private int batchSize;
+
+    // Idle time between two images within a run
+    @Value("${image.optimizer.pause:500ms}")
+    private Duration pause;
+
+    // A run stops early while more uploads than this are in flight
+    @Value("${image.optimizer.max-active-uploads:0}")
+    private int maxActiveUploads;
+
+    // Larger files are left alone to bound the memory a decode takes
+    @Value("${image.optimizer.max-file-size:20MB}")
+    private DataSize maxFileSize;
+
+    // Smallest saving, as a fraction of the original size, worth replacing a file for
+    @Value("${image.optimizer.min-savings:0.05}")
+    private double minSavings;
+
+    // Re-encoding JPEGs is lossy, so it has to be enabled on its own
+    @Value("${image.optimizer.jpeg.enabled:false}")
+    private boolean jpegEnabled;
+
+    @Value("${image.optimizer.jpeg.quality:0.8}")
+    private float jpegQuality;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public int getMaxActiveUploads() {
+        return maxActiveUploads;
+    }
+
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+
+    public double getMinSavings() {
+        return minSavings;
+    }
+
+    public boolean isJpegEnabled() {
+        return jpegEnabled;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+}
@@ -0,0 +1,24 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ImagePageConfig {
+
+    // Images per page of GET /api/images when no limit is given
+    @Value("${image.page.default-limit:50}")
+    private int defaultLimit;
+
+    // Larger limits are capped to this
+    @Value("${image.page.max-limit:200}")
+    private int maxLimit;
+
+    public int getDefaultLimit() {
+        return defaultLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
@@ -0,0 +1,31 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ImagePlaceholderConfig {
+
+    // BlurHash components along each axis (1-9); more means a longer hash with more detail
+    @Value("${image.placeholder.components-x:4}")
+    private int componentsX;
+
+    @Value("${image.placeholder.components-y:3}")
+    private int componentsY;
+
+    // Images without a placeholder looked at per backfill run
+    @Value("${image.placeholder.backfill.batch-size:50}")
+    private int backfillBatchSize;
+
+    public int getComponentsX() {
+        return componentsX;
+    }
+
+    public int getComponentsY() {
+        return componentsY;
+    }
+
+    public int getBackfillBatchSize() {
+        return backfillBatchSize;
+    }
+}
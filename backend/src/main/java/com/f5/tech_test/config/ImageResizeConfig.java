@@ -0,0 +1,38 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class ImageResizeConfig {
+
+    // Largest width or height a client may request from the resize endpoint
+    @Value("${image.resize.max-dimension:4096}")
+    private int maxDimension;
+
+    @Value("${image.resize.cache.memory-max-size:64MB}")
+    private DataSize memoryCacheMaxSize;
+
+    @Value("${image.resize.cache.disk-dir:./variant-cache}")
+    private String diskCacheDir;
+
+    @Value("${image.resize.cache.disk-max-size:1GB}")
+    private DataSize diskCacheMaxSize;
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public DataSize getMemoryCacheMaxSize() {
+        return memoryCacheMaxSize;
+    }
+
+    public String getDiskCacheDir() {
+        return diskCacheDir;
+    }
+
+    public DataSize getDiskCacheMaxSize() {
+        return diskCacheMaxSize;
+    }
+}
@@ -0,0 +1,31 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ImageSearchConfig {
+
+    // Snapshot of the search index, written periodically and on shutdown; blank keeps it in memory only
+    @Value("${image.search.index-file:./search-index/images.idx}")
+    private String indexFile;
+
+    // Threads reading the table when the index is rebuilt; 0 uses one per processor
+    @Value("${image.search.rebuild-threads:0}")
+    private int rebuildThreads;
+
+    @Value("${image.search.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    public String getIndexFile() {
+        return indexFile;
+    }
+
+    public int getRebuildThreads() {
+        return rebuildThreads;
+    }
+
+    public int getRebuildBatchSize() {
+        return rebuildBatchSize;
+    }
+}
@@ -0,0 +1,59 @@
+package com.f5.tech_test.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+
+@Configuration
+@EnableAsync
+public class ImageVariantConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantConfig.class);
+
+    // Longest edge in pixels of each generated variant
+    @Value("${image.variants.sizes:150,480,1080}")
+    private List<Integer> sizes;
+
+    @Value("${image.variants.pool-size:2}")
+    private int poolSize;
+
+    @Value("${image.variants.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${image.variants.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    public List<Integer> getSizes() {
+        return sizes;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor variantExecutor(MeterRegistry meterRegistry) {
+        Counter dropped = meterRegistry.counter("images.variants.dropped");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-variants-");
+        // A full queue drops the work instead of slowing down the committing request
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            dropped.increment();
+            logger.warn("Variant queue is full, skipping variant generation ({} jobs dropped so far)",
+                (long) dropped.count());
+        });
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,60 @@
+package com.f5.tech_test.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends connections of read-only transactions to the replica and everything else to the
+ * primary. While {@link ReplicaLagMonitor} finds the replica unreachable or too far behind,
+ * read-only transactions go to the primary too.
+ * <p>
+ * The transaction has to be known when the connection is taken, so this is used behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction
+ * manager gets a connection before it marks the transaction read-only, and the proxy only
+ * asks for the real one at the first statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Pool {
+        PRIMARY, REPLICA
+    }
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final Counter primaryConnections;
+    private final Counter replicaConnections;
+    private final Counter fallbacks;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor replicaLagMonitor,
+                                      MeterRegistry meterRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.primaryConnections = meterRegistry.counter("datasource.routing.connections", "pool", "primary");
+        this.replicaConnections = meterRegistry.counter("datasource.routing.connections", "pool", "replica");
+        this.fallbacks = Counter.builder("datasource.routing.fallbacks")
+                .description("Read-only transactions sent to the primary because the replica was not usable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryConnections.increment();
+            return Pool.PRIMARY;
+        }
+        if (!replicaLagMonitor.isReplicaUsable()) {
+            fallbacks.increment();
+            primaryConnections.increment();
+            return Pool.PRIMARY;
+        }
+        replicaConnections.increment();
+        return Pool.REPLICA;
+    }
+}
@@ -0,0 +1,115 @@
+package com.f5.tech_test.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides whether the replica may serve reads. Each check reads the last heartbeat written to
+ * the primary, reads the heartbeat row on the replica, then writes a new heartbeat. A replica
+ * that already has the last heartbeat is up to date; the new one cannot have replicated yet,
+ * so it is only compared against by the next check. A replica that is behind trails by at
+ * least the age of the heartbeat it is missing, and by at least the time since the heartbeat
+ * it has less one check interval, since the next one was written no sooner than that. Both
+ * times come from the application's clock, so clock skew between database servers does not
+ * count as lag. A replica that fails the check, or trails by more than the allowed lag, is
+ * skipped until a later check passes.
+ * <p>
+ * With a maximum lag of zero the heartbeat is not used and the replica only has to answer.
+ * That suits a stand-in replica that is not actually replicated.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+
+    // Not usable until the first check passes
+    private volatile boolean replicaUsable;
+    // -1 while unknown
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+
+        TimeGauge.builder("datasource.replica.lag", this, TimeUnit.MILLISECONDS, monitor -> monitor.lagMillis)
+                .description("Replication lag seen by the last check, -1 if it failed")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("Whether read-only transactions are sent to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /**
+     * Returns the lag seen by the last check, or {@code null} if it failed.
+     */
+    public Duration getLag() {
+        long lag = lagMillis;
+        return lag < 0 ? null : Duration.ofMillis(lag);
+    }
+
+    // Reads stay on the primary until the first check, which by default runs at startup
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval:PT5S}",
+               initialDelayString = "${datasource.replica.initial-delay:PT0S}")
+    public synchronized void check() {
+        boolean usable;
+        try {
+            if (maxLag.isZero()) {
+                replica.queryForObject("select 1", Integer.class);
+                lagMillis = 0;
+                usable = true;
+            } else {
+                LocalDateTime written = primary.queryForObject(
+                    "select beat_at from replication_heartbeat where id = 1", LocalDateTime.class);
+                LocalDateTime seen = replica.queryForObject(
+                    "select beat_at from replication_heartbeat where id = 1", LocalDateTime.class);
+                LocalDateTime now = LocalDateTime.now();
+                primary.update("update replication_heartbeat set beat_at = ? where id = 1", now);
+
+                long lag = 0;
+                if (seen.isBefore(written)) {
+                    lag = Math.max(0, Math.max(Duration.between(written, now).toMillis(),
+                        Duration.between(seen, now).minus(checkInterval).toMillis()));
+                }
+                lagMillis = lag;
+                usable = lag <= maxLag.toMillis();
+            }
+        } catch (DataAccessException e) {
+            lagMillis = -1;
+            usable = false;
+            if (replicaUsable) {
+                logger.warn("Replica check failed, reading from the primary", e);
+            }
+        }
+
+        if (usable != replicaUsable) {
+            if (usable) {
+                logger.info("Replica is usable again (lag {} ms)", lagMillis);
+            } else if (lagMillis >= 0) {
+                logger.warn("Replica lags by {} ms, more than {}; reading from the primary", lagMillis, maxLag);
+            }
+        }
+        replicaUsable = usable;
+    }
+}
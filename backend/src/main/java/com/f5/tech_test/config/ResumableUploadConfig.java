@@ -0,0 +1,36 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+public class ResumableUploadConfig {
+
+    // Where partially received uploads are kept; must not be served publicly
+    @Value("${upload.resumable.dir:./upload-sessions}")
+    private String sessionDir;
+
+    @Value("${upload.resumable.max-size:500MB}")
+    private DataSize maxSize;
+
+    // Sessions without any activity for this long are deleted with their data
+    @Value("${upload.resumable.expiration:24h}")
+    private Duration expiration;
+
+    public String getSessionDir() {
+        return sessionDir;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public Duration getExpiration() {
+        return expiration;
+    }
+}
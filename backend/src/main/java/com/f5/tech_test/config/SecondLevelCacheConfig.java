@@ -0,0 +1,80 @@
+package com.f5.tech_test.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regions of Hibernate's second-level cache, held in memory by Caffeine. Every region is
+ * created here with a size bound; Hibernate refuses to start if an entity asks for a region
+ * that is not. Entries also expire after {@code entity-cache.expire-after-write}, which limits
+ * how long a change made outside Hibernate (plain SQL, another application) stays unseen.
+ * <p>
+ * Each application context gets a cache manager of its own, so contexts on different
+ * databases (as in the tests) never share entries. Statistics are switched on with the cache;
+ * Spring Boot publishes them per region as {@code hibernate.second.level.cache.*} and
+ * {@code hibernate.cache.natural.id.*} metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // Region names used by @Cache and @NaturalIdCache on the entities
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    public static final String IMAGES = "images";
+
+    // Users, and username -> id resolutions, kept in memory
+    @Value("${entity-cache.users.max-entries:10000}")
+    private long usersMaxEntries;
+
+    // Images kept in memory
+    @Value("${entity-cache.images.max-entries:50000}")
+    private long imagesMaxEntries;
+
+    @Value("${entity-cache.expire-after-write:PT1H}")
+    private Duration expireAfterWrite;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(USERS, region(usersMaxEntries));
+        cacheManager.createCache(USERS_BY_USERNAME, region(usersMaxEntries));
+        cacheManager.createCache(IMAGES, region(imagesMaxEntries));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            // Otherwise every session logs its statistics when it closes
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    // Hibernate stores its own immutable copies of the state, so values need not be copied again
+    private CaffeineConfiguration<Object, Object> region(long maxEntries) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+}
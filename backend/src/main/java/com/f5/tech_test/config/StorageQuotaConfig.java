@@ -0,0 +1,33 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class StorageQuotaConfig {
+
+    // Bytes of images each user may store; 0 means no limit
+    @Value("${storage.quota.max-bytes:1GB}")
+    private DataSize maxBytes;
+
+    // Images each user may store; 0 means no limit
+    @Value("${storage.quota.max-images:10000}")
+    private long maxImages;
+
+    // Users whose stats are recounted per transaction by the reconciliation job
+    @Value("${storage.reconcile.batch-size:100}")
+    private int reconcileBatchSize;
+
+    public DataSize getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMaxImages() {
+        return maxImages;
+    }
+
+    public int getReconcileBatchSize() {
+        return reconcileBatchSize;
+    }
+}
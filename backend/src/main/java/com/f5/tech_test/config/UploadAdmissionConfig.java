@@ -0,0 +1,48 @@
+package com.f5.tech_test.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class UploadAdmissionConfig {
+
+    // Uploads processed at the same time across all users
+    @Value("${upload.admission.max-concurrent:8}")
+    private int maxConcurrent;
+
+    // Uploads a single user may have in flight; more are rejected without waiting
+    @Value("${upload.admission.max-per-user:2}")
+    private int maxPerUser;
+
+    // Uploads allowed to wait for a global slot before new ones are rejected
+    @Value("${upload.admission.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${upload.admission.max-wait:2s}")
+    private Duration maxWait;
+
+    @Value("${upload.admission.retry-after:5s}")
+    private Duration retryAfter;
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxPerUser() {
+        return maxPerUser;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
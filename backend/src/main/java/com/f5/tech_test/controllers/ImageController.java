@@ -2,14 +2,28 @@ package com.f5.tech_test.controllers;
 
 import com.f5.tech_test.exceptions.ImageNotFoundException;
 import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
+import com.f5.tech_test.dto.BatchUploadItemDTO;
+import com.f5.tech_test.dto.ContactSheetDTO;
 import com.f5.tech_test.dto.ImageDTO;
+import com.f5.tech_test.services.ContactSheetService;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImageOrientation;
+import com.f5.tech_test.services.ImagePage;
 import com.f5.tech_test.services.ImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -17,10 +31,14 @@ import java.util.Map;
 @RequestMapping("/api/images")
 public class ImageController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ImageService imageService;
+    private final ContactSheetService contactSheetService;
 
-    public ImageController(ImageService imageService) {
+    public ImageController(ImageService imageService, ContactSheetService contactSheetService) {
         this.imageService = imageService;
+        this.contactSheetService = contactSheetService;
     }
 
     @PostMapping
@@ -35,6 +53,27 @@ public class ImageController {
         return ResponseEntity.ok(imageDTO);
     }
 
+    @PutMapping("/stream")
+    public ResponseEntity<ImageDTO> uploadImageStream(
+        @RequestHeader("X-Filename") String filename,
+        @RequestHeader(value = "X-Title", required = false) String title,
+        @RequestHeader(value = "X-Description", required = false) String description,
+        HttpServletRequest request)
+        throws IOException
+    {
+        // Header values are percent-encoded by the client so they can carry non-ASCII text
+        try (InputStream body = request.getInputStream()) {
+            ImageDTO imageDTO = imageService.uploadImageStream(body, request.getContentLengthLong(),
+                decode(filename), request.getContentType(), decode(title), decode(description));
+            return ResponseEntity.ok(imageDTO);
+        }
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchUploadItemDTO>> uploadImages(@RequestParam("image") List<MultipartFile> files) {
+        return ResponseEntity.ok(imageService.uploadImages(files));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteImage(@PathVariable Long id) {
         try {
@@ -50,9 +89,48 @@ public class ImageController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ImageDTO>> getAllImages() {
-        List<ImageDTO> images = imageService.getAllImages();
-        return ResponseEntity.ok(images);
+    public ResponseEntity<List<ImageDTO>> getImages(
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "sort", required = false) String sort,
+        @RequestParam(value = "minWidth", required = false) Integer minWidth,
+        @RequestParam(value = "maxWidth", required = false) Integer maxWidth,
+        @RequestParam(value = "minHeight", required = false) Integer minHeight,
+        @RequestParam(value = "maxHeight", required = false) Integer maxHeight,
+        @RequestParam(value = "minSize", required = false) Long minSize,
+        @RequestParam(value = "maxSize", required = false) Long maxSize,
+        @RequestParam(value = "contentType", required = false) String contentType,
+        @RequestParam(value = "uploadedAfter", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedAfter,
+        @RequestParam(value = "uploadedBefore", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime uploadedBefore,
+        @RequestParam(value = "orientation", required = false) String orientation)
+    {
+        ImageFilter filter = new ImageFilter(minWidth, maxWidth, minHeight, maxHeight, minSize, maxSize,
+            contentType, uploadedAfter, uploadedBefore, ImageOrientation.from(orientation));
+        ImagePage page = imageService.getImages(sort, limit, cursor, filter);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.images());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ImageDTO>> searchImages(
+        @RequestParam("q") String query,
+        @RequestParam(value = "limit", required = false) Integer limit)
+    {
+        return ResponseEntity.ok(imageService.searchImages(query, limit));
+    }
+
+    @GetMapping("/sheet")
+    public ResponseEntity<ContactSheetDTO> getContactSheet(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "sort", required = false) String sort)
+        throws IOException
+    {
+        return ResponseEntity.ok(contactSheetService.getSheet(sort, cursor));
     }
 
     @GetMapping("/{id}")
@@ -79,6 +157,20 @@ public class ImageController {
         return ResponseEntity.ok(updatedImage);
     }
 
+    private String decode(String header) {
+        return header == null ? null : UriUtils.decode(header, StandardCharsets.UTF_8);
+    }
+
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<Map<String, String>> handleUploadTooLargeException(UploadTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(StorageQuotaExceededException.class)
+    public ResponseEntity<Map<String, String>> handleStorageQuotaExceededException(StorageQuotaExceededException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+    }
+
     @ExceptionHandler(InvalidImageException.class)
     public ResponseEntity<Map<String, String>> handleInvalidImageException(InvalidImageException e) {
         return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -0,0 +1,117 @@
+package com.f5.tech_test.controllers;
+
+import com.f5.tech_test.dto.CreateUploadRequest;
+import com.f5.tech_test.dto.ImageDTO;
+import com.f5.tech_test.dto.UploadSessionDTO;
+import com.f5.tech_test.entities.UploadSession;
+import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.exceptions.UploadConflictException;
+import com.f5.tech_test.exceptions.UploadSessionNotFoundException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
+import com.f5.tech_test.services.ResumableUploadService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Resumable uploads: create a session, PATCH the bytes in one or more chunks
+ * (resuming from the offset returned by HEAD after a failure), then complete it.
+ */
+@RestController
+@RequestMapping("/api/uploads")
+public class ResumableUploadController {
+
+    static final String UPLOAD_OFFSET = "Upload-Offset";
+    static final String UPLOAD_LENGTH = "Upload-Length";
+    static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+    private final ResumableUploadService resumableUploadService;
+
+    public ResumableUploadController(ResumableUploadService resumableUploadService) {
+        this.resumableUploadService = resumableUploadService;
+    }
+
+    @PostMapping
+    public ResponseEntity<UploadSessionDTO> createUpload(@Valid @RequestBody CreateUploadRequest request) throws IOException {
+        UploadSession session = resumableUploadService.createSession(request);
+        return ResponseEntity.created(URI.create("/api/uploads/" + session.getId()))
+                .header(UPLOAD_OFFSET, "0")
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .body(toDTO(session));
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getOffset(@PathVariable String id) {
+        UploadSession session = resumableUploadService.getSession(id);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .build();
+    }
+
+    @PatchMapping(value = "/{id}", consumes = OFFSET_OCTET_STREAM)
+    public ResponseEntity<Void> appendChunk(
+            @PathVariable String id,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request)
+            throws IOException
+    {
+        // Read the servlet stream directly so the chunk is never buffered in memory
+        try (InputStream body = request.getInputStream()) {
+            long newOffset = resumableUploadService.appendChunk(id, offset, request.getContentLengthLong(), body);
+            return ResponseEntity.noContent()
+                    .header(UPLOAD_OFFSET, String.valueOf(newOffset))
+                    .build();
+        }
+    }
+
+    @PostMapping("/{id}/complete")
+    public ResponseEntity<ImageDTO> completeUpload(@PathVariable String id) throws IOException {
+        return ResponseEntity.ok(resumableUploadService.complete(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancelUpload(@PathVariable String id) {
+        resumableUploadService.cancel(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    private UploadSessionDTO toDTO(UploadSession session) {
+        return new UploadSessionDTO(session.getId(), session.getOffset(), session.getLength());
+    }
+
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleUploadSessionNotFoundException(UploadSessionNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(UploadConflictException.class)
+    public ResponseEntity<Map<String, String>> handleUploadConflictException(UploadConflictException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(UploadTooLargeException.class)
+    public ResponseEntity<Map<String, String>> handleUploadTooLargeException(UploadTooLargeException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(StorageQuotaExceededException.class)
+    public ResponseEntity<Map<String, String>> handleStorageQuotaExceededException(StorageQuotaExceededException e) {
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(InvalidImageException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidImageException(InvalidImageException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+}
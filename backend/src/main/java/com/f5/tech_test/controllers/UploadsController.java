@@ -0,0 +1,80 @@
+package com.f5.tech_test.controllers;
+
+import com.f5.tech_test.exceptions.ImageNotFoundException;
+import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.services.ImageFileServer;
+import com.f5.tech_test.services.ImageResizeService;
+import com.f5.tech_test.services.ResizedImage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serves stored images, either as stored or resized on demand when {@code w} or {@code h} is given.
+ */
+@RestController
+@RequestMapping("/uploads")
+public class UploadsController {
+
+    private final ImageResizeService imageResizeService;
+    private final ImageFileServer imageFileServer;
+
+    public UploadsController(ImageResizeService imageResizeService, ImageFileServer imageFileServer) {
+        this.imageResizeService = imageResizeService;
+        this.imageFileServer = imageFileServer;
+    }
+
+    @GetMapping(value = "/{filename:.+}", params = {"!w", "!h"})
+    public void getFile(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException
+    {
+        imageFileServer.serve(filename, request, response);
+    }
+
+    @GetMapping(value = "/{filename:.+}", params = "w")
+    public ResponseEntity<byte[]> getResizedByWidth(
+            @PathVariable String filename,
+            @RequestParam("w") Integer width,
+            @RequestParam(value = "h", required = false) Integer height,
+            @RequestParam(value = "fit", required = false) String fit)
+            throws IOException
+    {
+        return resized(filename, width, height, fit);
+    }
+
+    @GetMapping(value = "/{filename:.+}", params = {"!w", "h"})
+    public ResponseEntity<byte[]> getResizedByHeight(
+            @PathVariable String filename,
+            @RequestParam("h") Integer height,
+            @RequestParam(value = "fit", required = false) String fit)
+            throws IOException
+    {
+        return resized(filename, null, height, fit);
+    }
+
+    private ResponseEntity<byte[]> resized(String filename, Integer width, Integer height, String fit) throws IOException {
+        ResizedImage image = imageResizeService.resize(filename, width, height, fit);
+        // Renders of an immutable stored file are just as cacheable as the file itself
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, ImageFileServer.CACHE_CONTROL)
+                .contentType(MediaType.parseMediaType(image.contentType()))
+                .body(image.content());
+    }
+
+    @ExceptionHandler(InvalidImageException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidImageException(InvalidImageException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler(ImageNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleImageNotFoundException(ImageNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", e.getMessage()));
+    }
+}
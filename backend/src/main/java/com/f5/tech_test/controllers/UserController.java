@@ -1,5 +1,6 @@
 package com.f5.tech_test.controllers;
 
+import com.f5.tech_test.dto.StorageStatsDTO;
 import com.f5.tech_test.dto.UserDTO;
 import com.f5.tech_test.exceptions.UserNotFoundException;
 import com.f5.tech_test.services.UserService;
@@ -42,6 +43,12 @@ public class UserController {
         return ResponseEntity.ok(userService.getUserByUsername(authentication.getName()));
     }
 
+    @GetMapping("/me/storage")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<StorageStatsDTO> getStorage(Authentication authentication) {
+        return ResponseEntity.ok(userService.getStorageStats(authentication.getName()));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("authentication.principal.username == @userService.getUserById(#id).username")
     public ResponseEntity<UserDTO> updateUser(@PathVariable Long id, @RequestBody UserDTO userDetails) {
@@ -0,0 +1,57 @@
+package com.f5.tech_test.dto;
+
+public class BatchUploadItemDTO {
+    private String originalFilename;
+    private boolean success;
+    private ImageDTO image;
+    private String error;
+
+    public static BatchUploadItemDTO success(String originalFilename, ImageDTO image) {
+        BatchUploadItemDTO item = new BatchUploadItemDTO();
+        item.setOriginalFilename(originalFilename);
+        item.setSuccess(true);
+        item.setImage(image);
+        return item;
+    }
+
+    public static BatchUploadItemDTO failure(String originalFilename, String error) {
+        BatchUploadItemDTO item = new BatchUploadItemDTO();
+        item.setOriginalFilename(originalFilename);
+        item.setSuccess(false);
+        item.setError(error);
+        return item;
+    }
+
+    // Getters and Setters
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    public void setOriginalFilename(String originalFilename) {
+        this.originalFilename = originalFilename;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public ImageDTO getImage() {
+        return image;
+    }
+
+    public void setImage(ImageDTO image) {
+        this.image = image;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
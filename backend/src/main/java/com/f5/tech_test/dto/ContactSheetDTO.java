@@ -0,0 +1,56 @@
+package com.f5.tech_test.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ContactSheetDTO {
+    // Cursor of the next sheet, null on the last one; also valid for the grid in the same sort
+    private String nextCursor;
+    private int width;
+    private int height;
+    // data: URI of the sprite, so the whole page renders from this one response
+    private String image;
+    // Where each image's thumbnail sits in the sprite, keyed by image id
+    private Map<Long, SheetTileDTO> tiles = new LinkedHashMap<>();
+
+    // Getters and Setters
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public void setWidth(int width) {
+        this.width = width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setHeight(int height) {
+        this.height = height;
+    }
+
+    public String getImage() {
+        return image;
+    }
+
+    public void setImage(String image) {
+        this.image = image;
+    }
+
+    public Map<Long, SheetTileDTO> getTiles() {
+        return tiles;
+    }
+
+    public void setTiles(Map<Long, SheetTileDTO> tiles) {
+        this.tiles = tiles;
+    }
+}
@@ -1,6 +1,7 @@
 package com.f5.tech_test.dto;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 public class ImageDTO {
     private Long id;
@@ -10,11 +11,13 @@ public class ImageDTO {
     private Long fileSize;
     private Integer width;
     private Integer height;
+    private String placeholder;
     private String title;
     private String description;
     private LocalDateTime uploadDate;
     private LocalDateTime lastModifiedDate;
     private String url;
+    private Map<String, String> variants;
 
     // Getters and Setters
     public Long getId() {
@@ -73,6 +76,14 @@ public class ImageDTO {
         this.height = height;
     }
 
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -112,4 +123,12 @@ public class ImageDTO {
     public void setUrl(String url) {
         this.url = url;
     }
-} 
\ No newline at end of file
+
+    public Map<String, String> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<String, String> variants) {
+        this.variants = variants;
+    }
+}
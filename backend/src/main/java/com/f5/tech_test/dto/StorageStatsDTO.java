@@ -0,0 +1,53 @@
+package com.f5.tech_test.dto;
+
+import java.util.Map;
+
+public class StorageStatsDTO {
+    private long totalBytes;
+    private long imageCount;
+    // Null when there is no limit
+    private Long maxBytes;
+    private Long maxImages;
+    private Map<String, StorageUsageDTO> contentTypes;
+
+    // Getters and Setters
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(long imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    public Long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public void setMaxBytes(Long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public Long getMaxImages() {
+        return maxImages;
+    }
+
+    public void setMaxImages(Long maxImages) {
+        this.maxImages = maxImages;
+    }
+
+    public Map<String, StorageUsageDTO> getContentTypes() {
+        return contentTypes;
+    }
+
+    public void setContentTypes(Map<String, StorageUsageDTO> contentTypes) {
+        this.contentTypes = contentTypes;
+    }
+}
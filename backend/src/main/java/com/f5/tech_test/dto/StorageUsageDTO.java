@@ -0,0 +1,31 @@
+package com.f5.tech_test.dto;
+
+public class StorageUsageDTO {
+    private long totalBytes;
+    private long imageCount;
+
+    public StorageUsageDTO() {
+    }
+
+    public StorageUsageDTO(long totalBytes, long imageCount) {
+        this.totalBytes = totalBytes;
+        this.imageCount = imageCount;
+    }
+
+    // Getters and Setters
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(long imageCount) {
+        this.imageCount = imageCount;
+    }
+}
@@ -0,0 +1,41 @@
+package com.f5.tech_test.dto;
+
+public class UploadSessionDTO {
+    private String id;
+    private Long offset;
+    private Long length;
+
+    public UploadSessionDTO() {
+    }
+
+    public UploadSessionDTO(String id, Long offset, Long length) {
+        this.id = id;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
+
+    public Long getLength() {
+        return length;
+    }
+
+    public void setLength(Long length) {
+        this.length = length;
+    }
+}
@@ -3,13 +3,21 @@ package com.f5.tech_test.entities;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "images")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "images")
 public class Image {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "images_seq")
+    @SequenceGenerator(name = "images_seq", sequenceName = "images_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -28,12 +36,19 @@ public class Image {
     @Column(nullable = false)
     private Long fileSize;
 
+    @Column(length = 64)
+    private String contentHash;
+
     @Column
     private Integer width;
 
     @Column
     private Integer height;
 
+    // BlurHash of the image, shown by clients until the file has loaded
+    @Column(length = 200)
+    private String placeholder;
+
     @Column
     private String title;
 
@@ -47,10 +62,19 @@ public class Image {
     @Column
     private LocalDateTime lastModifiedDate;
 
+    // Set once the background optimizer has processed the file, whether or not it was replaced
+    @Column
+    private LocalDateTime optimizedDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @OneToMany(mappedBy = "image", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("width ASC")
+    @BatchSize(size = 50)
+    private List<ImageVariant> variants = new ArrayList<>();
+
     @PrePersist
     protected void onCreate() {
         uploadDate = LocalDateTime.now();
@@ -103,6 +127,14 @@ public class Image {
         this.fileSize = fileSize;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public Integer getWidth() {
         return width;
     }
@@ -119,6 +151,14 @@ public class Image {
         this.height = height;
     }
 
+    public String getPlaceholder() {
+        return placeholder;
+    }
+
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -151,6 +191,14 @@ public class Image {
         this.lastModifiedDate = lastModifiedDate;
     }
 
+    public LocalDateTime getOptimizedDate() {
+        return optimizedDate;
+    }
+
+    public void setOptimizedDate(LocalDateTime optimizedDate) {
+        this.optimizedDate = optimizedDate;
+    }
+
     public User getUser() {
         return user;
     }
@@ -158,4 +206,12 @@ public class Image {
     public void setUser(User user) {
         this.user = user;
     }
-} 
\ No newline at end of file
+
+    public List<ImageVariant> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(List<ImageVariant> variants) {
+        this.variants = variants;
+    }
+}
@@ -0,0 +1,59 @@
+package com.f5.tech_test.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.util.Objects;
+
+/**
+ * Bytes and number of images of one content type in {@link UserStorageStats}.
+ */
+@Embeddable
+public class StorageUsage {
+    @Column(nullable = false)
+    private Long totalBytes;
+
+    @Column(nullable = false)
+    private Long imageCount;
+
+    public StorageUsage() {
+    }
+
+    public StorageUsage(Long totalBytes, Long imageCount) {
+        this.totalBytes = totalBytes;
+        this.imageCount = imageCount;
+    }
+
+    // Getters and Setters
+    public Long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(Long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public Long getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(Long imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof StorageUsage other)) {
+            return false;
+        }
+        return Objects.equals(totalBytes, other.totalBytes) && Objects.equals(imageCount, other.imageCount);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(totalBytes, imageCount);
+    }
+}
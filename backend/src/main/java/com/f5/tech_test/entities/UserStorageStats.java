@@ -0,0 +1,78 @@
+package com.f5.tech_test.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Storage used by one user, maintained by every write to their images rather than summed
+ * when needed. The totals are changed with update statements so concurrent uploads of the
+ * same user add up instead of overwriting each other.
+ */
+@Entity
+@Table(name = "user_storage_stats")
+public class UserStorageStats {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long totalBytes = 0L;
+
+    @NotNull
+    @Column(nullable = false)
+    private Long imageCount = 0L;
+
+    // Last time the reconciliation job compared the totals with the images table
+    @Column
+    private LocalDateTime reconciledAt;
+
+    @ElementCollection
+    @CollectionTable(name = "user_storage_type_stats", joinColumns = @JoinColumn(name = "user_id"))
+    @MapKeyColumn(name = "content_type")
+    private Map<String, StorageUsage> contentTypes = new HashMap<>();
+
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(Long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public Long getImageCount() {
+        return imageCount;
+    }
+
+    public void setImageCount(Long imageCount) {
+        this.imageCount = imageCount;
+    }
+
+    public LocalDateTime getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(LocalDateTime reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+
+    public Map<String, StorageUsage> getContentTypes() {
+        return contentTypes;
+    }
+
+    public void setContentTypes(Map<String, StorageUsage> contentTypes) {
+        this.contentTypes = contentTypes;
+    }
+}
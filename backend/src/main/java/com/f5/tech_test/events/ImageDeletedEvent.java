@@ -0,0 +1,7 @@
+package com.f5.tech_test.events;
+
+/**
+ * Published when an image is deleted.
+ */
+public record ImageDeletedEvent(Long imageId, Long userId) {
+}
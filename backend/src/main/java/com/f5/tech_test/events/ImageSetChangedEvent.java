@@ -0,0 +1,8 @@
+package com.f5.tech_test.events;
+
+/**
+ * Published when images are added to or removed from a user's collection, or one of them
+ * gets a new file. Views derived from the whole collection use it to invalidate themselves.
+ */
+public record ImageSetChangedEvent(Long userId) {
+}
@@ -0,0 +1,9 @@
+package com.f5.tech_test.events;
+
+/**
+ * Published when an image is stored or its title, description or original filename may
+ * have changed. Carries the text so listeners don't have to read the image back.
+ */
+public record ImageTextChangedEvent(Long imageId, Long userId, String title, String description,
+                                   String originalFilename) {
+}
@@ -0,0 +1,8 @@
+package com.f5.tech_test.events;
+
+/**
+ * Published when an image file has been stored or replaced. Listeners that do heavy
+ * work should react after the surrounding transaction commits.
+ */
+public record ImageUploadedEvent(Long imageId, String filename) {
+}
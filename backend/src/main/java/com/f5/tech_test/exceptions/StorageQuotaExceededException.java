@@ -0,0 +1,7 @@
+package com.f5.tech_test.exceptions;
+
+public class StorageQuotaExceededException extends RuntimeException {
+    public StorageQuotaExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.f5.tech_test.exceptions;
+
+public class TooManyUploadsException extends RuntimeException {
+    public TooManyUploadsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.f5.tech_test.exceptions;
+
+public class UploadConflictException extends RuntimeException {
+    public UploadConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.f5.tech_test.exceptions;
+
+public class UploadTooLargeException extends RuntimeException {
+    public UploadTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -2,8 +2,15 @@ package com.f5.tech_test.mappers;
 
 import com.f5.tech_test.dto.ImageDTO;
 import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.ImageVariant;
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.repositories.VariantSummary;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 public class ImageMapper {
     
@@ -20,6 +27,7 @@ public class ImageMapper {
         dto.setFileSize(image.getFileSize());
         dto.setWidth(image.getWidth());
         dto.setHeight(image.getHeight());
+        dto.setPlaceholder(image.getPlaceholder());
         dto.setTitle(image.getTitle());
         dto.setDescription(image.getDescription());
         dto.setUploadDate(image.getUploadDate());
@@ -28,6 +36,47 @@ public class ImageMapper {
         // Construct the URL for the image
         if (baseUrl != null && !baseUrl.isEmpty()) {
             dto.setUrl(baseUrl + "/" + image.getFilename());
+
+            Map<String, String> variants = new LinkedHashMap<>();
+            for (ImageVariant variant : image.getVariants()) {
+                variants.put(variant.getName(), baseUrl + "/" + variant.getFilename());
+            }
+            dto.setVariants(variants);
+        }
+
+        return dto;
+    }
+
+    /**
+     * Builds the DTO from a projection; {@code variants} are the image's own, smallest first.
+     */
+    public ImageDTO toDTO(ImageSummary image, List<VariantSummary> variants, String baseUrl) {
+        if (image == null) {
+            return null;
+        }
+
+        ImageDTO dto = new ImageDTO();
+        dto.setId(image.id());
+        dto.setFilename(image.filename());
+        dto.setOriginalFilename(image.originalFilename());
+        dto.setContentType(image.contentType());
+        dto.setFileSize(image.fileSize());
+        dto.setWidth(image.width());
+        dto.setHeight(image.height());
+        dto.setPlaceholder(image.placeholder());
+        dto.setTitle(image.title());
+        dto.setDescription(image.description());
+        dto.setUploadDate(image.uploadDate());
+        dto.setLastModifiedDate(image.lastModifiedDate());
+
+        if (baseUrl != null && !baseUrl.isEmpty()) {
+            dto.setUrl(baseUrl + "/" + image.filename());
+
+            Map<String, String> variantUrls = new LinkedHashMap<>();
+            for (VariantSummary variant : variants) {
+                variantUrls.put(variant.name(), baseUrl + "/" + variant.filename());
+            }
+            dto.setVariants(variantUrls);
         }
 
         return dto;
@@ -46,6 +95,7 @@ public class ImageMapper {
         image.setFileSize(dto.getFileSize());
         image.setWidth(dto.getWidth());
         image.setHeight(dto.getHeight());
+        image.setPlaceholder(dto.getPlaceholder());
         image.setTitle(dto.getTitle());
         image.setDescription(dto.getDescription());
 
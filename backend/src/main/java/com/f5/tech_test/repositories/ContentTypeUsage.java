@@ -0,0 +1,7 @@
+package com.f5.tech_test.repositories;
+
+/**
+ * Bytes and number of images of one content type, summed over a user's images.
+ */
+public record ContentTypeUsage(String contentType, Long totalBytes, Long imageCount) {
+}
@@ -0,0 +1,17 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.services.ImageCursor;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImageSort;
+
+import java.util.List;
+
+public interface ImageListingRepository {
+
+    /**
+     * Up to {@code limit} of the user's images matching {@code filter} in {@code sort} order,
+     * starting after {@code after}, or from the beginning when it is {@code null}.
+     */
+    List<ImageSummary> findPage(User user, ImageSort sort, ImageFilter filter, ImageCursor after, int limit);
+}
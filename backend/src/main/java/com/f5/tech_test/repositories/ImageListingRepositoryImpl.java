@@ -0,0 +1,143 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.services.ImageCursor;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImageSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset pagination: each page is a range scan that starts right after the previous page's
+ * last (sort key, id), so it costs the same however deep it is. Migration V2 creates a
+ * (user_id, key, id) index for every {@link ImageSort}. Rows are selected straight into
+ * {@link ImageSummary}, never as entities.
+ * <p>
+ * An {@link ImageFilter} adds its conditions to the same query, each a plain comparison on a
+ * column so the database can answer it from an index: with the sort index it stops as soon
+ * as a page of matches has been read, and selective filters have indexes of their own (V4).
+ */
+public class ImageListingRepositoryImpl implements ImageListingRepository {
+
+    private final EntityManager entityManager;
+
+    public ImageListingRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ImageSummary> findPage(User user, ImageSort sort, ImageFilter filter, ImageCursor after, int limit) {
+        if (sort != ImageSort.TITLE) {
+            return query(user, sort, filter, after, limit, false);
+        }
+
+        // Untitled images come last, ordered by id alone, once every titled one has been listed
+        if (after != null && after.key() == null) {
+            return query(user, sort, filter, after, limit, true);
+        }
+        List<ImageSummary> images = new ArrayList<>(query(user, sort, filter, after, limit, false));
+        if (images.size() < limit) {
+            images.addAll(query(user, sort, filter, null, limit - images.size(), true));
+        }
+        return images;
+    }
+
+    private List<ImageSummary> query(User user, ImageSort sort, ImageFilter filter, ImageCursor after, int limit,
+                                     boolean untitled) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ImageSummary> query = cb.createQuery(ImageSummary.class);
+        Root<Image> image = query.from(Image.class);
+        Path<Long> id = image.get("id");
+        query.select(cb.construct(ImageSummary.class, id, image.get("filename"), image.get("originalFilename"),
+            image.get("contentType"), image.get("fileSize"), image.get("width"), image.get("height"),
+            image.get("placeholder"), image.get("title"), image.get("description"), image.get("uploadDate"),
+            image.get("lastModifiedDate")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(image.get("user"), user));
+        addFilter(cb, image, filter, predicates);
+        if (untitled) {
+            predicates.add(cb.isNull(image.get("title")));
+            if (after != null) {
+                predicates.add(cb.greaterThan(id, after.id()));
+            }
+            query.orderBy(cb.asc(id));
+        } else {
+            Path<Comparable<Object>> key = image.get(sort.getAttribute());
+            if (sort == ImageSort.TITLE) {
+                predicates.add(cb.isNotNull(key));
+            }
+            if (after != null) {
+                predicates.add(after(cb, key, id, after, sort.isAscending()));
+            }
+            query.orderBy(sort.isAscending()
+                ? List.of(cb.asc(key), cb.asc(id))
+                : List.of(cb.desc(key), cb.desc(id)));
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private void addFilter(CriteriaBuilder cb, Root<Image> image, ImageFilter filter, List<Predicate> predicates) {
+        Path<Integer> width = image.get("width");
+        Path<Integer> height = image.get("height");
+        Path<Long> fileSize = image.get("fileSize");
+        Path<LocalDateTime> uploadDate = image.get("uploadDate");
+
+        if (filter.minWidth() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(width, filter.minWidth()));
+        }
+        if (filter.maxWidth() != null) {
+            predicates.add(cb.lessThanOrEqualTo(width, filter.maxWidth()));
+        }
+        if (filter.minHeight() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(height, filter.minHeight()));
+        }
+        if (filter.maxHeight() != null) {
+            predicates.add(cb.lessThanOrEqualTo(height, filter.maxHeight()));
+        }
+        if (filter.minSize() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(fileSize, filter.minSize()));
+        }
+        if (filter.maxSize() != null) {
+            predicates.add(cb.lessThanOrEqualTo(fileSize, filter.maxSize()));
+        }
+        if (filter.contentType() != null) {
+            predicates.add(cb.equal(image.get("contentType"), filter.contentType()));
+        }
+        if (filter.uploadedAfter() != null) {
+            predicates.add(cb.greaterThan(uploadDate, filter.uploadedAfter()));
+        }
+        if (filter.uploadedBefore() != null) {
+            predicates.add(cb.lessThan(uploadDate, filter.uploadedBefore()));
+        }
+        if (filter.orientation() != null) {
+            // Compared column to column rather than as a ratio, so no expression has to be computed per row
+            predicates.add(switch (filter.orientation()) {
+                case LANDSCAPE -> cb.greaterThan(width, height);
+                case PORTRAIT -> cb.lessThan(width, height);
+                case SQUARE -> cb.equal(width, height);
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate after(CriteriaBuilder cb, Path<Comparable<Object>> key, Path<Long> id,
+                            ImageCursor after, boolean ascending) {
+        Comparable<Object> lastKey = (Comparable<Object>) after.key();
+        // key > last or (key = last and id > lastId), mirrored for descending order
+        return ascending
+            ? cb.or(cb.greaterThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.greaterThan(id, after.id())))
+            : cb.or(cb.lessThan(key, lastKey), cb.and(cb.equal(key, lastKey), cb.lessThan(id, after.id())));
+    }
+}
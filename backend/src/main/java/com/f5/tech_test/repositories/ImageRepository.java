@@ -1,13 +1,85 @@
 package com.f5.tech_test.repositories;
 
 import com.f5.tech_test.entities.Image;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.f5.tech_test.entities.User;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ImageRepository extends JpaRepository<Image, Long> {
+public interface ImageRepository extends JpaRepository<Image, Long>, ImageListingRepository {
     // Basic CRUD operations are automatically provided by JpaRepository
-    List<Image> findByUser(User user);
-} 
\ No newline at end of file
+
+    // Ownership is part of the lookup, so another user's image is simply not found
+    @Query("select new com.f5.tech_test.repositories.ImageSummary(i.id, i.filename, i.originalFilename,"
+        + " i.contentType, i.fileSize, i.width, i.height, i.placeholder, i.title, i.description, i.uploadDate,"
+        + " i.lastModifiedDate) from Image i where i.id = :id and i.user.id = :userId")
+    Optional<ImageSummary> findSummaryByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Search results come back from the index as ids, ranked; the caller restores the order
+    @Query("select new com.f5.tech_test.repositories.ImageSummary(i.id, i.filename, i.originalFilename,"
+        + " i.contentType, i.fileSize, i.width, i.height, i.placeholder, i.title, i.description, i.uploadDate,"
+        + " i.lastModifiedDate) from Image i where i.id in :ids and i.user.id = :userId")
+    List<ImageSummary> findSummariesByIdInAndUserId(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Query("select coalesce(max(i.id), 0) from Image i")
+    long findMaxId();
+
+    @Query("select new com.f5.tech_test.repositories.SearchDocument(i.id, i.user.id, i.title, i.description,"
+        + " i.originalFilename) from Image i where i.id > :afterId and i.id <= :lastId order by i.id")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") long afterId, @Param("lastId") long lastId,
+                                             Pageable pageable);
+
+    @Query("select new com.f5.tech_test.repositories.SearchDocument(i.id, i.user.id, i.title, i.description,"
+        + " i.originalFilename) from Image i where i.lastModifiedDate >= :since")
+    List<SearchDocument> findSearchDocumentsModifiedSince(@Param("since") LocalDateTime since);
+
+    // Recounts what the stats should say; only the reconciliation job pays for this
+    @Query("select new com.f5.tech_test.repositories.ContentTypeUsage(i.contentType, sum(i.fileSize), count(i))"
+        + " from Image i where i.user.id = :userId group by i.contentType")
+    List<ContentTypeUsage> sumStorageByContentType(@Param("userId") Long userId);
+
+    // Several rows can share a filename when storage is content-addressed
+    @Query("select i.contentHash from Image i where i.filename = :filename")
+    List<String> findContentHashesByFilename(@Param("filename") String filename);
+
+    @Query("select i from Image i where i.optimizedDate is null and i.contentType in :contentTypes"
+        + " and i.fileSize <= :maxFileSize order by i.id")
+    List<Image> findOptimizationCandidates(@Param("contentTypes") Collection<String> contentTypes,
+                                           @Param("maxFileSize") long maxFileSize,
+                                           Pageable pageable);
+
+    // Only swaps the file if the image still points at the one that was optimized
+    @Modifying
+    @Query("update Image i set i.filename = :newFilename, i.fileSize = :fileSize, i.contentHash = :contentHash,"
+        + " i.optimizedDate = :optimizedDate where i.id = :id and i.filename = :oldFilename")
+    int replaceFile(@Param("id") Long id,
+                    @Param("oldFilename") String oldFilename,
+                    @Param("newFilename") String newFilename,
+                    @Param("fileSize") long fileSize,
+                    @Param("contentHash") String contentHash,
+                    @Param("optimizedDate") LocalDateTime optimizedDate);
+
+    @Modifying
+    @Query("update Image i set i.optimizedDate = :optimizedDate where i.id = :id")
+    int markOptimized(@Param("id") Long id, @Param("optimizedDate") LocalDateTime optimizedDate);
+
+    boolean existsByPlaceholderIsNull();
+
+    @Query("select i from Image i where i.placeholder is null and i.id > :afterId order by i.id")
+    List<Image> findPlaceholderCandidates(@Param("afterId") long afterId, Pageable pageable);
+
+    // Skipped if the file was replaced meanwhile; the replacement computed its own placeholder
+    @Modifying
+    @Query("update Image i set i.placeholder = :placeholder where i.id = :id and i.filename = :filename")
+    int updatePlaceholder(@Param("id") Long id,
+                          @Param("filename") String filename,
+                          @Param("placeholder") String placeholder);
+}
@@ -0,0 +1,23 @@
+package com.f5.tech_test.repositories;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of an image that {@code ImageDTO} needs, selected directly so read paths neither
+ * hydrate entities nor keep them in the persistence context.
+ */
+public record ImageSummary(
+    Long id,
+    String filename,
+    String originalFilename,
+    String contentType,
+    Long fileSize,
+    Integer width,
+    Integer height,
+    String placeholder,
+    String title,
+    String description,
+    LocalDateTime uploadDate,
+    LocalDateTime lastModifiedDate
+) {
+}
@@ -0,0 +1,26 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.ImageVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageVariantRepository extends JpaRepository<ImageVariant, Long> {
+
+    @Query("select v.contentHash from ImageVariant v where v.filename = :filename")
+    List<String> findContentHashesByFilename(@Param("filename") String filename);
+
+    // Smallest first, the order Image.variants is mapped in
+    @Query("select new com.f5.tech_test.repositories.VariantSummary(v.image.id, v.name, v.filename)"
+        + " from ImageVariant v where v.image.id in :imageIds order by v.width")
+    List<VariantSummary> findSummariesByImageIds(@Param("imageIds") Collection<Long> imageIds);
+
+    @Query("select new com.f5.tech_test.repositories.VariantSummary(v.image.id, v.name, v.filename)"
+        + " from ImageVariant v where v.image.id = :imageId order by v.width")
+    List<VariantSummary> findSummariesByImageId(@Param("imageId") Long imageId);
+}
@@ -0,0 +1,7 @@
+package com.f5.tech_test.repositories;
+
+/**
+ * The searchable text of an image, read without loading the entity.
+ */
+public record SearchDocument(Long id, Long userId, String title, String description, String originalFilename) {
+}
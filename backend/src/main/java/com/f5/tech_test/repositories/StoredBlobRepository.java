@@ -0,0 +1,24 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.StoredBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    @Modifying
+    @Query("update StoredBlob b set b.referenceCount = b.referenceCount + 1 where b.filename = :filename")
+    int incrementReferences(@Param("filename") String filename);
+
+    @Modifying
+    @Query("update StoredBlob b set b.referenceCount = b.referenceCount - 1 where b.filename = :filename and b.referenceCount > 0")
+    int decrementReferences(@Param("filename") String filename);
+
+    @Modifying
+    @Query("delete from StoredBlob b where b.filename = :filename and b.referenceCount = 0")
+    int deleteUnreferenced(@Param("filename") String filename);
+}
@@ -0,0 +1,19 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    // Not read-only, so it reads the primary: a replica may lack a session that was just created or its last chunk
+    @Transactional
+    Optional<UploadSession> findByIdAndUserId(String id, Long userId);
+
+    List<UploadSession> findByLastModifiedDateBefore(LocalDateTime cutoff);
+}
@@ -0,0 +1,14 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.User;
+
+import java.util.Optional;
+
+public interface UserLookupRepository {
+
+    /**
+     * The user with this username, resolved through the natural-id cache so repeated lookups
+     * of the same user do not reach the database.
+     */
+    Optional<User> findByUsername(String username);
+}
@@ -0,0 +1,45 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Username is the natural id of {@link User}. Loading by natural id first resolves the id from
+ * the {@code users-by-username} region and then the row from the {@code users} region, where a
+ * query by username would always run against the database. Hibernate keeps both regions up
+ * to date when a user is saved, renamed or deleted.
+ * <p>
+ * Hibernate trusts a cached resolution without checking it against the user it leads to, and
+ * caches resolutions read from a lagging replica too. A user that comes back under another
+ * username, or no user at all, is therefore confirmed with a query by username.
+ * <p>
+ * Not read-only: a lookup outside any transaction, as during authentication, takes no
+ * connection on a cache hit and otherwise reads the primary.
+ */
+public class UserLookupRepositoryImpl implements UserLookupRepository {
+
+    private final EntityManager entityManager;
+
+    public UserLookupRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> findByUsername(String username) {
+        User user = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .load(username);
+        if (user != null && user.getUsername().equals(username)) {
+            return Optional.of(user);
+        }
+        return entityManager.createQuery("select u from User u where u.username = :username", User.class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst();
+    }
+}
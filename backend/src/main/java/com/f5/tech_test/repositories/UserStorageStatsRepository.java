@@ -0,0 +1,66 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.UserStorageStats;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface UserStorageStatsRepository extends JpaRepository<UserStorageStats, Long> {
+
+    /**
+     * Adds to the totals unless an increase would take them over the quota. The check and the
+     * update are one statement, so concurrent uploads cannot both pass it. Returns 0 when the
+     * quota would be exceeded or the user has no row yet.
+     */
+    @Modifying
+    @Query("update UserStorageStats s set s.totalBytes = s.totalBytes + :bytes, s.imageCount = s.imageCount + :count"
+         + " where s.userId = :userId"
+         + " and (:bytes <= 0 or s.totalBytes + :bytes <= :maxBytes)"
+         + " and (:count <= 0 or s.imageCount + :count <= :maxImages)")
+    int addWithinQuota(@Param("userId") Long userId,
+                       @Param("bytes") long bytes,
+                       @Param("count") long count,
+                       @Param("maxBytes") long maxBytes,
+                       @Param("maxImages") long maxImages);
+
+    // The breakdown is an element collection, which JPQL cannot update in place. Native statements
+    // name the table they write; without it Hibernate would empty every second-level cache region
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_storage_type_stats"))
+    @Query(value = "update user_storage_type_stats set total_bytes = total_bytes + :bytes, image_count = image_count + :count"
+                 + " where user_id = :userId and content_type = :contentType", nativeQuery = true)
+    int addToContentType(@Param("userId") Long userId,
+                         @Param("contentType") String contentType,
+                         @Param("bytes") long bytes,
+                         @Param("count") long count);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_storage_type_stats"))
+    @Query(value = "insert into user_storage_type_stats (user_id, content_type, total_bytes, image_count)"
+                 + " values (:userId, :contentType, :bytes, :count)", nativeQuery = true)
+    int insertContentType(@Param("userId") Long userId,
+                          @Param("contentType") String contentType,
+                          @Param("bytes") long bytes,
+                          @Param("count") long count);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_storage_type_stats"))
+    @Query(value = "delete from user_storage_type_stats where user_id = :userId and image_count <= 0",
+           nativeQuery = true)
+    int deleteEmptyContentTypes(@Param("userId") Long userId);
+
+    // Taken by reconciliation so no upload changes the totals between counting and writing them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UserStorageStats s where s.userId = :userId")
+    Optional<UserStorageStats> findByIdForUpdate(@Param("userId") Long userId);
+}
@@ -0,0 +1,4 @@
+package com.f5.tech_test.repositories;
+
+public record VariantSummary(Long imageId, String name, String filename) {
+}
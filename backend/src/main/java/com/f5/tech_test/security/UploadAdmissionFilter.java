@@ -0,0 +1,86 @@
+package com.f5.tech_test.security;
+
+import com.f5.tech_test.config.UploadAdmissionConfig;
+import com.f5.tech_test.exceptions.TooManyUploadsException;
+import com.f5.tech_test.services.UploadAdmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Applies {@link UploadAdmissionService} to the upload endpoints. It runs after JWT
+ * authentication so limits are per user, and before any of the request body is read.
+ */
+@Component
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private static final RequestMatcher UPLOAD_REQUESTS = new OrRequestMatcher(
+        new AntPathRequestMatcher("/api/images", "POST"),
+        new AntPathRequestMatcher("/api/images/batch", "POST"),
+        new AntPathRequestMatcher("/api/images/stream", "PUT"),
+        new AntPathRequestMatcher("/api/uploads/*", "PATCH"),
+        new AntPathRequestMatcher("/api/uploads/*/complete", "POST")
+    );
+
+    private final UploadAdmissionService uploadAdmissionService;
+    private final UploadAdmissionConfig uploadAdmissionConfig;
+    private final ObjectMapper objectMapper;
+
+    public UploadAdmissionFilter(UploadAdmissionService uploadAdmissionService,
+                                 UploadAdmissionConfig uploadAdmissionConfig,
+                                 ObjectMapper objectMapper) {
+        this.uploadAdmissionService = uploadAdmissionService;
+        this.uploadAdmissionConfig = uploadAdmissionConfig;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !UPLOAD_REQUESTS.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            // Rejected further down the chain; nothing to count
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        UploadAdmissionService.Permit permit;
+        try {
+            permit = uploadAdmissionService.admit(authentication.getName());
+        } catch (TooManyUploadsException e) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(uploadAdmissionConfig.getRetryAfter().toSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), Map.of("error", e.getMessage()));
+            return;
+        }
+
+        try (permit) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
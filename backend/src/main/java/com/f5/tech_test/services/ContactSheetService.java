@@ -0,0 +1,201 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ContactSheetConfig;
+import com.f5.tech_test.dto.ContactSheetDTO;
+import com.f5.tech_test.dto.SheetTileDTO;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.events.ImageSetChangedEvent;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.repositories.ImageVariantRepository;
+import com.f5.tech_test.repositories.VariantSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Renders a page of a user's thumbnails into one sprite with an atlas of where each image
+ * sits, so a gallery page needs a single request. Sheets use the grid's sort order and
+ * cursors, so a sheet starts where the grid page for the same cursor does. Sheets are cached
+ * per user and page and dropped when the user's image set changes.
+ */
+@Service
+public class ContactSheetService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContactSheetService.class);
+
+    private final ImageRepository imageRepository;
+    private final ImageVariantRepository imageVariantRepository;
+    private final ImageService imageService;
+    private final FileStorageService fileStorageService;
+    private final ImageResizer imageResizer;
+    private final ContactSheetConfig contactSheetConfig;
+    private final RecentWriteTracker recentWriteTracker;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
+
+    // Bumped on every change, so a sheet rendered from data read before the change is never served
+    private final Map<Long, Long> generations = new ConcurrentHashMap<>();
+    private final LinkedHashMap<SheetKey, ContactSheetDTO> sheets;
+
+    private record SheetKey(Long userId, long generation, ImageSort sort, ImageCursor after) {
+    }
+
+    private record Thumbnail(Long imageId, String filename) {
+    }
+
+    public ContactSheetService(ImageRepository imageRepository,
+                               ImageVariantRepository imageVariantRepository,
+                               ImageService imageService,
+                               FileStorageService fileStorageService,
+                               ImageResizer imageResizer,
+                               ContactSheetConfig contactSheetConfig,
+                               RecentWriteTracker recentWriteTracker,
+                               PlatformTransactionManager transactionManager) {
+        this.imageRepository = imageRepository;
+        this.imageVariantRepository = imageVariantRepository;
+        this.imageService = imageService;
+        this.fileStorageService = fileStorageService;
+        this.imageResizer = imageResizer;
+        this.contactSheetConfig = contactSheetConfig;
+        this.recentWriteTracker = recentWriteTracker;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // For users who just changed their images: a sheet read from a replica missing the change would be cached
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+
+        int maxEntries = contactSheetConfig.getCacheMaxEntries();
+        this.sheets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SheetKey, ContactSheetDTO> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the sheet of the current user's images in {@code sort} order. {@code cursor} is
+     * the {@code nextCursor} of the previous sheet or grid page, or {@code null} for the first one.
+     */
+    public ContactSheetDTO getSheet(String sort, String cursor) throws IOException {
+        ImageSort order = ImageSort.from(sort);
+        ImageCursor after = cursor == null || cursor.isBlank() ? null : ImageCursor.decode(cursor, order);
+        User currentUser = imageService.getCurrentUser().orElseThrow();
+        SheetKey key = new SheetKey(currentUser.getId(), generations.getOrDefault(currentUser.getId(), 0L),
+            order, after);
+        synchronized (sheets) {
+            ContactSheetDTO cached = sheets.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        ContactSheetDTO sheet = render(currentUser, order, after);
+        synchronized (sheets) {
+            sheets.put(key, sheet);
+        }
+        return sheet;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageSetChanged(ImageSetChangedEvent event) {
+        generations.merge(event.userId(), 1L, Long::sum);
+        synchronized (sheets) {
+            sheets.keySet().removeIf(key -> key.userId().equals(event.userId()));
+        }
+    }
+
+    private ContactSheetDTO render(User user, ImageSort sort, ImageCursor after) throws IOException {
+        int pageSize = contactSheetConfig.getPageSize();
+        int tileSize = contactSheetConfig.getTileSize();
+        int columns = contactSheetConfig.getColumns();
+
+        // Only names leave the transaction; decoding happens without holding a connection
+        ContactSheetDTO sheet = new ContactSheetDTO();
+        TransactionTemplate transaction = recentWriteTracker.wroteRecently(user.getId())
+            ? primaryTransaction
+            : readOnlyTransaction;
+        List<Thumbnail> thumbnails = transaction.execute(status -> {
+            // One row more than asked for tells whether another page follows
+            List<ImageSummary> images = imageRepository.findPage(user, sort, ImageFilter.NONE, after, pageSize + 1);
+            if (images.size() > pageSize) {
+                images = images.subList(0, pageSize);
+                sheet.setNextCursor(ImageCursor.after(sort, images.get(pageSize - 1)).encode());
+            }
+            if (images.isEmpty()) {
+                return List.of();
+            }
+            Map<Long, List<VariantSummary>> variants = imageVariantRepository
+                .findSummariesByImageIds(images.stream().map(ImageSummary::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(VariantSummary::imageId));
+            return images.stream()
+                .map(image -> new Thumbnail(image.id(),
+                    sourceFor(image, variants.getOrDefault(image.id(), List.of()), tileSize)))
+                .toList();
+        });
+        if (thumbnails.isEmpty()) {
+            return sheet;
+        }
+
+        int rows = (thumbnails.size() + columns - 1) / columns;
+        BufferedImage sprite = new BufferedImage(Math.min(thumbnails.size(), columns) * tileSize, rows * tileSize,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = sprite.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, sprite.getWidth(), sprite.getHeight());
+            for (int i = 0; i < thumbnails.size(); i++) {
+                Thumbnail thumbnail = thumbnails.get(i);
+                try {
+                    BufferedImage source = imageResizer.decode(
+                        fileStorageService.getFilePath(thumbnail.filename()), tileSize, tileSize);
+                    ImageDimensions size = imageResizer.fitWithin(source.getWidth(), source.getHeight(), tileSize);
+                    int x = (i % columns) * tileSize + (tileSize - size.width()) / 2;
+                    int y = (i / columns) * tileSize + (tileSize - size.height()) / 2;
+                    graphics.drawImage(imageResizer.scale(source, size.width(), size.height()), x, y, null);
+                    sheet.getTiles().put(thumbnail.imageId(), new SheetTileDTO(x, y, size.width(), size.height()));
+                } catch (IOException | RuntimeException e) {
+                    // Left out of the atlas; the client falls back to the image URL
+                    logger.warn("Could not add image {} to contact sheet", thumbnail.imageId(), e);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ImageResizer.EncodedImage encoded = imageResizer.encode(sprite);
+        sheet.setWidth(sprite.getWidth());
+        sheet.setHeight(sprite.getHeight());
+        sheet.setImage("data:" + encoded.contentType() + ";base64,"
+            + Base64.getEncoder().encodeToString(encoded.content()));
+        return sheet;
+    }
+
+    /**
+     * The smallest stored variant still at least a tile wide, or the original if there is none.
+     * Variants are named after their longest edge.
+     */
+    private String sourceFor(ImageSummary image, List<VariantSummary> variants, int tileSize) {
+        return variants.stream()
+            .filter(variant -> Integer.parseInt(variant.name()) >= tileSize)
+            .min(Comparator.comparingInt(variant -> Integer.parseInt(variant.name())))
+            .map(VariantSummary::filename)
+            .orElse(image.filename());
+    }
+}
@@ -0,0 +1,253 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.FileStorageConfig;
+import com.f5.tech_test.entities.StoredBlob;
+import com.f5.tech_test.repositories.StoredBlobRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores each distinct content once, named by its SHA-256 hash, and reference-counts
+ * it across the images that point to it. The extension comes from the sniffed image type
+ * rather than the client's filename, so the same bytes always map to the same blob. Uploading a duplicate only bumps the count,
+ * and a blob is removed from disk when its last reference is deleted.
+ * <p>
+ * Uploads up to {@code file.content-addressed.buffer-size} are hashed in memory, so a
+ * duplicate is never written. Larger ones are hashed on their way into a temp file,
+ * which is dropped again if the content turns out to be stored already.
+ * <p>
+ * Counts commit on their own, ahead of the caller's transaction. A reference taken inside
+ * a transaction that then rolls back is released again, unless the caller already deleted it.
+ * Enabled with {@code file.storage=content-addressed}.
+ */
+@Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "content-addressed")
+public class ContentAddressedFileStorageService implements FileStorageService {
+
+    private static final String TEMP_PREFIX = ".incoming-";
+    private static final int LOCK_STRIPES = 64;
+    private static final Map<String, String> EXTENSIONS = Map.of(
+        "image/jpeg", ".jpg",
+        "image/png", ".png",
+        "image/gif", ".gif",
+        "image/webp", ".webp"
+    );
+
+    private final Path fileStorageLocation;
+    private final int bufferSize;
+    private final StoredBlobRepository storedBlobRepository;
+    private final ImageTypeSniffer imageTypeSniffer;
+    private final HotImageCache hotImageCache;
+    private final TransactionTemplate blobTransaction;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public ContentAddressedFileStorageService(FileStorageConfig fileStorageConfig,
+                                              StoredBlobRepository storedBlobRepository,
+                                              ImageTypeSniffer imageTypeSniffer,
+                                              HotImageCache hotImageCache,
+                                              PlatformTransactionManager transactionManager) {
+        this.fileStorageLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        this.bufferSize = (int) Math.min(fileStorageConfig.getContentAddressedBufferSize().toBytes(),
+            Integer.MAX_VALUE - 8);
+        this.storedBlobRepository = storedBlobRepository;
+        this.imageTypeSniffer = imageTypeSniffer;
+        this.hotImageCache = hotImageCache;
+
+        // Reference counts commit on their own so concurrent uploads of the same content see each other
+        this.blobTransaction = new TransactionTemplate(transactionManager);
+        this.blobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        try {
+            Files.createDirectories(this.fileStorageLocation);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
+        }
+    }
+
+    @Override
+    public String storeFile(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeFile(inputStream, file.getOriginalFilename());
+        }
+    }
+
+    @Override
+    public String storeFile(InputStream inputStream, String originalFilename) throws IOException {
+        // Reuse the upload pipeline's digest rather than hashing the content twice
+        UploadTeeInputStream hashingStream = inputStream instanceof UploadTeeInputStream tee
+            ? tee
+            : new UploadTeeInputStream(inputStream, 0);
+
+        // One byte past the buffer tells whether the whole upload fit
+        byte[] buffered = hashingStream.readNBytes(bufferSize + 1);
+        Path incoming = null;
+        try {
+            if (buffered.length > bufferSize) {
+                // Too large to hold: the hash is only known once the rest has been copied to a temp file
+                incoming = Files.createTempFile(this.fileStorageLocation, TEMP_PREFIX, ".tmp");
+                try (OutputStream out = Files.newOutputStream(incoming)) {
+                    out.write(buffered);
+                    hashingStream.transferTo(out);
+                }
+            }
+
+            String contentHash = hashingStream.getContentHash();
+            // Content of an unrecognised type is stored under the bare hash
+            String filename = contentHash + imageTypeSniffer.sniff(buffered, buffered.length)
+                .map(EXTENSIONS::get)
+                .orElse("");
+            long size = hashingStream.getBytesRead();
+
+            synchronized (lockFor(filename)) {
+                boolean isNewBlob = Boolean.TRUE.equals(blobTransaction.execute(status -> {
+                    if (storedBlobRepository.incrementReferences(filename) > 0) {
+                        return false;
+                    }
+                    StoredBlob blob = new StoredBlob();
+                    blob.setFilename(filename);
+                    blob.setContentHash(contentHash);
+                    blob.setSize(size);
+                    blob.setReferenceCount(1);
+                    storedBlobRepository.save(blob);
+                    return true;
+                }));
+
+                Path target = getFilePath(filename);
+                if (isNewBlob || !Files.exists(target)) {
+                    if (incoming == null) {
+                        incoming = Files.createTempFile(this.fileStorageLocation, TEMP_PREFIX, ".tmp");
+                        Files.write(incoming, buffered);
+                    }
+                    Files.move(incoming, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                }
+            }
+            pendingReferences(true).ifPresent(pending -> pending.filenames.add(filename));
+            return filename;
+        } finally {
+            // Left behind only by a duplicate too large to buffer, or by a failure
+            if (incoming != null) {
+                Files.deleteIfExists(incoming);
+            }
+        }
+    }
+
+    @Override
+    public Path getFilePath(String filename) {
+        return this.fileStorageLocation.resolve(filename).normalize();
+    }
+
+    @Override
+    public boolean deleteFile(String fileUrl) {
+        String filename = fileUrl.substring(fileUrl.lastIndexOf("/") + 1);
+        Path filePath = getFilePath(filename);
+
+        if (!filePath.startsWith(this.fileStorageLocation)) {
+            return false;
+        }
+
+        // A reference the caller gives back itself must not be released again on rollback
+        pendingReferences(false).ifPresent(pending -> pending.filenames.remove(filename));
+        return releaseReference(filename, filePath);
+    }
+
+    private boolean releaseReference(String filename, Path filePath) {
+        synchronized (lockFor(filename)) {
+            Boolean lastReference = blobTransaction.execute(status -> {
+                if (storedBlobRepository.decrementReferences(filename) == 0) {
+                    return null;
+                }
+                return storedBlobRepository.deleteUnreferenced(filename) > 0;
+            });
+
+            if (lastReference == null) {
+                return false;
+            }
+            if (lastReference) {
+                hotImageCache.invalidate(filename);
+                try {
+                    Files.deleteIfExists(filePath);
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    @Override
+    public List<String> getAllFiles() {
+        try (Stream<Path> files = Files.list(this.fileStorageLocation)) {
+            return files
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.startsWith(TEMP_PREFIX))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read stored files", e);
+        }
+    }
+
+    /**
+     * The references taken in the current transaction, if there is one. Looked up among the
+     * transaction's synchronizations so a suspended outer transaction keeps its own.
+     */
+    private Optional<PendingReferences> pendingReferences(boolean create) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.empty();
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingReferences pending && pending.owner() == this) {
+                return Optional.of(pending);
+            }
+        }
+        if (!create) {
+            return Optional.empty();
+        }
+        PendingReferences pending = new PendingReferences();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return Optional.of(pending);
+    }
+
+    private Object lockFor(String filename) {
+        return locks[Math.floorMod(filename.hashCode(), LOCK_STRIPES)];
+    }
+
+    private final class PendingReferences implements TransactionSynchronization {
+
+        private final List<String> filenames = new ArrayList<>();
+
+        private ContentAddressedFileStorageService owner() {
+            return ContentAddressedFileStorageService.this;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status == STATUS_ROLLED_BACK) {
+                filenames.forEach(filename -> releaseReference(filename, getFilePath(filename)));
+            }
+        }
+    }
+}
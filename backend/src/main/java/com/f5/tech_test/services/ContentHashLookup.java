@@ -0,0 +1,81 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.ImageVariantRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maps stored filenames to the SHA-256 of their content. Stored files never change once
+ * written, so lookups are cached for good. The hash comes from the image or variant row;
+ * files stored before hashes were recorded are hashed once from disk.
+ */
+@Component
+public class ContentHashLookup {
+
+    static final int MAX_ENTRIES = 10_000;
+
+    private final ImageRepository imageRepository;
+    private final ImageVariantRepository imageVariantRepository;
+    private final Map<String, String> hashes = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public ContentHashLookup(ImageRepository imageRepository, ImageVariantRepository imageVariantRepository) {
+        this.imageRepository = imageRepository;
+        this.imageVariantRepository = imageVariantRepository;
+    }
+
+    public String getContentHash(String filename, Path file) throws IOException {
+        synchronized (hashes) {
+            String cached = hashes.get(filename);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        String hash = imageRepository.findContentHashesByFilename(filename).stream()
+            .filter(Objects::nonNull)
+            .findFirst()
+            .or(() -> imageVariantRepository.findContentHashesByFilename(filename).stream()
+                .filter(Objects::nonNull)
+                .findFirst())
+            .orElse(null);
+        if (hash == null) {
+            hash = hash(file);
+        }
+
+        synchronized (hashes) {
+            hashes.put(filename, hash);
+        }
+        return hash;
+    }
+
+    private String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
@@ -2,10 +2,14 @@ package com.f5.tech_test.services;
 
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 public interface FileStorageService {
     String storeFile(MultipartFile file) throws IOException;
+    String storeFile(InputStream inputStream, String originalFilename) throws IOException;
+    Path getFilePath(String filename);
     boolean deleteFile(String fileUrl);
     List<String> getAllFiles();
-} 
\ No newline at end of file
+}
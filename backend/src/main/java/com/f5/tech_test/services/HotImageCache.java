@@ -0,0 +1,360 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.HotImageCacheConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the bytes of frequently read stored files in one direct buffer allocated at startup,
+ * so hits neither touch the filesystem nor allocate on the heap. The buffer is split into
+ * fixed-size blocks and an entry takes as many as it needs.
+ * <p>
+ * Admission is TinyLFU-style: every read is counted in a small frequency sketch, and a file is
+ * only cached if it has been read more often than the least recently used entries it would evict.
+ * A one-off read therefore cannot push out an image that is read all the time.
+ */
+@Component
+public class HotImageCache {
+
+    private final int blockSize;
+    private final long maxEntrySize;
+    private final ByteBuffer[] blocks;
+    private final int[] freeBlocks;
+    private int freeCount;
+
+    // Access order, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    // Lets a load that raced with a deletion notice it and not publish the deleted file
+    private long invalidations;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Counter rejections;
+
+    public HotImageCache(HotImageCacheConfig config, MeterRegistry meterRegistry) {
+        this.blockSize = (int) config.getBlockSize().toBytes();
+        this.maxEntrySize = config.getMaxEntrySize().toBytes();
+        long maxSize = config.getMaxSize().toBytes();
+        if (maxSize > Integer.MAX_VALUE) {
+            throw new IllegalStateException("image.hot-cache.max-size must be below 2GB");
+        }
+
+        int blockCount = (int) (maxSize / blockSize);
+        ByteBuffer arena = ByteBuffer.allocateDirect(blockCount * blockSize);
+        this.blocks = new ByteBuffer[blockCount];
+        this.freeBlocks = new int[blockCount];
+        for (int i = 0; i < blockCount; i++) {
+            blocks[i] = arena.slice(i * blockSize, blockSize);
+            freeBlocks[i] = blockCount - 1 - i;
+        }
+        this.freeCount = blockCount;
+        this.sketch = new FrequencySketch(Math.max(blockCount, 256));
+
+        this.hits = meterRegistry.counter("images.hot.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("images.hot.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("images.hot.cache.evictions");
+        this.rejections = meterRegistry.counter("images.hot.cache.rejections");
+        Gauge.builder("images.hot.cache.hit.ratio", this, HotImageCache::hitRatio)
+                .register(meterRegistry);
+        Gauge.builder("images.hot.cache.resident.bytes", this, HotImageCache::residentBytes)
+                .description("Off-heap bytes held by cached files")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("images.hot.cache.entries", this, HotImageCache::size)
+                .register(meterRegistry);
+    }
+
+    public long getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+    /**
+     * Records a read of {@code filename} and returns its entry if cached. The entry stays valid
+     * until closed, even if it is evicted or invalidated in the meantime.
+     */
+    public Entry get(String filename) {
+        Entry entry;
+        synchronized (this) {
+            sketch.increment(filename);
+            entry = entries.get(filename);
+            if (entry != null && !entry.retain()) {
+                entry = null;
+            }
+        }
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    /**
+     * Caches {@code file} if it fits and is read more often than what it would evict, and
+     * returns the entry, which must be closed. Returns {@code null} when the file is not admitted.
+     */
+    public Entry load(String filename, Path file, long size) throws IOException {
+        if (size <= 0 || size > maxEntrySize) {
+            return null;
+        }
+        int needed = (int) ((size + blockSize - 1) / blockSize);
+
+        int[] reserved;
+        long invalidationsSeen;
+        synchronized (this) {
+            invalidationsSeen = invalidations;
+            Entry existing = entries.get(filename);
+            if (existing != null && existing.retain()) {
+                return existing;
+            }
+            reserved = reserve(filename, needed);
+            if (reserved == null) {
+                rejections.increment();
+                return null;
+            }
+        }
+
+        // Read outside the lock; the blocks are ours until published or handed back
+        Entry entry = new Entry(reserved, (int) size);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = 0;
+            for (int id : reserved) {
+                ByteBuffer block = blocks[id].duplicate().clear();
+                block.limit((int) Math.min(blockSize, size - position));
+                while (block.hasRemaining()) {
+                    if (channel.read(block, position + block.position()) < 0) {
+                        // Shorter than expected; don't cache a truncated copy
+                        entry.close();
+                        return null;
+                    }
+                }
+                position += block.limit();
+            }
+        } catch (IOException | RuntimeException e) {
+            entry.close();
+            throw e;
+        }
+
+        synchronized (this) {
+            Entry raced = entries.get(filename);
+            if (raced != null && raced.retain()) {
+                entry.close();
+                return raced;
+            }
+            if (invalidations != invalidationsSeen) {
+                // Serve it this once; the cache's reference is handed to the caller
+                return entry;
+            }
+            entry.retain();
+            entries.put(filename, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Drops {@code filename} from the cache. Readers holding its entry can finish; the memory
+     * is reused once they close it.
+     */
+    public void invalidate(String filename) {
+        Entry removed;
+        synchronized (this) {
+            invalidations++;
+            removed = entries.remove(filename);
+        }
+        if (removed != null) {
+            removed.close();
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long residentBytes() {
+        return (long) (blocks.length - freeCount) * blockSize;
+    }
+
+    public double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    /**
+     * Takes {@code needed} free blocks, evicting least recently used entries if the candidate
+     * is read more often than each of them. Callers hold the lock.
+     */
+    private int[] reserve(String filename, int needed) {
+        if (needed > blocks.length) {
+            return null;
+        }
+        if (freeCount < needed) {
+            int candidateFrequency = sketch.frequency(filename);
+            int freeable = freeCount;
+            List<String> victims = new ArrayList<>();
+            Iterator<Map.Entry<String, Entry>> lru = entries.entrySet().iterator();
+            while (freeable < needed && lru.hasNext()) {
+                Map.Entry<String, Entry> victim = lru.next();
+                if (candidateFrequency <= sketch.frequency(victim.getKey())) {
+                    return null;
+                }
+                victims.add(victim.getKey());
+                freeable += victim.getValue().blockIds.length;
+            }
+            for (String victim : victims) {
+                entries.remove(victim).close();
+                evictions.increment();
+            }
+            // Evicted entries still being read free their blocks later
+            if (freeCount < needed) {
+                return null;
+            }
+        }
+
+        int[] reserved = new int[needed];
+        for (int i = 0; i < needed; i++) {
+            reserved[i] = freeBlocks[--freeCount];
+        }
+        return reserved;
+    }
+
+    private synchronized void free(int[] blockIds) {
+        for (int id : blockIds) {
+            freeBlocks[freeCount++] = id;
+        }
+    }
+
+    /**
+     * A cached file. Holds a reference while open so its blocks are not reused under a reader.
+     */
+    public final class Entry implements AutoCloseable {
+
+        private final int[] blockIds;
+        private final int length;
+        // One reference for the cache itself, one per open reader
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        private Entry(int[] blockIds, int length) {
+            this.blockIds = blockIds;
+            this.length = length;
+        }
+
+        public long length() {
+            return length;
+        }
+
+        /**
+         * Writes {@code count} bytes starting at {@code start}.
+         */
+        public void writeTo(WritableByteChannel out, long start, long count) throws IOException {
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                int block = (int) (position / blockSize);
+                int offset = (int) (position % blockSize);
+                int chunk = (int) Math.min(blockSize - offset, end - position);
+                ByteBuffer view = blocks[blockIds[block]].duplicate();
+                view.limit(offset + chunk).position(offset);
+                while (view.hasRemaining()) {
+                    out.write(view);
+                }
+                position += chunk;
+            }
+        }
+
+        private boolean retain() {
+            int current;
+            do {
+                current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!references.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (references.decrementAndGet() == 0) {
+                free(blockIds);
+            }
+        }
+    }
+
+    /**
+     * Count-min sketch of recent read frequency with 4-bit saturating counters. Counts are halved
+     * after a sample period so that files that were popular a while ago lose their advantage.
+     */
+    static final class FrequencySketch {
+
+        private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] rows = new byte[SEEDS.length][];
+        private final int mask;
+        private final int samplePeriod;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int width = Integer.highestOneBit(Math.max(expectedEntries, 2) - 1) << 1;
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = new byte[width];
+            }
+            this.mask = width - 1;
+            this.samplePeriod = 10 * width;
+        }
+
+        void increment(String key) {
+            int hash = key.hashCode();
+            boolean added = false;
+            for (int i = 0; i < rows.length; i++) {
+                int index = index(hash, i);
+                if (rows[i][index] < MAX_COUNT) {
+                    rows[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= samplePeriod) {
+                halve();
+            }
+        }
+
+        int frequency(String key) {
+            int hash = key.hashCode();
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < rows.length; i++) {
+                frequency = Math.min(frequency, rows[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & mask;
+        }
+
+        private void halve() {
+            for (byte[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+}
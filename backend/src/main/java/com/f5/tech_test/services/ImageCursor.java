@@ -0,0 +1,49 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.repositories.ImageSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last image of a page: its sort key and id. Clients get it as an opaque
+ * string and pass it back for the next page, which then starts right after that row
+ * instead of skipping an offset. A {@code null} key is an untitled image under
+ * {@link ImageSort#TITLE}.
+ */
+public record ImageCursor(ImageSort sort, Comparable<?> key, long id) {
+
+    /**
+     * The cursor of a page ending with {@code last}.
+     */
+    public static ImageCursor after(ImageSort sort, ImageSummary last) {
+        return new ImageCursor(sort, sort.keyOf(last), last.id());
+    }
+
+    public String encode() {
+        String value = sort.name() + ":" + id + (key == null ? "" : ":" + key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ImageCursor decode(String cursor, ImageSort expectedSort) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = value.split(":", 3);
+            ImageSort sort = ImageSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidImageException("Cursor was issued for a different sort order");
+            }
+            long id = Long.parseLong(parts[1]);
+            if (parts.length < 3 && sort != ImageSort.TITLE) {
+                throw new IllegalArgumentException("Missing sort key");
+            }
+            return new ImageCursor(sort, parts.length < 3 ? null : sort.parseKey(parts[2]), id);
+        } catch (RuntimeException e) {
+            if (e instanceof InvalidImageException invalid) {
+                throw invalid;
+            }
+            throw new InvalidImageException("Invalid cursor");
+        }
+    }
+}
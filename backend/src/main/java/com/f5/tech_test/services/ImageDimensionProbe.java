@@ -0,0 +1,214 @@
+package com.f5.tech_test.services;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Reads image width and height from the file header without decoding any pixels.
+ * JPEG, PNG and GIF headers are parsed directly; anything else falls back to the
+ * metadata of a matching {@link ImageReader}, which never allocates a raster either.
+ */
+@Component
+public class ImageDimensionProbe {
+
+    // Upper bound on the bytes the header parsers may consume before giving up
+    static final int MAX_HEADER_BYTES = 1024 * 1024;
+
+    private static final byte[] PNG_SIGNATURE = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+
+    public Optional<ImageDimensions> probe(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return probe(in);
+        }
+    }
+
+    public Optional<ImageDimensions> probe(InputStream inputStream) throws IOException {
+        InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        in.mark(MAX_HEADER_BYTES);
+
+        Optional<ImageDimensions> dimensions = probeHeader(new HeaderReader(in));
+        if (dimensions.isPresent()) {
+            return dimensions;
+        }
+
+        in.reset();
+        return probeWithImageReader(in);
+    }
+
+    private Optional<ImageDimensions> probeHeader(HeaderReader reader) throws IOException {
+        try {
+            int first = reader.readUnsignedByte();
+            int second = reader.readUnsignedByte();
+
+            if (first == 0xFF && second == 0xD8) {
+                return probeJpeg(reader);
+            }
+            if (first == (PNG_SIGNATURE[0] & 0xFF) && second == PNG_SIGNATURE[1]) {
+                return probePng(reader);
+            }
+            if (first == 'G' && second == 'I') {
+                return probeGif(reader);
+            }
+            return Optional.empty();
+        } catch (EOFException e) {
+            // Truncated or oversized header, let the ImageReader fallback decide
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ImageDimensions> probeJpeg(HeaderReader reader) throws IOException {
+        while (true) {
+            int marker = reader.readUnsignedByte();
+            if (marker != 0xFF) {
+                return Optional.empty();
+            }
+            // Any number of 0xFF fill bytes may precede the marker code
+            do {
+                marker = reader.readUnsignedByte();
+            } while (marker == 0xFF);
+
+            if (marker == 0xD8 || marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                // Standalone markers carry no length field
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // End of image or start of scan reached without a frame header
+                return Optional.empty();
+            }
+
+            int length = reader.readUnsignedShort();
+            if (length < 2) {
+                return Optional.empty();
+            }
+            if (isStartOfFrame(marker)) {
+                reader.readUnsignedByte(); // sample precision
+                int height = reader.readUnsignedShort();
+                int width = reader.readUnsignedShort();
+                // A zero height is deferred to a DNL segment after the first scan
+                return dimensions(width, height);
+            }
+            reader.skip(length - 2);
+        }
+    }
+
+    private boolean isStartOfFrame(int marker) {
+        // SOF0..SOF15, excluding DHT (C4), JPG (C8) and DAC (CC)
+        return marker >= 0xC0 && marker <= 0xCF
+            && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+
+    private Optional<ImageDimensions> probePng(HeaderReader reader) throws IOException {
+        for (int i = 2; i < PNG_SIGNATURE.length; i++) {
+            if (reader.readUnsignedByte() != (PNG_SIGNATURE[i] & 0xFF)) {
+                return Optional.empty();
+            }
+        }
+        reader.readInt(); // IHDR chunk length
+        if (reader.readInt() != 0x49484452) { // "IHDR"
+            return Optional.empty();
+        }
+        int width = reader.readInt();
+        int height = reader.readInt();
+        return dimensions(width, height);
+    }
+
+    private Optional<ImageDimensions> probeGif(HeaderReader reader) throws IOException {
+        if (reader.readUnsignedByte() != 'F' || reader.readUnsignedByte() != '8') {
+            return Optional.empty();
+        }
+        int version = reader.readUnsignedByte();
+        if ((version != '7' && version != '9') || reader.readUnsignedByte() != 'a') {
+            return Optional.empty();
+        }
+        // Logical screen descriptor, little-endian
+        int width = reader.readUnsignedByte() | (reader.readUnsignedByte() << 8);
+        int height = reader.readUnsignedByte() | (reader.readUnsignedByte() << 8);
+        return dimensions(width, height);
+    }
+
+    private Optional<ImageDimensions> probeWithImageReader(InputStream in) throws IOException {
+        try (ImageInputStream imageInputStream = ImageIO.createImageInputStream(in)) {
+            if (imageInputStream == null) {
+                return Optional.empty();
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInputStream);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInputStream, true, true);
+                return dimensions(reader.getWidth(0), reader.getHeight(0));
+            } catch (IIOException e) {
+                // The reader recognised the format but the header is malformed
+                return Optional.empty();
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private Optional<ImageDimensions> dimensions(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new ImageDimensions(width, height));
+    }
+
+    /**
+     * Big-endian reader that refuses to consume more than {@link #MAX_HEADER_BYTES},
+     * so the caller can always reset its mark for the fallback path.
+     */
+    private static final class HeaderReader {
+        private final InputStream in;
+        private long consumed;
+
+        HeaderReader(InputStream in) {
+            this.in = in;
+        }
+
+        int readUnsignedByte() throws IOException {
+            ensureBudget(1);
+            int value = in.read();
+            if (value < 0) {
+                throw new EOFException();
+            }
+            consumed++;
+            return value;
+        }
+
+        int readUnsignedShort() throws IOException {
+            return (readUnsignedByte() << 8) | readUnsignedByte();
+        }
+
+        int readInt() throws IOException {
+            return (readUnsignedShort() << 16) | readUnsignedShort();
+        }
+
+        void skip(long count) throws IOException {
+            ensureBudget(count);
+            in.skipNBytes(count);
+            consumed += count;
+        }
+
+        private void ensureBudget(long count) throws EOFException {
+            if (consumed + count > MAX_HEADER_BYTES) {
+                throw new EOFException("Image header exceeds " + MAX_HEADER_BYTES + " bytes");
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.exceptions.ImageNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes stored files to the response without copying them through the JVM heap. On Tomcat,
+ * larger bodies are handed to the connector's sendfile support; otherwise the file is sent
+ * with {@link FileChannel#transferTo}. Single byte ranges are answered with 206.
+ * <p>
+ * A stored file never changes, so responses are cacheable for good and carry a strong ETag
+ * of the content hash. A matching {@code If-None-Match} gets 304 without the file being opened.
+ * Frequently read files are served from {@link HotImageCache} instead of disk.
+ */
+@Component
+public class ImageFileServer {
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Below this, setting up sendfile costs more than writing the bytes (Tomcat's DefaultServlet uses the same)
+    static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    public static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final FileStorageService fileStorageService;
+    private final ContentHashLookup contentHashLookup;
+    private final HotImageCache hotImageCache;
+
+    public ImageFileServer(FileStorageService fileStorageService, ContentHashLookup contentHashLookup,
+                           HotImageCache hotImageCache) {
+        this.fileStorageService = fileStorageService;
+        this.contentHashLookup = contentHashLookup;
+        this.hotImageCache = hotImageCache;
+    }
+
+    record ByteRange(long start, long end) {
+        long length() {
+            return end - start + 1;
+        }
+    }
+
+    public void serve(String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = resolve(filename);
+        HotImageCache.Entry cached = hotImageCache.get(filename);
+        try {
+            if (cached == null && !Files.isRegularFile(file)) {
+                throw new ImageNotFoundException("Image not found: " + filename);
+            }
+
+            String etag = "\"" + contentHashLookup.getContentHash(filename, file) + "\"";
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+
+            long size = cached != null ? cached.length() : size(filename, file);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // A stale If-Range means the client's partial copy is of other content, so it gets the whole file
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            ByteRange range = ifRange == null || ifRange.equals(etag)
+                    ? parseRange(request.getHeader(HttpHeaders.RANGE), size)
+                    : null;
+            if (range == UNSATISFIABLE) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return;
+            }
+            if (range != null) {
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + range.start() + "-" + range.end() + "/" + size);
+            } else {
+                range = new ByteRange(0, size - 1);
+            }
+
+            response.setContentType(MediaTypeFactory.getMediaType(filename)
+                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            response.setContentLengthLong(range.length());
+            if (HttpMethod.HEAD.matches(request.getMethod()) || range.length() == 0) {
+                return;
+            }
+
+            if (cached == null) {
+                cached = hotImageCache.load(filename, file, size);
+            }
+            if (cached != null) {
+                cached.writeTo(Channels.newChannel(response.getOutputStream()), range.start(), range.length());
+            } else {
+                send(file, range, request, response);
+            }
+        } finally {
+            if (cached != null) {
+                cached.close();
+            }
+        }
+    }
+
+    private void send(Path file, ByteRange range, HttpServletRequest request, HttpServletResponse response)
+            throws IOException
+    {
+        if (range.length() >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // The connector writes the file once the request completes; the end offset is exclusive
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private long size(String filename, Path file) throws IOException {
+        try {
+            return Files.size(file);
+        } catch (NoSuchFileException e) {
+            throw new ImageNotFoundException("Image not found: " + filename);
+        }
+    }
+
+    /**
+     * Returns {@code null} when the whole file should be sent: no header, a malformed one, or
+     * several ranges, which are answered with the full body rather than multipart/byteranges.
+     */
+    static ByteRange parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        try {
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+
+            long start = Long.parseLong(spec.substring(0, dash));
+            long end = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Path resolve(String filename) {
+        if (filename == null || filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
+            throw new ImageNotFoundException("Image not found: " + filename);
+        }
+        return fileStorageService.getFilePath(filename);
+    }
+}
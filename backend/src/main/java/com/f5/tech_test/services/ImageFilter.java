@@ -0,0 +1,40 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.exceptions.InvalidImageException;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Metadata conditions on a listing. A {@code null} field puts no condition on its attribute.
+ * Bounds are inclusive, except that {@code uploadedAfter} and {@code uploadedBefore} are exclusive.
+ * Images whose dimensions could not be read never match a dimension or orientation condition.
+ */
+public record ImageFilter(Integer minWidth, Integer maxWidth,
+                          Integer minHeight, Integer maxHeight,
+                          Long minSize, Long maxSize,
+                          String contentType,
+                          LocalDateTime uploadedAfter, LocalDateTime uploadedBefore,
+                          ImageOrientation orientation) {
+
+    public static final ImageFilter NONE = new ImageFilter(null, null, null, null, null, null, null, null, null, null);
+
+    public ImageFilter {
+        checkRange("width", minWidth, maxWidth);
+        checkRange("height", minHeight, maxHeight);
+        checkRange("size", minSize, maxSize);
+        if (uploadedAfter != null && uploadedBefore != null && !uploadedAfter.isBefore(uploadedBefore)) {
+            throw new InvalidImageException("uploadedAfter must be before uploadedBefore");
+        }
+        contentType = contentType == null || contentType.isBlank() ? null : contentType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static <T extends Number & Comparable<T>> void checkRange(String name, T min, T max) {
+        if ((min != null && min.longValue() < 0) || (max != null && max.longValue() < 0)) {
+            throw new InvalidImageException("Minimum and maximum " + name + " must not be negative");
+        }
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new InvalidImageException("Minimum " + name + " must not exceed the maximum");
+        }
+    }
+}
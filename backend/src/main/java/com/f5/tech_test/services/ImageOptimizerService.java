@@ -0,0 +1,165 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageOptimizerConfig;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.repositories.ImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Background job that shrinks stored images with {@link ImageRecompressor}. A smaller file is
+ * stored under a new name and swapped in the same way as a replaced upload, so immutable
+ * caching of the old URL stays correct. The job works through a few images per run, pauses
+ * between them and stops while uploads are in flight.
+ * Enabled with {@code image.optimizer.enabled=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "image.optimizer.enabled", havingValue = "true")
+public class ImageOptimizerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageOptimizerService.class);
+
+    private final ImageRepository imageRepository;
+    private final FileStorageService fileStorageService;
+    private final UploadPipeline uploadPipeline;
+    private final ImageRecompressor imageRecompressor;
+    private final UploadAdmissionService uploadAdmissionService;
+    private final UserStorageService userStorageService;
+    private final ImageOptimizerConfig imageOptimizerConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImageOptimizerService(ImageRepository imageRepository,
+                                 FileStorageService fileStorageService,
+                                 UploadPipeline uploadPipeline,
+                                 ImageRecompressor imageRecompressor,
+                                 UploadAdmissionService uploadAdmissionService,
+                                 UserStorageService userStorageService,
+                                 ImageOptimizerConfig imageOptimizerConfig,
+                                 PlatformTransactionManager transactionManager) {
+        this.imageRepository = imageRepository;
+        this.fileStorageService = fileStorageService;
+        this.uploadPipeline = uploadPipeline;
+        this.imageRecompressor = imageRecompressor;
+        this.uploadAdmissionService = uploadAdmissionService;
+        this.userStorageService = userStorageService;
+        this.imageOptimizerConfig = imageOptimizerConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Processes one batch of images not optimized yet and returns the bytes saved.
+     */
+    @Scheduled(fixedDelayString = "${image.optimizer.interval:PT5M}",
+               initialDelayString = "${image.optimizer.initial-delay:PT1M}")
+    public long optimizeBatch() {
+        List<String> contentTypes = Stream.of("image/png", "image/jpeg")
+            .filter(imageRecompressor::supports)
+            .toList();
+        List<Image> candidates = imageRepository.findOptimizationCandidates(
+            contentTypes, imageOptimizerConfig.getMaxFileSize().toBytes(),
+            PageRequest.of(0, imageOptimizerConfig.getBatchSize()));
+
+        long saved = 0;
+        int replaced = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            if (uploadAdmissionService.getInFlight() > imageOptimizerConfig.getMaxActiveUploads()) {
+                logger.debug("Uploads in progress, postponing optimization of {} images", candidates.size() - i);
+                break;
+            }
+            if (i > 0 && !pause()) {
+                break;
+            }
+            long imageSaved = optimize(candidates.get(i));
+            if (imageSaved > 0) {
+                saved += imageSaved;
+                replaced++;
+            }
+        }
+
+        if (replaced > 0) {
+            logger.info("Optimized {} of {} images, saving {} bytes", replaced, candidates.size(), saved);
+        }
+        return saved;
+    }
+
+    private long optimize(Image image) {
+        String oldFilename = image.getFilename();
+        Path source = fileStorageService.getFilePath(oldFilename);
+
+        long originalSize;
+        byte[] optimized;
+        try {
+            originalSize = Files.size(source);
+            optimized = imageRecompressor.recompress(source, image.getContentType());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not optimize image {} ({})", image.getId(), oldFilename, e);
+            markOptimized(image);
+            return 0;
+        }
+
+        if (optimized == null
+                || optimized.length >= originalSize
+                || optimized.length > originalSize * (1 - imageOptimizerConfig.getMinSavings())) {
+            markOptimized(image);
+            return 0;
+        }
+
+        UploadResult stored;
+        try {
+            stored = uploadPipeline.process(new ByteArrayInputStream(optimized), oldFilename);
+        } catch (IOException e) {
+            // Left unmarked so a later run tries again
+            logger.warn("Could not store optimized image {}", image.getId(), e);
+            return 0;
+        }
+
+        Integer updated = transactionTemplate.execute(status -> {
+            int replaced = imageRepository.replaceFile(image.getId(), oldFilename, stored.filename(), stored.size(),
+                stored.contentHash(), LocalDateTime.now());
+            if (replaced > 0) {
+                // The file only shrinks, so this never runs into the quota
+                userStorageService.recordReplaced(image.getUser().getId(), image.getContentType(), image.getFileSize(),
+                    image.getContentType(), stored.size());
+            }
+            return replaced;
+        });
+        if (updated == null || updated == 0) {
+            // The image was replaced or deleted while we worked on it
+            fileStorageService.deleteFile(stored.filename());
+            return 0;
+        }
+
+        fileStorageService.deleteFile(oldFilename);
+        logger.debug("Optimized image {}: {} -> {} bytes", image.getId(), originalSize, stored.size());
+        return originalSize - stored.size();
+    }
+
+    private void markOptimized(Image image) {
+        transactionTemplate.executeWithoutResult(status ->
+            imageRepository.markOptimized(image.getId(), LocalDateTime.now()));
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(imageOptimizerConfig.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
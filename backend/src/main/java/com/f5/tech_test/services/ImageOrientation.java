@@ -0,0 +1,28 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.exceptions.InvalidImageException;
+
+import java.util.Locale;
+
+public enum ImageOrientation {
+    // Wider than tall
+    LANDSCAPE,
+    // Taller than wide
+    PORTRAIT,
+    SQUARE;
+
+    /**
+     * Parses a query parameter; {@code null} or blank means no orientation was asked for.
+     */
+    public static ImageOrientation from(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "landscape" -> LANDSCAPE;
+            case "portrait" -> PORTRAIT;
+            case "square" -> SQUARE;
+            default -> throw new InvalidImageException("Invalid orientation. Allowed values: landscape, portrait, square");
+        };
+    }
+}
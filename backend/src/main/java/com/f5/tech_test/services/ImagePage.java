@@ -0,0 +1,11 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.dto.ImageDTO;
+
+import java.util.List;
+
+/**
+ * One page of a listing; {@code nextCursor} is {@code null} on the last page.
+ */
+public record ImagePage(List<ImageDTO> images, String nextCursor) {
+}
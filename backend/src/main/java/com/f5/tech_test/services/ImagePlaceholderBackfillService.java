@@ -0,0 +1,101 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImagePlaceholderConfig;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.repositories.ImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes placeholders for images that don't have one, such as those stored before the variant
+ * pipeline generated them or whose variant job was dropped. It walks the table in id order, a
+ * batch per run, and starts a new pass once a cheap check finds images still missing one. A file
+ * that cannot be decoded is remembered and skipped on later passes until it is replaced. Disabled
+ * with {@code image.placeholder.backfill.enabled=false}.
+ */
+@Service
+@ConditionalOnProperty(name = "image.placeholder.backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class ImagePlaceholderBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImagePlaceholderBackfillService.class);
+
+    private final ImageRepository imageRepository;
+    private final FileStorageService fileStorageService;
+    private final ImagePlaceholderGenerator imagePlaceholderGenerator;
+    private final ImagePlaceholderConfig imagePlaceholderConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    // Runs never overlap, so the scheduler thread is the only one touching these
+    private long lastId;
+    private final Map<Long, String> undecodable = new HashMap<>();
+
+    public ImagePlaceholderBackfillService(ImageRepository imageRepository,
+                                           FileStorageService fileStorageService,
+                                           ImagePlaceholderGenerator imagePlaceholderGenerator,
+                                           ImagePlaceholderConfig imagePlaceholderConfig,
+                                           PlatformTransactionManager transactionManager) {
+        this.imageRepository = imageRepository;
+        this.fileStorageService = fileStorageService;
+        this.imagePlaceholderGenerator = imagePlaceholderGenerator;
+        this.imagePlaceholderConfig = imagePlaceholderConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Processes the next batch of images without a placeholder and returns how many got one.
+     */
+    @Scheduled(fixedDelayString = "${image.placeholder.backfill.interval:PT1M}",
+               initialDelayString = "${image.placeholder.backfill.initial-delay:PT30S}")
+    public int backfillBatch() {
+        if (lastId == 0 && !imageRepository.existsByPlaceholderIsNull()) {
+            return 0;
+        }
+        List<Image> candidates = imageRepository.findPlaceholderCandidates(
+            lastId, PageRequest.of(0, imagePlaceholderConfig.getBackfillBatchSize()));
+        if (candidates.isEmpty()) {
+            // End of this pass; the next run starts over if anything is still missing
+            lastId = 0;
+            return 0;
+        }
+
+        int generated = 0;
+        int attempted = 0;
+        for (Image image : candidates) {
+            lastId = image.getId();
+            if (image.getFilename().equals(undecodable.get(image.getId()))) {
+                continue;
+            }
+            attempted++;
+            String placeholder;
+            try {
+                placeholder = imagePlaceholderGenerator.generate(fileStorageService.getFilePath(image.getFilename()));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not generate a placeholder for image {} ({})", image.getId(), image.getFilename(), e);
+                undecodable.put(image.getId(), image.getFilename());
+                continue;
+            }
+            undecodable.remove(image.getId());
+            Integer updated = transactionTemplate.execute(status ->
+                imageRepository.updatePlaceholder(image.getId(), image.getFilename(), placeholder));
+            if (updated != null && updated > 0) {
+                generated++;
+            }
+        }
+
+        if (attempted > 0) {
+            logger.info("Generated placeholders for {} of {} images", generated, attempted);
+        }
+        return generated;
+    }
+}
@@ -0,0 +1,148 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImagePlaceholderConfig;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Computes the BlurHash of an image: a short string clients decode into a blurred preview
+ * while the real file loads. The hash is computed from a sample of a few dozen pixels, which is
+ * all it can represent. After an upload the sample is taken from the smallest variant, already
+ * in memory; stored files are decoded with subsampling.
+ */
+@Component
+public class ImagePlaceholderGenerator {
+
+    // Edge of the image the hash is computed from; more pixels would not change the result
+    static final int SAMPLE_SIZE = 32;
+
+    private static final String BASE83 =
+        "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private final ImageResizer imageResizer;
+    private final ImagePlaceholderConfig imagePlaceholderConfig;
+
+    public ImagePlaceholderGenerator(ImageResizer imageResizer, ImagePlaceholderConfig imagePlaceholderConfig) {
+        this.imageResizer = imageResizer;
+        this.imagePlaceholderConfig = imagePlaceholderConfig;
+        if (!validComponents(imagePlaceholderConfig.getComponentsX())
+                || !validComponents(imagePlaceholderConfig.getComponentsY())) {
+            throw new IllegalStateException("image.placeholder.components-x and components-y must be between 1 and 9");
+        }
+    }
+
+    public String generate(Path file) throws IOException {
+        return generate(imageResizer.decode(file, SAMPLE_SIZE, SAMPLE_SIZE));
+    }
+
+    public String generate(BufferedImage source) {
+        ImageDimensions size = imageResizer.fitWithin(source.getWidth(), source.getHeight(), SAMPLE_SIZE);
+        BufferedImage sample = imageResizer.scale(source, size.width(), size.height());
+        return encode(sample, imagePlaceholderConfig.getComponentsX(), imagePlaceholderConfig.getComponentsY());
+    }
+
+    /**
+     * The BlurHash algorithm as published at blurha.sh. Transparent pixels are blended onto
+     * white, matching how the contact sheet renders them.
+     */
+    static String encode(BufferedImage image, int componentsX, int componentsY) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        float[][] linear = new float[3][pixels.length];
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            int alpha = argb >>> 24;
+            linear[0][i] = sRgbToLinear(blendOnWhite((argb >> 16) & 0xFF, alpha));
+            linear[1][i] = sRgbToLinear(blendOnWhite((argb >> 8) & 0xFF, alpha));
+            linear[2][i] = sRgbToLinear(blendOnWhite(argb & 0xFF, alpha));
+        }
+
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                double normalisation = i == 0 && j == 0 ? 1 : 2;
+                double r = 0;
+                double g = 0;
+                double b = 0;
+                for (int y = 0; y < height; y++) {
+                    double basisY = Math.cos(Math.PI * j * y / height);
+                    for (int x = 0; x < width; x++) {
+                        double basis = normalisation * Math.cos(Math.PI * i * x / width) * basisY;
+                        int index = y * width + x;
+                        r += basis * linear[0][index];
+                        g += basis * linear[1][index];
+                        b += basis * linear[2][index];
+                    }
+                }
+                double scale = 1d / (width * height);
+                factors[j * componentsX + i] = new double[] {r * scale, g * scale, b * scale};
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        appendBase83(hash, (componentsX - 1) + (componentsY - 1) * 9, 1);
+
+        double maximumValue;
+        if (factors.length > 1) {
+            double actualMaximum = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double component : factors[k]) {
+                    actualMaximum = Math.max(actualMaximum, Math.abs(component));
+                }
+            }
+            int quantisedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+            maximumValue = (quantisedMaximum + 1) / 166d;
+            appendBase83(hash, quantisedMaximum, 1);
+        } else {
+            maximumValue = 1;
+            appendBase83(hash, 0, 1);
+        }
+
+        double[] dc = factors[0];
+        appendBase83(hash, (linearToSRgb(dc[0]) << 16) + (linearToSRgb(dc[1]) << 8) + linearToSRgb(dc[2]), 4);
+        for (int k = 1; k < factors.length; k++) {
+            double[] ac = factors[k];
+            appendBase83(hash, quantiseAc(ac[0], maximumValue) * 19 * 19
+                + quantiseAc(ac[1], maximumValue) * 19
+                + quantiseAc(ac[2], maximumValue), 2);
+        }
+        return hash.toString();
+    }
+
+    private static int blendOnWhite(int channel, int alpha) {
+        return (channel * alpha + 255 * (255 - alpha)) / 255;
+    }
+
+    private static float sRgbToLinear(int value) {
+        double v = value / 255d;
+        return (float) (v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4));
+    }
+
+    private static int linearToSRgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+            ? (int) (v * 12.92 * 255 + 0.5)
+            : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static int quantiseAc(double value, double maximumValue) {
+        double normalised = value / maximumValue;
+        double signedRoot = Math.copySign(Math.sqrt(Math.abs(normalised)), normalised);
+        return (int) Math.max(0, Math.min(18, Math.floor(signedRoot * 9 + 9.5)));
+    }
+
+    private static void appendBase83(StringBuilder hash, int value, int length) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            hash.append(BASE83.charAt(digit));
+        }
+    }
+
+    private static boolean validComponents(int components) {
+        return components >= 1 && components <= 9;
+    }
+}
@@ -0,0 +1,138 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageOptimizerConfig;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.plugins.jpeg.JPEGImageWriteParam;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Re-encodes stored images more compactly. PNGs are rewritten losslessly at the highest deflate
+ * level without their ancillary chunks, and the result is decoded again and compared pixel for
+ * pixel before it is trusted. JPEGs are re-encoded at the configured quality with their metadata,
+ * so EXIF orientation and colour profiles survive.
+ */
+@Component
+public class ImageRecompressor {
+
+    private final ImageOptimizerConfig imageOptimizerConfig;
+
+    public ImageRecompressor(ImageOptimizerConfig imageOptimizerConfig) {
+        this.imageOptimizerConfig = imageOptimizerConfig;
+    }
+
+    public boolean supports(String contentType) {
+        return "image/png".equals(contentType)
+            || ("image/jpeg".equals(contentType) && imageOptimizerConfig.isJpegEnabled());
+    }
+
+    /**
+     * Returns the re-encoded bytes, or {@code null} if the format is not handled or the
+     * result would not be an exact copy of a PNG.
+     */
+    public byte[] recompress(Path source, String contentType) throws IOException {
+        if ("image/png".equals(contentType)) {
+            return recompressPng(source);
+        }
+        if ("image/jpeg".equals(contentType) && imageOptimizerConfig.isJpegEnabled()) {
+            return recompressJpeg(source);
+        }
+        return null;
+    }
+
+    private byte[] recompressPng(Path source) throws IOException {
+        IIOImage original = read(source, "png", false);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        // The PNG writer maps quality 0 to deflate level 9; its per-row filter choice stays adaptive
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(0f);
+        byte[] encoded = write(writer, new IIOImage(original.getRenderedImage(), null, null), param);
+
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoded));
+        return samePixels((BufferedImage) original.getRenderedImage(), decoded) ? encoded : null;
+    }
+
+    private byte[] recompressJpeg(Path source) throws IOException {
+        IIOImage original = read(source, "jpeg", true);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        // An explicit quality replaces the quantisation tables carried in the metadata
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(imageOptimizerConfig.getJpegQuality());
+        if (param instanceof JPEGImageWriteParam jpegParam) {
+            jpegParam.setOptimizeHuffmanTables(true);
+        }
+        return write(writer, original, param);
+    }
+
+    private IIOImage read(Path source, String format, boolean withMetadata) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                if (!reader.getFormatName().equalsIgnoreCase(format)) {
+                    throw new IOException("Expected " + format + " but found " + reader.getFormatName());
+                }
+                reader.setInput(input, true, !withMetadata);
+                BufferedImage image = reader.read(0);
+                return new IIOImage(image, null, withMetadata ? reader.getImageMetadata(0) : null);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] write(ImageWriter writer, IIOImage image, ImageWriteParam param) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.write(null, image, param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private boolean samePixels(BufferedImage expected, BufferedImage actual) {
+        if (actual == null
+                || actual.getWidth() != expected.getWidth()
+                || actual.getHeight() != expected.getHeight()
+                || actual.getRaster().getNumBands() != expected.getRaster().getNumBands()) {
+            return false;
+        }
+        // Raw samples catch precision loss in 16-bit images; ARGB catches palette changes
+        Raster expectedRaster = expected.getRaster();
+        Raster actualRaster = actual.getRaster();
+        int width = expected.getWidth();
+        int[] expectedRow = null;
+        int[] actualRow = null;
+        for (int y = 0; y < expected.getHeight(); y++) {
+            expectedRow = expectedRaster.getPixels(0, y, width, 1, expectedRow);
+            actualRow = actualRaster.getPixels(0, y, width, 1, actualRow);
+            if (!Arrays.equals(expectedRow, actualRow)
+                    || !Arrays.equals(expected.getRGB(0, y, width, 1, null, 0, width),
+                                      actual.getRGB(0, y, width, 1, null, 0, width))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
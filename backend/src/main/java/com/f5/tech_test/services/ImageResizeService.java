@@ -0,0 +1,147 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageResizeConfig;
+import com.f5.tech_test.exceptions.ImageNotFoundException;
+import com.f5.tech_test.exceptions.InvalidImageException;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders stored images at a client-requested size. Results go through {@link VariantCache},
+ * and concurrent requests for the same uncached rendering share a single decode.
+ */
+@Service
+public class ImageResizeService {
+
+    private final FileStorageService fileStorageService;
+    private final ImageDimensionProbe imageDimensionProbe;
+    private final ImageResizer imageResizer;
+    private final VariantCache variantCache;
+    private final ImageResizeConfig imageResizeConfig;
+    private final ConcurrentHashMap<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageResizeService(FileStorageService fileStorageService,
+                              ImageDimensionProbe imageDimensionProbe,
+                              ImageResizer imageResizer,
+                              VariantCache variantCache,
+                              ImageResizeConfig imageResizeConfig) {
+        this.fileStorageService = fileStorageService;
+        this.imageDimensionProbe = imageDimensionProbe;
+        this.imageResizer = imageResizer;
+        this.variantCache = variantCache;
+        this.imageResizeConfig = imageResizeConfig;
+    }
+
+    public ResizedImage resize(String filename, Integer width, Integer height, String fit) throws IOException {
+        validateDimension("w", width);
+        validateDimension("h", height);
+        if (width == null && height == null) {
+            throw new InvalidImageException("At least one of w or h is required");
+        }
+        ResizeFit resizeFit = ResizeFit.from(fit);
+
+        Path source = resolveSource(filename);
+        String key = cacheKey(filename, width, height, resizeFit);
+
+        Optional<byte[]> cached = variantCache.get(key);
+        if (cached.isPresent()) {
+            return new ResizedImage(cached.get(), contentTypeOf(cached.get()));
+        }
+
+        byte[] content = renderOnce(key, source, width, height, resizeFit);
+        return new ResizedImage(content, contentTypeOf(content));
+    }
+
+    private byte[] renderOnce(String key, Path source, Integer width, Integer height, ResizeFit fit) throws IOException {
+        CompletableFuture<byte[]> rendering = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, rendering);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            byte[] content = render(source, width, height, fit);
+            variantCache.put(key, content);
+            rendering.complete(content);
+            return content;
+        } catch (IOException | RuntimeException e) {
+            rendering.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, rendering);
+        }
+    }
+
+    private byte[] render(Path source, Integer width, Integer height, ResizeFit fit) throws IOException {
+        ImageDimensions original = imageDimensionProbe.probe(source)
+                .orElseThrow(() -> new InvalidImageException("Unsupported image format"));
+
+        double scaleX = width == null ? Double.NaN : (double) width / original.width();
+        double scaleY = height == null ? Double.NaN : (double) height / original.height();
+        boolean cover = fit == ResizeFit.COVER && width != null && height != null;
+
+        double scale;
+        if (Double.isNaN(scaleX)) {
+            scale = scaleY;
+        } else if (Double.isNaN(scaleY)) {
+            scale = scaleX;
+        } else {
+            scale = cover ? Math.max(scaleX, scaleY) : Math.min(scaleX, scaleY);
+        }
+        // Never upscale; the client can do that for free
+        scale = Math.min(1d, scale);
+
+        int scaledWidth = Math.max(1, (int) Math.round(original.width() * scale));
+        int scaledHeight = Math.max(1, (int) Math.round(original.height() * scale));
+
+        BufferedImage image = imageResizer.decode(source, scaledWidth, scaledHeight);
+        image = imageResizer.scale(image, scaledWidth, scaledHeight);
+        if (cover) {
+            image = imageResizer.cropCenter(image, width, height);
+        }
+        return imageResizer.encode(image).content();
+    }
+
+    private Path resolveSource(String filename) {
+        if (filename == null || filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
+            throw new ImageNotFoundException("Image not found: " + filename);
+        }
+        Path source = fileStorageService.getFilePath(filename);
+        if (!Files.isRegularFile(source)) {
+            throw new ImageNotFoundException("Image not found: " + filename);
+        }
+        return source;
+    }
+
+    private void validateDimension(String name, Integer value) {
+        if (value != null && (value <= 0 || value > imageResizeConfig.getMaxDimension())) {
+            throw new InvalidImageException(
+                name + " must be between 1 and " + imageResizeConfig.getMaxDimension());
+        }
+    }
+
+    private String cacheKey(String filename, Integer width, Integer height, ResizeFit fit) {
+        return String.format("%s-%sx%s-%s", filename,
+            width == null ? "" : width, height == null ? "" : height, fit.name().toLowerCase(Locale.ROOT));
+    }
+
+    private String contentTypeOf(byte[] content) {
+        return content.length > 0 && content[0] == (byte) 0x89 ? "image/png" : "image/jpeg";
+    }
+}
@@ -0,0 +1,126 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageVariantConfig;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * Decodes, scales and re-encodes images for derived variants. Large sources are
+ * decoded with subsampling so only about twice the target resolution is ever
+ * materialised in memory.
+ */
+@Component
+public class ImageResizer {
+
+    private final ImageVariantConfig imageVariantConfig;
+
+    public ImageResizer(ImageVariantConfig imageVariantConfig) {
+        this.imageVariantConfig = imageVariantConfig;
+    }
+
+    public record EncodedImage(byte[] content, String extension, String contentType, int width, int height) {
+    }
+
+    public BufferedImage decode(Path source, int targetWidth, int targetHeight) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format: " + source.getFileName());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int subsampling = Math.max(1, Math.min(
+                    reader.getWidth(0) / Math.max(1, targetWidth * 2),
+                    reader.getHeight(0) / Math.max(1, targetHeight * 2)));
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    public ImageDimensions fitWithin(int width, int height, int maxEdge) {
+        double scale = Math.min(1d, (double) maxEdge / Math.max(width, height));
+        return new ImageDimensions(
+            Math.max(1, (int) Math.round(width * scale)),
+            Math.max(1, (int) Math.round(height * scale)));
+    }
+
+    public BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage current = source;
+        // Halve in steps first; a single bilinear pass over a large ratio aliases badly
+        while (current.getWidth() / 2 >= width && current.getHeight() / 2 >= height) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() != width || current.getHeight() != height) {
+            current = draw(current, width, height);
+        }
+        return current;
+    }
+
+    public BufferedImage cropCenter(BufferedImage source, int width, int height) {
+        if (source.getWidth() <= width && source.getHeight() <= height) {
+            return source;
+        }
+        int cropWidth = Math.min(width, source.getWidth());
+        int cropHeight = Math.min(height, source.getHeight());
+        return source.getSubimage(
+            (source.getWidth() - cropWidth) / 2, (source.getHeight() - cropHeight) / 2, cropWidth, cropHeight);
+    }
+
+    public EncodedImage encode(BufferedImage image) throws IOException {
+        boolean hasAlpha = image.getColorModel().hasAlpha();
+        String format = hasAlpha ? "png" : "jpeg";
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!hasAlpha) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(imageVariantConfig.getJpegQuality());
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        return hasAlpha
+            ? new EncodedImage(out.toByteArray(), ".png", "image/png", image.getWidth(), image.getHeight())
+            : new EncodedImage(out.toByteArray(), ".jpg", "image/jpeg", image.getWidth(), image.getHeight());
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height) {
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage target = new BufferedImage(width, height, type);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+}
@@ -0,0 +1,295 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.repositories.SearchDocument;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the title, description and original filename of images,
+ * partitioned by owner so a search only ever touches the searching user's terms.
+ * <p>
+ * Every query word also matches the terms it is a prefix of, so results appear while the
+ * user is still typing. All words have to match. Results are ranked with BM25 over the
+ * fields, a title match counting more than a filename match and that more than a match in
+ * the description; a word matched only as a prefix counts half.
+ */
+@Component
+public class ImageSearchIndex {
+
+    private static final int MAGIC = 0x49534958;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int FILENAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    // The usual BM25 constants: term frequency saturation and document length normalisation
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final Map<Long, UserIndex> users = new ConcurrentHashMap<>();
+    // Bumped on every change, so a snapshot is only written when something changed
+    private final AtomicLong modifications = new AtomicLong();
+
+    private record Document(long id, Map<String, Integer> terms, int length) {
+    }
+
+    private static final class UserIndex {
+        // Sorted, so the terms starting with a prefix are one contiguous range
+        final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        final Map<Long, Document> documents = new HashMap<>();
+        long totalLength;
+    }
+
+    /**
+     * Adds the image, replacing whatever was indexed for it before.
+     */
+    public void put(SearchDocument document) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, document.title(), TITLE_WEIGHT);
+        addTerms(terms, stripExtension(document.originalFilename()), FILENAME_WEIGHT);
+        addTerms(terms, document.description(), DESCRIPTION_WEIGHT);
+        put(document.userId(), new Document(document.id(), terms,
+            terms.values().stream().mapToInt(Integer::intValue).sum()));
+    }
+
+    public void remove(long userId, long imageId) {
+        UserIndex index = users.get(userId);
+        if (index == null) {
+            return;
+        }
+        synchronized (index) {
+            if (unlink(index, imageId)) {
+                modifications.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        users.clear();
+        modifications.incrementAndGet();
+    }
+
+    public long modifications() {
+        return modifications.get();
+    }
+
+    public int size() {
+        int size = 0;
+        for (UserIndex index : users.values()) {
+            synchronized (index) {
+                size += index.documents.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the ids of the user's images matching every word of {@code query}, best first.
+     */
+    public List<Long> search(long userId, String query, int limit) {
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        UserIndex index = users.get(userId);
+        if (words.isEmpty() || index == null) {
+            return List.of();
+        }
+
+        Map<Long, Double> scores = null;
+        synchronized (index) {
+            int documentCount = index.documents.size();
+            double averageLength = documentCount == 0 ? 1 : (double) index.totalLength / documentCount;
+            for (String word : words) {
+                Map<Long, Double> wordScores = new HashMap<>();
+                for (Map.Entry<String, Map<Long, Integer>> term
+                        : index.postings.subMap(word, true, word + Character.MAX_VALUE, false).entrySet()) {
+                    Map<Long, Integer> postings = term.getValue();
+                    double idf = Math.log(1 + (documentCount - postings.size() + 0.5) / (postings.size() + 0.5));
+                    double weight = term.getKey().equals(word) ? idf : idf * PREFIX_MATCH_WEIGHT;
+                    for (Map.Entry<Long, Integer> posting : postings.entrySet()) {
+                        // Of several terms sharing the prefix, the best match in the document counts
+                        double score = weight * saturate(posting.getValue(),
+                            index.documents.get(posting.getKey()).length(), averageLength);
+                        wordScores.merge(posting.getKey(), score, Math::max);
+                    }
+                }
+
+                if (scores == null) {
+                    scores = wordScores;
+                } else {
+                    scores.keySet().retainAll(wordScores.keySet());
+                    scores.replaceAll((id, score) -> score + wordScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+        }
+
+        return scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+            .limit(limit)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Writes the index to {@code file}, replacing it atomically.
+     */
+    public void writeTo(Path file, LocalDateTime takenAt) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), ".incoming-", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(takenAt.toString());
+                for (Map.Entry<Long, UserIndex> user : users.entrySet()) {
+                    UserIndex index = user.getValue();
+                    synchronized (index) {
+                        out.writeBoolean(true);
+                        out.writeLong(user.getKey());
+                        out.writeInt(index.documents.size());
+                        for (Document document : index.documents.values()) {
+                            out.writeLong(document.id());
+                            out.writeInt(document.terms().size());
+                            for (Map.Entry<String, Integer> term : document.terms().entrySet()) {
+                                out.writeUTF(term.getKey());
+                                out.writeInt(term.getValue());
+                            }
+                        }
+                    }
+                }
+                out.writeBoolean(false);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Replaces the contents of the index with those written to {@code file} and returns when
+     * that snapshot was taken. The index is left empty if the file cannot be read.
+     */
+    public LocalDateTime readFrom(Path file) throws IOException {
+        clear();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Not a search index snapshot: " + file);
+            }
+            LocalDateTime takenAt = LocalDateTime.parse(in.readUTF());
+            while (in.readBoolean()) {
+                long userId = in.readLong();
+                int documentCount = in.readInt();
+                for (int i = 0; i < documentCount; i++) {
+                    long id = in.readLong();
+                    int termCount = in.readInt();
+                    Map<String, Integer> terms = new HashMap<>(termCount * 2);
+                    int length = 0;
+                    for (int j = 0; j < termCount; j++) {
+                        String term = in.readUTF();
+                        int frequency = in.readInt();
+                        terms.put(term, frequency);
+                        length += frequency;
+                    }
+                    put(userId, new Document(id, terms, length));
+                }
+            }
+            return takenAt;
+        } catch (IOException | RuntimeException e) {
+            clear();
+            throw e instanceof IOException io ? io : new IOException("Corrupt search index snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Lower-cased words with accents removed, so "Café" is found by "cafe".
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFKD)).replaceAll("")
+            .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    private void put(long userId, Document document) {
+        UserIndex index = users.computeIfAbsent(userId, id -> new UserIndex());
+        synchronized (index) {
+            unlink(index, document.id());
+            index.documents.put(document.id(), document);
+            index.totalLength += document.length();
+            document.terms().forEach((term, frequency) ->
+                index.postings.computeIfAbsent(term, t -> new HashMap<>()).put(document.id(), frequency));
+        }
+        modifications.incrementAndGet();
+    }
+
+    private boolean unlink(UserIndex index, long imageId) {
+        Document previous = index.documents.remove(imageId);
+        if (previous == null) {
+            return false;
+        }
+        index.totalLength -= previous.length();
+        for (String term : previous.terms().keySet()) {
+            Map<Long, Integer> postings = index.postings.get(term);
+            postings.remove(imageId);
+            if (postings.isEmpty()) {
+                index.postings.remove(term);
+            }
+        }
+        return true;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    private static double saturate(int frequency, int length, double averageLength) {
+        return frequency * (K1 + 1) / (frequency + K1 * (1 - B + B * length / averageLength));
+    }
+
+    private static String stripExtension(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
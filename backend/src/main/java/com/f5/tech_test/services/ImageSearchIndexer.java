@@ -0,0 +1,190 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageSearchConfig;
+import com.f5.tech_test.events.ImageDeletedEvent;
+import com.f5.tech_test.events.ImageTextChangedEvent;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.SearchDocument;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps {@link ImageSearchIndex} in step with the images table. The index is loaded before
+ * the application starts serving: from the snapshot on disk if there is one, catching up on
+ * images modified since it was written, or else rebuilt from the table with several threads
+ * each reading a range of ids. Afterwards it follows committed changes through events and is
+ * written back to disk periodically and on shutdown.
+ * <p>
+ * Deleted images are not caught up from a snapshot; searches drop ids that no longer exist.
+ */
+@Service
+public class ImageSearchIndexer implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageSearchIndexer.class);
+
+    // Covers transactions that were still open when the snapshot was taken
+    static final Duration CATCH_UP_MARGIN = Duration.ofMinutes(5);
+
+    private final ImageSearchIndex imageSearchIndex;
+    private final ImageRepository imageRepository;
+    private final ImageSearchConfig imageSearchConfig;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Path indexFile;
+
+    // Modification count of the index as last written to disk
+    private volatile long writtenModifications = -1;
+
+    public ImageSearchIndexer(ImageSearchIndex imageSearchIndex,
+                              ImageRepository imageRepository,
+                              ImageSearchConfig imageSearchConfig,
+                              PlatformTransactionManager transactionManager) {
+        this.imageSearchIndex = imageSearchIndex;
+        this.imageRepository = imageRepository;
+        this.imageSearchConfig = imageSearchConfig;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        String file = imageSearchConfig.getIndexFile();
+        this.indexFile = file == null || file.isBlank() ? null : Paths.get(file).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    void load() {
+        if (indexFile != null && Files.isRegularFile(indexFile)) {
+            try {
+                LocalDateTime takenAt = imageSearchIndex.readFrom(indexFile);
+                List<SearchDocument> modified = readOnlyTransaction.execute(status ->
+                    imageRepository.findSearchDocumentsModifiedSince(takenAt.minus(CATCH_UP_MARGIN)));
+                modified.forEach(imageSearchIndex::put);
+                writtenModifications = modified.isEmpty() ? imageSearchIndex.modifications() : -1;
+                logger.info("Loaded search index of {} images from {}, {} updated since",
+                    imageSearchIndex.size(), indexFile, modified.size());
+                return;
+            } catch (IOException e) {
+                logger.warn("Could not read search index {}, rebuilding it", indexFile, e);
+            }
+        }
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one built from the table and returns the number of images indexed.
+     */
+    public int rebuild() {
+        imageSearchIndex.clear();
+        long maxId = readOnlyTransaction.execute(status -> imageRepository.findMaxId());
+        int threads = imageSearchConfig.getRebuildThreads() > 0
+            ? imageSearchConfig.getRebuildThreads()
+            : Runtime.getRuntime().availableProcessors();
+        long sliceSize = Math.max(1, (maxId + threads - 1) / threads);
+
+        long started = System.nanoTime();
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "search-rebuild-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> slices = new ArrayList<>();
+            for (long afterId = 0; afterId < maxId; afterId += sliceSize) {
+                long from = afterId;
+                long to = Math.min(maxId, afterId + sliceSize);
+                slices.add(pool.submit(() -> indexSlice(from, to)));
+            }
+            int indexed = 0;
+            for (Future<Integer> slice : slices) {
+                indexed += slice.get();
+            }
+            logger.info("Rebuilt search index of {} images with {} threads in {} ms", indexed, threads,
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+            return indexed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while rebuilding the search index", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Could not rebuild the search index", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageTextChanged(ImageTextChangedEvent event) {
+        imageSearchIndex.put(new SearchDocument(event.imageId(), event.userId(), event.title(),
+            event.description(), event.originalFilename()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageDeleted(ImageDeletedEvent event) {
+        imageSearchIndex.remove(event.userId(), event.imageId());
+    }
+
+    /**
+     * Writes the index to disk if it changed since it was last written.
+     */
+    @Scheduled(fixedDelayString = "${image.search.flush-interval:PT1M}",
+               initialDelayString = "${image.search.flush-interval:PT1M}")
+    public synchronized void flush() {
+        long modifications = imageSearchIndex.modifications();
+        if (indexFile == null || modifications == writtenModifications) {
+            return;
+        }
+        try {
+            imageSearchIndex.writeTo(indexFile, LocalDateTime.now());
+            writtenModifications = modifications;
+        } catch (IOException e) {
+            logger.warn("Could not write search index {}", indexFile, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+
+    /**
+     * Indexes the images with ids in {@code (afterId, lastId]}, a batch per transaction.
+     */
+    private int indexSlice(long afterId, long lastId) {
+        int indexed = 0;
+        PageRequest batch = PageRequest.of(0, imageSearchConfig.getRebuildBatchSize());
+        while (afterId < lastId) {
+            long from = afterId;
+            List<SearchDocument> documents = readOnlyTransaction.execute(status ->
+                imageRepository.findSearchDocuments(from, lastId, batch));
+            if (documents.isEmpty()) {
+                break;
+            }
+            documents.forEach(imageSearchIndex::put);
+            indexed += documents.size();
+            afterId = documents.get(documents.size() - 1).id();
+        }
+        return indexed;
+    }
+}
@@ -1,36 +1,65 @@
 package com.f5.tech_test.services;
 
 import com.f5.tech_test.config.FileStorageConfig;
+import com.f5.tech_test.config.ImageBatchConfig;
+import com.f5.tech_test.config.ImagePageConfig;
+import com.f5.tech_test.dto.BatchUploadItemDTO;
 import com.f5.tech_test.dto.ImageDTO;
 import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.ImageVariant;
 import com.f5.tech_test.entities.User;
+import com.f5.tech_test.events.ImageDeletedEvent;
+import com.f5.tech_test.events.ImageSetChangedEvent;
+import com.f5.tech_test.events.ImageTextChangedEvent;
+import com.f5.tech_test.events.ImageUploadedEvent;
 import com.f5.tech_test.exceptions.ImageNotFoundException;
 import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
 import com.f5.tech_test.mappers.ImageMapper;
 import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.repositories.ImageVariantRepository;
+import com.f5.tech_test.repositories.VariantSummary;
 import com.f5.tech_test.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 
-import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
-import javax.imageio.ImageIO;
-
 @Service
 @Transactional
 public class ImageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
+
     private static final List<String> ALLOWED_CONTENT_TYPES = List.of(
         "image/jpeg",
         "image/png",
@@ -39,53 +68,228 @@ public class ImageService {
 
     private final FileStorageService fileStorageService;
     private final ImageRepository imageRepository;
+    private final ImageVariantRepository imageVariantRepository;
     private final ImageMapper imageMapper;
     private final FileStorageConfig fileStorageConfig;
     private final UserRepository userRepository;
+    private final UploadPipeline uploadPipeline;
+    private final ImageTypeSniffer imageTypeSniffer;
+    private final ImageSearchIndex imageSearchIndex;
+    private final UserStorageService userStorageService;
+    private final RecentWriteTracker recentWriteTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ImageBatchConfig imageBatchConfig;
+    private final ImagePageConfig imagePageConfig;
+    private final Executor batchUploadExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate primaryTransaction;
 
     public ImageService(FileStorageService fileStorageService,
                        ImageRepository imageRepository,
+                       ImageVariantRepository imageVariantRepository,
                        ImageMapper imageMapper,
                        FileStorageConfig fileStorageConfig,
-                       UserRepository userRepository) {
+                       UserRepository userRepository,
+                       UploadPipeline uploadPipeline,
+                       ImageTypeSniffer imageTypeSniffer,
+                       ImageSearchIndex imageSearchIndex,
+                       UserStorageService userStorageService,
+                       RecentWriteTracker recentWriteTracker,
+                       ApplicationEventPublisher eventPublisher,
+                       ImageBatchConfig imageBatchConfig,
+                       ImagePageConfig imagePageConfig,
+                       @Qualifier("batchUploadExecutor") Executor batchUploadExecutor,
+                       PlatformTransactionManager transactionManager) {
         this.fileStorageService = fileStorageService;
         this.imageRepository = imageRepository;
+        this.imageVariantRepository = imageVariantRepository;
         this.imageMapper = imageMapper;
         this.fileStorageConfig = fileStorageConfig;
         this.userRepository = userRepository;
+        this.uploadPipeline = uploadPipeline;
+        this.imageTypeSniffer = imageTypeSniffer;
+        this.imageSearchIndex = imageSearchIndex;
+        this.userStorageService = userStorageService;
+        this.recentWriteTracker = recentWriteTracker;
+        this.eventPublisher = eventPublisher;
+        this.imageBatchConfig = imageBatchConfig;
+        this.imagePageConfig = imagePageConfig;
+        this.batchUploadExecutor = batchUploadExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Not read-only, so it runs on the primary even when called from a read-only transaction
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+        this.primaryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
     public ImageDTO uploadImage(MultipartFile file, String title, String description) throws IOException, InvalidImageException {
         validateImage(file);
-        
+
+        try (InputStream inputStream = file.getInputStream()) {
+            return uploadImage(inputStream, file.getOriginalFilename(), file.getContentType(), title, description);
+        }
+    }
+
+    /**
+     * Creates an image from a raw stream, for uploads that don't arrive as a multipart part.
+     */
+    @Transactional
+    public ImageDTO uploadImage(InputStream inputStream, String originalFilename, String contentType,
+                                String title, String description) throws IOException, InvalidImageException {
+        validateContentType(contentType);
+
         // Get the current authenticated user
         User currentUser = getCurrentUser().orElseThrow();
+        userStorageService.checkQuota(currentUser.getId(), 0, 1);
         
-        // Save the file
-        String filename = fileStorageService.storeFile(file);
+        // Save, hash and measure the file in a single read
+        UploadResult upload = store(inputStream, originalFilename, contentType);
 
         // Create and save the image entity
         Image image = new Image();
-        image.setFilename(filename);
-        image.setOriginalFilename(file.getOriginalFilename());
-        image.setContentType(file.getContentType());
-        image.setFileSize(file.getSize());
+        applyUpload(image, originalFilename, contentType, upload);
         image.setTitle(title);
         image.setDescription(description);
         image.setUser(currentUser);
 
-        // Image dimension extraction
         try {
-            extractImageDimensions(file, image);
-        } catch (Exception e) {
-            // do nothing
+            userStorageService.recordAdded(currentUser.getId(), List.of(image));
+        } catch (StorageQuotaExceededException e) {
+            fileStorageService.deleteFile(upload.filename());
+            throw e;
         }
-
         Image savedImage = imageRepository.save(image);
+
+        // Variants are generated in the background once this transaction commits
+        eventPublisher.publishEvent(new ImageUploadedEvent(savedImage.getId(), savedImage.getFilename()));
+        eventPublisher.publishEvent(new ImageSetChangedEvent(currentUser.getId()));
+        eventPublisher.publishEvent(textChanged(savedImage, currentUser));
         return imageMapper.toDTO(savedImage, fileStorageConfig.getBaseUrl());
     }
 
+    /**
+     * Stores a raw request body directly in its final location, without a multipart temp file.
+     * {@code contentLength} is -1 when unknown; the size limit is then enforced while reading.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImageDTO uploadImageStream(InputStream inputStream, long contentLength, String originalFilename,
+                                      String contentType, String title, String description) throws IOException {
+        long maxBytes = fileStorageConfig.getMaxUploadSize().toBytes();
+        if (contentLength > maxBytes) {
+            throw new UploadTooLargeException("Upload exceeds the maximum size of " + fileStorageConfig.getMaxUploadSize());
+        }
+        if (originalFilename == null || originalFilename.isBlank()) {
+            throw new InvalidImageException("A filename is required");
+        }
+        validateContentType(contentType);
+
+        User currentUser = getCurrentUser().orElseThrow();
+        userStorageService.checkQuota(currentUser.getId(), Math.max(contentLength, 0), 1);
+
+        // The body arrives at the client's pace, so no connection is held until it has been stored
+        UploadResult upload = store(new SizeLimitInputStream(inputStream, maxBytes), originalFilename, contentType);
+
+        Image image = new Image();
+        applyUpload(image, originalFilename, contentType, upload);
+        image.setTitle(title);
+        image.setDescription(description);
+        image.setUser(currentUser);
+
+        Image savedImage;
+        try {
+            savedImage = transactionTemplate.execute(status -> {
+                userStorageService.recordAdded(currentUser.getId(), List.of(image));
+                Image saved = imageRepository.save(image);
+                eventPublisher.publishEvent(new ImageUploadedEvent(saved.getId(), saved.getFilename()));
+                eventPublisher.publishEvent(new ImageSetChangedEvent(currentUser.getId()));
+                eventPublisher.publishEvent(textChanged(saved, currentUser));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            fileStorageService.deleteFile(upload.filename());
+            throw e;
+        }
+        return imageMapper.toDTO(savedImage, fileStorageConfig.getBaseUrl());
+    }
+
+    /**
+     * Validates and stores the files in parallel, then inserts every successful upload in a
+     * single transaction. Results are returned in the order of {@code files}.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchUploadItemDTO> uploadImages(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            throw new InvalidImageException("No files were sent");
+        }
+        if (files.size() > imageBatchConfig.getMaxFiles()) {
+            throw new InvalidImageException("A batch can contain at most " + imageBatchConfig.getMaxFiles() + " files");
+        }
+
+        User currentUser = getCurrentUser().orElseThrow();
+        userStorageService.checkQuota(currentUser.getId(),
+            files.stream().mapToLong(MultipartFile::getSize).sum(), files.size());
+
+        // Entities are prepared on the workers too, so files are stored in parallel
+        List<CompletableFuture<Image>> uploads = files.stream()
+                .map(file -> CompletableFuture.supplyAsync(() -> {
+                    validateImage(file);
+                    try {
+                        Image image = new Image();
+                        applyUpload(image, file.getOriginalFilename(), file.getContentType(), storeFile(file));
+                        return image;
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }, batchUploadExecutor))
+                .toList();
+
+        List<BatchUploadItemDTO> results = new ArrayList<>();
+        List<Image> images = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            MultipartFile file = files.get(i);
+            try {
+                Image image = uploads.get(i).join();
+                image.setUser(currentUser);
+                images.add(image);
+                results.add(null);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                results.add(BatchUploadItemDTO.failure(file.getOriginalFilename(), cause.getMessage()));
+            }
+        }
+
+        List<Image> savedImages;
+        try {
+            savedImages = transactionTemplate.execute(status -> {
+                // The batch is accepted or rejected as a whole against the quota
+                userStorageService.recordAdded(currentUser.getId(), images);
+                List<Image> saved = imageRepository.saveAll(images);
+                saved.forEach(image -> {
+                    eventPublisher.publishEvent(new ImageUploadedEvent(image.getId(), image.getFilename()));
+                    eventPublisher.publishEvent(textChanged(image, currentUser));
+                });
+                eventPublisher.publishEvent(new ImageSetChangedEvent(currentUser.getId()));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            // Nothing was inserted, so none of the stored files are referenced
+            images.forEach(image -> fileStorageService.deleteFile(image.getFilename()));
+            throw e;
+        }
+
+        int next = 0;
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i) == null) {
+                Image image = savedImages.get(next++);
+                results.set(i, BatchUploadItemDTO.success(
+                    files.get(i).getOriginalFilename(), imageMapper.toDTO(image, fileStorageConfig.getBaseUrl())));
+            }
+        }
+        logger.debug("Batch upload stored {} of {} files", savedImages.size(), files.size());
+        return results;
+    }
+
     @Transactional
     public void deleteImage(Long id) throws IOException, ImageNotFoundException {
         Image image = imageRepository.findById(id)
@@ -98,31 +302,101 @@ public class ImageService {
         }
         
         fileStorageService.deleteFile(image.getFilename());
+        image.getVariants().forEach(variant -> fileStorageService.deleteFile(variant.getFilename()));
+        userStorageService.recordRemoved(currentUser.getId(), image);
         imageRepository.delete(image);
+        eventPublisher.publishEvent(new ImageSetChangedEvent(currentUser.getId()));
+        eventPublisher.publishEvent(new ImageDeletedEvent(id, currentUser.getId()));
     }
 
+    /**
+     * Returns one page of the current user's images matching {@code filter}. {@code cursor} is
+     * the {@code nextCursor} of the previous page, or {@code null} for the first one.
+     */
     @Transactional(readOnly = true)
-    public List<ImageDTO> getAllImages() {
+    public ImagePage getImages(String sort, Integer limit, String cursor, ImageFilter filter) {
+        ImageSort order = ImageSort.from(sort);
+        int pageSize = pageSize(limit);
+        ImageCursor after = cursor == null || cursor.isBlank() ? null : ImageCursor.decode(cursor, order);
+
         // Get the current authenticated user
         User currentUser = getCurrentUser().orElseThrow();
-        
-        List<Image> images = imageRepository.findByUser(currentUser);
-        return images.stream()
-                .map(image -> imageMapper.toDTO(image, fileStorageConfig.getBaseUrl()))
-                .collect(Collectors.toList());
+
+        return readOwnImages(currentUser.getId(), () -> {
+            // One row more than asked for tells whether another page follows
+            List<ImageSummary> images = imageRepository.findPage(currentUser, order, filter, after, pageSize + 1);
+            String nextCursor = null;
+            if (images.size() > pageSize) {
+                images = images.subList(0, pageSize);
+                nextCursor = ImageCursor.after(order, images.get(pageSize - 1)).encode();
+            }
+            return new ImagePage(toDTOs(images), nextCursor);
+        });
     }
 
+    /**
+     * Returns the current user's images whose title, description or original filename match
+     * every word of {@code query}, best match first.
+     */
     @Transactional(readOnly = true)
-    public ImageDTO getImageById(Long id) throws ImageNotFoundException, IllegalStateException {
+    public List<ImageDTO> searchImages(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidImageException("A search query is required");
+        }
+        int pageSize = pageSize(limit);
         User currentUser = getCurrentUser().orElseThrow();
-        Image image = imageRepository.findById(id)
-                .orElseThrow(() -> new ImageNotFoundException("Image not found with id: " + id));
-                
-        if (!image.getUser().getId().equals(currentUser.getId())) {
-            throw new IllegalStateException("You can only access your own images");
+
+        Long userId = currentUser.getId();
+        return readOwnImages(userId, () -> {
+            List<ImageSummary> ranked;
+            boolean droppedStale;
+            do {
+                List<Long> ids = imageSearchIndex.search(userId, query, pageSize);
+                if (ids.isEmpty()) {
+                    return List.of();
+                }
+                Map<Long, ImageSummary> found = summariesById(imageRepository.findSummariesByIdInAndUserId(ids, userId));
+                List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+                if (!missing.isEmpty()) {
+                    // A replica may not have the newest images yet; only the primary can tell one was deleted
+                    found.putAll(summariesById(primaryTransaction.execute(status ->
+                        imageRepository.findSummariesByIdInAndUserId(missing, userId))));
+                    missing.removeIf(found::containsKey);
+                    // Deleted while the index was not listening, e.g. after it was last written to disk
+                    missing.forEach(id -> imageSearchIndex.remove(userId, id));
+                }
+                ranked = ids.stream().map(found::get).filter(Objects::nonNull).toList();
+                // With the stale ids gone from the index, the next search fills the page
+                droppedStale = !missing.isEmpty() && ids.size() == pageSize;
+            } while (droppedStale && ranked.size() < pageSize);
+            return toDTOs(ranked);
+        });
+    }
+
+    private Map<Long, ImageSummary> summariesById(List<ImageSummary> images) {
+        return images.stream().collect(Collectors.toMap(ImageSummary::id, image -> image));
+    }
+
+    @Transactional(readOnly = true)
+    public ImageDTO getImageById(Long id) throws ImageNotFoundException {
+        User currentUser = getCurrentUser().orElseThrow();
+        return readOwnImages(currentUser.getId(), () -> {
+            ImageSummary image = imageRepository.findSummaryByIdAndUserId(id, currentUser.getId())
+                    .orElseThrow(() -> new ImageNotFoundException("Image not found with id: " + id));
+            return imageMapper.toDTO(image, imageVariantRepository.findSummariesByImageId(id),
+                    fileStorageConfig.getBaseUrl());
+        });
+    }
+
+    /**
+     * Runs a read of the user's own images on the primary while a read replica may still be
+     * missing a change they just made, and in the caller's read-only transaction otherwise.
+     */
+    private <T> T readOwnImages(Long userId, Supplier<T> read) {
+        if (recentWriteTracker.wroteRecently(userId)) {
+            return primaryTransaction.execute(status -> read.get());
         }
-        
-        return imageMapper.toDTO(image, fileStorageConfig.getBaseUrl());
+        return read.get();
     }
 
     @Transactional
@@ -137,16 +411,29 @@ public class ImageService {
         }
         
         String oldImageName = null;
+        List<String> oldVariantNames = List.of();
         
         // Change the image entity to the new image
         if(file != null) {
+            validateImage(file);
             // Store the new image
-            String newImageName = fileStorageService.storeFile(file);
+            UploadResult upload = storeFile(file);
+            try {
+                userStorageService.recordReplaced(currentUser.getId(), image.getContentType(), image.getFileSize(),
+                    file.getContentType(), upload.size());
+            } catch (StorageQuotaExceededException e) {
+                fileStorageService.deleteFile(upload.filename());
+                throw e;
+            }
             // Save old image name for deletion at end of method
             oldImageName = image.getFilename();
+            oldVariantNames = image.getVariants().stream().map(ImageVariant::getFilename).toList();
 
             // update entitiy
-            image.setFilename(newImageName);
+            applyUpload(image, file.getOriginalFilename(), file.getContentType(), upload);
+            image.getVariants().clear();
+            // The old file's placeholder no longer applies; the new one comes with the variants
+            image.setPlaceholder(null);
         }
         if(title != null) {
             image.setTitle(title);
@@ -156,39 +443,110 @@ public class ImageService {
         }
         // save the updated entity
         Image updatedImage = imageRepository.save(image);
+        if (file != null || title != null || description != null) {
+            eventPublisher.publishEvent(textChanged(updatedImage, currentUser));
+        }
         
         if(file != null && oldImageName != null) {
             // Delete the old image
             fileStorageService.deleteFile(oldImageName);
+            oldVariantNames.forEach(fileStorageService::deleteFile);
+            eventPublisher.publishEvent(new ImageUploadedEvent(updatedImage.getId(), updatedImage.getFilename()));
+            eventPublisher.publishEvent(new ImageSetChangedEvent(currentUser.getId()));
         }
 
         return imageMapper.toDTO(updatedImage, fileStorageConfig.getBaseUrl());
     }
 
+    /**
+     * Maps projected images to DTOs, fetching the variants of all of them in one query.
+     */
+    private List<ImageDTO> toDTOs(List<ImageSummary> images) {
+        if (images.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<VariantSummary>> variants = imageVariantRepository
+                .findSummariesByImageIds(images.stream().map(ImageSummary::id).toList())
+                .stream()
+                .collect(Collectors.groupingBy(VariantSummary::imageId));
+        return images.stream()
+                .map(image -> imageMapper.toDTO(image, variants.getOrDefault(image.id(), List.of()),
+                    fileStorageConfig.getBaseUrl()))
+                .collect(Collectors.toList());
+    }
+
+    private int pageSize(Integer limit) {
+        int pageSize = limit == null ? imagePageConfig.getDefaultLimit() : limit;
+        if (pageSize < 1) {
+            throw new InvalidImageException("Limit must be at least 1");
+        }
+        return Math.min(pageSize, imagePageConfig.getMaxLimit());
+    }
+
+    private ImageTextChangedEvent textChanged(Image image, User owner) {
+        return new ImageTextChangedEvent(image.getId(), owner.getId(), image.getTitle(), image.getDescription(),
+                image.getOriginalFilename());
+    }
+
     private void validateImage(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new InvalidImageException("File is empty");
         }
+        validateContentType(file.getContentType());
+    }
 
-        String contentType = file.getContentType();
+    void validateContentType(String contentType) {
         if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType)) {
             throw new InvalidImageException("Invalid file type. Allowed types: JPEG, PNG, GIF");
         }
     }
 
-    private void extractImageDimensions(MultipartFile file, Image image) {
-        try {
-            BufferedImage bufferedImage = ImageIO.read(file.getInputStream());
-            image.setWidth(bufferedImage.getWidth());
-            image.setHeight(bufferedImage.getHeight());
-        } catch (Exception e) {
+    private UploadResult storeFile(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return store(inputStream, file.getOriginalFilename(), file.getContentType());
+        }
+    }
+
+    private UploadResult store(InputStream inputStream, String originalFilename, String contentType) throws IOException {
+        // The declared type is only the client's claim; check the file signature before writing anything
+        InputStream markable = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream);
+        String sniffedType = imageTypeSniffer.sniff(markable)
+                .orElseThrow(() -> new InvalidImageException("File content is not a supported image"));
+        if (!ALLOWED_CONTENT_TYPES.contains(sniffedType)) {
+            throw new InvalidImageException("Invalid file type. Allowed types: JPEG, PNG, GIF");
+        }
+        if (!sniffedType.equals(contentType)) {
+            throw new InvalidImageException("File content is " + sniffedType + " but was sent as " + contentType);
+        }
+        UploadResult upload = uploadPipeline.process(markable, originalFilename);
+        if (upload.dimensions() == null) {
+            fileStorageService.deleteFile(upload.filename());
             throw new InvalidImageException("Failed to extract image dimensions");
         }
+        return upload;
     }
 
-    private Optional<User> getCurrentUser() {
+    private void applyUpload(Image image, String originalFilename, String contentType, UploadResult upload) {
+        image.setFilename(upload.filename());
+        image.setOriginalFilename(originalFilename);
+        image.setContentType(contentType);
+        image.setFileSize(upload.size());
+        image.setContentHash(upload.contentHash());
+
+        image.setWidth(upload.dimensions().width());
+        image.setHeight(upload.dimensions().height());
+    }
+
+    /**
+     * The authenticated user. Looked up on the primary even from a read-only transaction, where a
+     * lagging replica may not have a user who has only just registered.
+     */
+    public Optional<User> getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String username = ((UserDetails) authentication.getPrincipal()).getUsername();
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primaryTransaction.execute(status -> userRepository.findByUsername(username));
+        }
         return userRepository.findByUsername(username);
     }
     
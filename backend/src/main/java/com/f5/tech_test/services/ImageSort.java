@@ -0,0 +1,60 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.exceptions.InvalidImageException;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+public enum ImageSort {
+    // Newest first
+    UPLOAD_DATE("uploadDate", false, ImageSummary::uploadDate, LocalDateTime::parse),
+    // Largest first
+    SIZE("fileSize", false, ImageSummary::fileSize, Long::valueOf),
+    // A to Z, untitled images last
+    TITLE("title", true, ImageSummary::title, value -> value);
+
+    private final String attribute;
+    private final boolean ascending;
+    private final Function<ImageSummary, Comparable<?>> key;
+    private final Function<String, Comparable<?>> parser;
+
+    ImageSort(String attribute, boolean ascending, Function<ImageSummary, Comparable<?>> key,
+              Function<String, Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.ascending = ascending;
+        this.key = key;
+        this.parser = parser;
+    }
+
+    public static ImageSort from(String value) {
+        if (value == null || value.isBlank()) {
+            return UPLOAD_DATE;
+        }
+        return switch (value.trim()) {
+            case "uploadDate" -> UPLOAD_DATE;
+            case "size" -> SIZE;
+            case "title" -> TITLE;
+            default -> throw new InvalidImageException("Invalid sort. Allowed values: uploadDate, size, title");
+        };
+    }
+
+    /**
+     * The {@code Image} attribute rows are ordered by, before the id that breaks ties.
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public Comparable<?> keyOf(ImageSummary image) {
+        return key.apply(image);
+    }
+
+    Comparable<?> parseKey(String value) {
+        return parser.apply(value);
+    }
+}
@@ -0,0 +1,70 @@
+package com.f5.tech_test.services;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Identifies an image format from its leading signature bytes, so uploads can be
+ * checked against their declared type before anything is written or decoded.
+ */
+@Component
+public class ImageTypeSniffer {
+
+    // Long enough for the RIFF....WEBP signature, the longest one we recognise
+    static final int SNIFF_BYTES = 12;
+
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF87A = {'G', 'I', 'F', '8', '7', 'a'};
+    private static final byte[] GIF89A = {'G', 'I', 'F', '8', '9', 'a'};
+    private static final byte[] RIFF = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP = {'W', 'E', 'B', 'P'};
+
+    /**
+     * Peeks at the start of {@code inputStream}, which must support mark/reset,
+     * and leaves it positioned where it was.
+     */
+    public Optional<String> sniff(InputStream inputStream) throws IOException {
+        if (!inputStream.markSupported()) {
+            throw new IllegalArgumentException("Sniffing requires a stream that supports mark/reset");
+        }
+        inputStream.mark(SNIFF_BYTES);
+        try {
+            byte[] header = inputStream.readNBytes(SNIFF_BYTES);
+            return sniff(header, header.length);
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    public Optional<String> sniff(byte[] header, int length) {
+        if (startsWith(header, length, 0, JPEG)) {
+            return Optional.of("image/jpeg");
+        }
+        if (startsWith(header, length, 0, PNG)) {
+            return Optional.of("image/png");
+        }
+        if (startsWith(header, length, 0, GIF87A) || startsWith(header, length, 0, GIF89A)) {
+            return Optional.of("image/gif");
+        }
+        if (startsWith(header, length, 0, RIFF) && startsWith(header, length, 8, WEBP)) {
+            return Optional.of("image/webp");
+        }
+        return Optional.empty();
+    }
+
+    private boolean startsWith(byte[] header, int length, int offset, byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (header[offset + i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
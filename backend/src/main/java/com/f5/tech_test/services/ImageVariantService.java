@@ -0,0 +1,162 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageVariantConfig;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.ImageVariant;
+import com.f5.tech_test.events.ImageUploadedEvent;
+import com.f5.tech_test.repositories.ImageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Generates the configured resized variants of an image on the variant worker pool,
+ * once the upload transaction has committed, so resizing never adds to upload latency.
+ * The placeholder is computed here too, from the smallest variant, and stays empty until then.
+ */
+@Service
+public class ImageVariantService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantService.class);
+
+    private final ImageRepository imageRepository;
+    private final FileStorageService fileStorageService;
+    private final UploadPipeline uploadPipeline;
+    private final ImageResizer imageResizer;
+    private final ImagePlaceholderGenerator imagePlaceholderGenerator;
+    private final ImageVariantConfig imageVariantConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public ImageVariantService(ImageRepository imageRepository,
+                               FileStorageService fileStorageService,
+                               UploadPipeline uploadPipeline,
+                               ImageResizer imageResizer,
+                               ImagePlaceholderGenerator imagePlaceholderGenerator,
+                               ImageVariantConfig imageVariantConfig,
+                               PlatformTransactionManager transactionManager) {
+        this.imageRepository = imageRepository;
+        this.fileStorageService = fileStorageService;
+        this.uploadPipeline = uploadPipeline;
+        this.imageResizer = imageResizer;
+        this.imagePlaceholderGenerator = imagePlaceholderGenerator;
+        this.imageVariantConfig = imageVariantConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Async("variantExecutor")
+    @TransactionalEventListener
+    public void onImageUploaded(ImageUploadedEvent event) {
+        try {
+            generateVariants(event.imageId(), event.filename());
+        } catch (Exception e) {
+            logger.warn("Could not generate variants for image {}", event.imageId(), e);
+        }
+    }
+
+    public void generateVariants(Long imageId, String filename) throws IOException {
+        Image source = imageRepository.findById(imageId).orElse(null);
+        if (source == null || !filename.equals(source.getFilename())
+                || source.getWidth() == null || source.getHeight() == null) {
+            return;
+        }
+
+        // Largest first, so each variant is scaled down from the previous one
+        List<Integer> sizes = new ArrayList<>(imageVariantConfig.getSizes());
+        sizes.sort(Collections.reverseOrder());
+        sizes.removeIf(size -> size >= Math.max(source.getWidth(), source.getHeight()));
+        if (sizes.isEmpty()) {
+            // Smaller than every variant, so the original is cheap to sample
+            String placeholder = placeholder(imageId, null, filename);
+            if (placeholder != null) {
+                transactionTemplate.execute(status -> imageRepository.updatePlaceholder(imageId, filename, placeholder));
+            }
+            return;
+        }
+
+        ImageDimensions largest = imageResizer.fitWithin(source.getWidth(), source.getHeight(), sizes.get(0));
+        BufferedImage current = imageResizer.decode(
+            fileStorageService.getFilePath(filename), largest.width(), largest.height());
+
+        List<ImageVariant> variants = new ArrayList<>();
+        List<String> obsolete;
+        try {
+            for (Integer size : sizes) {
+                ImageDimensions target = imageResizer.fitWithin(source.getWidth(), source.getHeight(), size);
+                current = imageResizer.scale(current, target.width(), target.height());
+                ImageResizer.EncodedImage encoded = imageResizer.encode(current);
+
+                UploadResult stored = uploadPipeline.process(
+                    new ByteArrayInputStream(encoded.content()), size + encoded.extension());
+
+                ImageVariant variant = new ImageVariant();
+                variant.setName(String.valueOf(size));
+                variant.setFilename(stored.filename());
+                variant.setWidth(encoded.width());
+                variant.setHeight(encoded.height());
+                variant.setFileSize(stored.size());
+                variant.setContentHash(stored.contentHash());
+                variants.add(variant);
+            }
+
+            // The smallest variant is still in memory and holds more detail than the placeholder can
+            obsolete = attachVariants(imageId, filename, variants, placeholder(imageId, current, filename));
+        } catch (IOException | RuntimeException e) {
+            // Nothing references the variants stored so far
+            variants.forEach(variant -> fileStorageService.deleteFile(variant.getFilename()));
+            throw e;
+        }
+
+        if (obsolete != null) {
+            obsolete.forEach(fileStorageService::deleteFile);
+        }
+    }
+
+    private String placeholder(Long imageId, BufferedImage smallest, String filename) {
+        try {
+            return smallest != null
+                ? imagePlaceholderGenerator.generate(smallest)
+                : imagePlaceholderGenerator.generate(fileStorageService.getFilePath(filename));
+        } catch (IOException | RuntimeException e) {
+            // Clients fall back to an empty tile; not worth losing the variants over
+            logger.debug("Could not generate a placeholder for image {}", imageId, e);
+            return null;
+        }
+    }
+
+    /**
+     * Attaches the variants unless the image was deleted or replaced meanwhile, and returns the
+     * files that are no longer referenced.
+     */
+    private List<String> attachVariants(Long imageId, String filename, List<ImageVariant> variants, String placeholder) {
+        return transactionTemplate.execute(status -> {
+            Image image = imageRepository.findById(imageId).orElse(null);
+            if (image == null || !filename.equals(image.getFilename())) {
+                // The image was deleted or replaced while we were resizing
+                return variants.stream().map(ImageVariant::getFilename).toList();
+            }
+
+            List<String> replaced = image.getVariants().stream().map(ImageVariant::getFilename).toList();
+            image.getVariants().clear();
+            for (ImageVariant variant : variants) {
+                variant.setImage(image);
+                image.getVariants().add(variant);
+            }
+            if (placeholder != null) {
+                image.setPlaceholder(placeholder);
+            }
+            imageRepository.save(image);
+            return replaced;
+        });
+    }
+}
@@ -1,11 +1,13 @@
 package com.f5.tech_test.services;
 
 import com.f5.tech_test.config.FileStorageConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -15,11 +17,14 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
+@ConditionalOnProperty(name = "file.storage", havingValue = "local", matchIfMissing = true)
 public class LocalFileStorageService implements FileStorageService {
     private final Path fileStorageLocation;
+    private final HotImageCache hotImageCache;
 
-    public LocalFileStorageService(FileStorageConfig fileStorageConfig) {
+    public LocalFileStorageService(FileStorageConfig fileStorageConfig, HotImageCache hotImageCache) {
         this.fileStorageLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+        this.hotImageCache = hotImageCache;
         try {
             Files.createDirectories(this.fileStorageLocation);
         } catch (IOException ex) {
@@ -29,16 +34,32 @@ public class LocalFileStorageService implements FileStorageService {
 
     @Override
     public String storeFile(MultipartFile file) throws IOException {
-        String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String newFilename = UUID.randomUUID().toString() + fileExtension;
+        try (InputStream inputStream = file.getInputStream()) {
+            return storeFile(inputStream, file.getOriginalFilename());
+        }
+    }
+
+    @Override
+    public String storeFile(InputStream inputStream, String originalFilename) throws IOException {
+        String newFilename = UUID.randomUUID().toString() + getFileExtension(originalFilename);
 
         Path targetLocation = this.fileStorageLocation.resolve(newFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            Files.copy(inputStream, targetLocation, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            // Don't leave a partially written file behind
+            Files.deleteIfExists(targetLocation);
+            throw e;
+        }
 
         return newFilename;
     }
 
+    @Override
+    public Path getFilePath(String filename) {
+        return this.fileStorageLocation.resolve(filename).normalize();
+    }
+
     @Override
     public boolean deleteFile(String fileUrl) {
         try {
@@ -49,12 +70,19 @@ public class LocalFileStorageService implements FileStorageService {
                 return false;
             }
 
+            hotImageCache.invalidate(filename);
             return Files.deleteIfExists(filePath);
         } catch (IOException e) {
             return false;
         }
     }
 
+    static String getFileExtension(String originalFilename) {
+        String cleanFilename = StringUtils.cleanPath(originalFilename == null ? "" : originalFilename);
+        int extensionIndex = cleanFilename.lastIndexOf(".");
+        return extensionIndex < 0 ? "" : cleanFilename.substring(extensionIndex);
+    }
+
     @Override
     public List<String> getAllFiles() {
         try {
@@ -0,0 +1,62 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.events.ImageSetChangedEvent;
+import com.f5.tech_test.events.ImageTextChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users changed their images recently, so their own reads can go to the
+ * primary until a read replica is guaranteed to have caught up: the allowed lag plus one check
+ * interval, after which {@code ReplicaLagMonitor} would have noticed a replica further behind.
+ * Other users' reads keep using the replica. Without a replica nothing is tracked.
+ */
+@Service
+public class RecentWriteTracker {
+
+    private final boolean enabled;
+    private final long windowNanos;
+
+    // User id to System.nanoTime() of the last committed change
+    private final Map<Long, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public RecentWriteTracker(@Value("${datasource.replica.url:}") String replicaUrl,
+                              @Value("${datasource.replica.max-lag:PT5S}") Duration maxLag,
+                              @Value("${datasource.replica.check-interval:PT5S}") Duration checkInterval) {
+        this.enabled = !replicaUrl.isBlank();
+        this.windowNanos = maxLag.plus(checkInterval).toNanos();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageSetChanged(ImageSetChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onImageTextChanged(ImageTextChangedEvent event) {
+        recordWrite(event.userId());
+    }
+
+    public void recordWrite(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        // Only users who wrote within the window are kept, so this stays small
+        lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        lastWrites.put(userId, now);
+    }
+
+    /**
+     * Whether the replica may still be missing a change this user committed.
+     */
+    public boolean wroteRecently(Long userId) {
+        Long writtenAt = lastWrites.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt <= windowNanos;
+    }
+}
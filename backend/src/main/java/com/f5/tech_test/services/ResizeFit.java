@@ -0,0 +1,23 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.exceptions.InvalidImageException;
+
+import java.util.Locale;
+
+public enum ResizeFit {
+    // Scale to fit inside the requested box, keeping the whole image
+    CONTAIN,
+    // Scale to fill the requested box and crop the overflow around the center
+    COVER;
+
+    public static ResizeFit from(String value) {
+        if (value == null || value.isBlank()) {
+            return CONTAIN;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidImageException("Invalid fit. Allowed values: cover, contain");
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package com.f5.tech_test.services;
+
+public record ResizedImage(byte[] content, String contentType) {
+}
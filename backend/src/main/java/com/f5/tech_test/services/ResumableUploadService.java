@@ -0,0 +1,196 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ResumableUploadConfig;
+import com.f5.tech_test.dto.CreateUploadRequest;
+import com.f5.tech_test.dto.ImageDTO;
+import com.f5.tech_test.entities.UploadSession;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.exceptions.UploadConflictException;
+import com.f5.tech_test.exceptions.UploadSessionNotFoundException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
+import com.f5.tech_test.repositories.UploadSessionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumable uploads in the style of the tus protocol. Chunks are streamed straight into a part
+ * file with positional writes through a fixed-size buffer, and the session offset only advances
+ * once the bytes are on disk, so a client that loses its connection resends just what is missing.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableUploadService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ImageService imageService;
+    private final UserStorageService userStorageService;
+    private final ResumableUploadConfig resumableUploadConfig;
+    private final Path sessionLocation;
+    private final Set<String> activeSessions = ConcurrentHashMap.newKeySet();
+
+    public ResumableUploadService(UploadSessionRepository uploadSessionRepository,
+                                  ImageService imageService,
+                                  UserStorageService userStorageService,
+                                  ResumableUploadConfig resumableUploadConfig) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.imageService = imageService;
+        this.userStorageService = userStorageService;
+        this.resumableUploadConfig = resumableUploadConfig;
+        this.sessionLocation = Paths.get(resumableUploadConfig.getSessionDir()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.sessionLocation);
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not create the directory where resumable uploads will be stored.", ex);
+        }
+    }
+
+    public UploadSession createSession(CreateUploadRequest request) throws IOException {
+        if (request.getLength() > resumableUploadConfig.getMaxSize().toBytes()) {
+            throw new UploadTooLargeException("Upload exceeds the maximum size of " + resumableUploadConfig.getMaxSize());
+        }
+        // Reject unsupported types before the client sends any data
+        imageService.validateContentType(request.getContentType());
+        User user = imageService.getCurrentUser().orElseThrow();
+        userStorageService.checkQuota(user.getId(), request.getLength(), 1);
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setUser(user);
+        session.setOriginalFilename(request.getFilename());
+        session.setContentType(request.getContentType());
+        session.setTitle(request.getTitle());
+        session.setDescription(request.getDescription());
+        session.setLength(request.getLength());
+        session.setOffset(0L);
+
+        Files.createFile(partFile(session.getId()));
+        return uploadSessionRepository.save(session);
+    }
+
+    public UploadSession getSession(String id) {
+        return uploadSessionRepository.findByIdAndUserId(id, imageService.getCurrentUser().orElseThrow().getId())
+                .orElseThrow(() -> new UploadSessionNotFoundException("Upload not found: " + id));
+    }
+
+    /**
+     * Writes the body at {@code offset}, which must match the bytes already received.
+     * Returns the new offset.
+     */
+    public long appendChunk(String id, long offset, long contentLength, InputStream body) throws IOException {
+        if (!activeSessions.add(id)) {
+            throw new UploadConflictException("Another request is already writing to upload " + id);
+        }
+        try {
+            UploadSession session = getSession(id);
+            if (offset != session.getOffset()) {
+                throw new UploadConflictException(
+                    "Upload-Offset " + offset + " does not match the current offset " + session.getOffset());
+            }
+            long remaining = session.getLength() - offset;
+            if (contentLength > remaining) {
+                throw new UploadConflictException("Chunk extends past the declared upload length");
+            }
+
+            long position = offset;
+            try (FileChannel channel = FileChannel.open(partFile(id), StandardOpenOption.WRITE)) {
+                try {
+                    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                    int read;
+                    while (position < session.getLength()
+                            && (read = body.read(buffer.array(), 0, (int) Math.min(BUFFER_SIZE, session.getLength() - position))) != -1) {
+                        buffer.limit(read);
+                        while (buffer.hasRemaining()) {
+                            position += channel.write(buffer, position);
+                        }
+                        buffer.clear();
+                    }
+                } finally {
+                    // Keep what arrived before a dropped connection, the client resumes from there
+                    if (position > offset) {
+                        channel.force(false);
+                        session.setOffset(position);
+                        uploadSessionRepository.save(session);
+                    }
+                }
+            }
+            return position;
+        } finally {
+            activeSessions.remove(id);
+        }
+    }
+
+    public ImageDTO complete(String id) throws IOException {
+        if (!activeSessions.add(id)) {
+            throw new UploadConflictException("Another request is already writing to upload " + id);
+        }
+        try {
+            UploadSession session = getSession(id);
+            if (!session.getOffset().equals(session.getLength())) {
+                throw new UploadConflictException(
+                    "Upload is incomplete: " + session.getOffset() + " of " + session.getLength() + " bytes received");
+            }
+
+            ImageDTO image;
+            try (InputStream inputStream = Files.newInputStream(partFile(id))) {
+                image = imageService.uploadImage(inputStream, session.getOriginalFilename(), session.getContentType(),
+                    session.getTitle(), session.getDescription());
+            }
+            delete(session);
+            return image;
+        } finally {
+            activeSessions.remove(id);
+        }
+    }
+
+    public void cancel(String id) {
+        if (!activeSessions.add(id)) {
+            throw new UploadConflictException("Another request is already writing to upload " + id);
+        }
+        try {
+            delete(getSession(id));
+        } finally {
+            activeSessions.remove(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${upload.resumable.cleanup-interval:PT1H}")
+    public void deleteExpiredSessions() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(resumableUploadConfig.getExpiration());
+        for (UploadSession session : uploadSessionRepository.findByLastModifiedDateBefore(cutoff)) {
+            if (!activeSessions.contains(session.getId())) {
+                logger.info("Deleting expired upload {}", session.getId());
+                delete(session);
+            }
+        }
+    }
+
+    private void delete(UploadSession session) {
+        uploadSessionRepository.delete(session);
+        try {
+            Files.deleteIfExists(partFile(session.getId()));
+        } catch (IOException e) {
+            logger.warn("Could not delete data of upload {}", session.getId(), e);
+        }
+    }
+
+    private Path partFile(String id) {
+        return sessionLocation.resolve(id + ".part");
+    }
+}
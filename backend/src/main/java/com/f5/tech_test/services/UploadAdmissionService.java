@@ -0,0 +1,141 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.UploadAdmissionConfig;
+import com.f5.tech_test.exceptions.TooManyUploadsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many uploads run at once, overall and per user. A user over their own limit is
+ * rejected straight away; otherwise the upload waits briefly in a bounded queue for a global slot.
+ */
+@Service
+public class UploadAdmissionService {
+
+    private final UploadAdmissionConfig config;
+    private final Semaphore globalSlots;
+    private final ConcurrentHashMap<String, Integer> inFlightByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final Counter admitted;
+    private final Counter rejectedUserLimit;
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private final Timer waitTimer;
+
+    public UploadAdmissionService(UploadAdmissionConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        // Fair, so queued uploads are admitted in arrival order
+        this.globalSlots = new Semaphore(config.getMaxConcurrent(), true);
+
+        Gauge.builder("uploads.admission.in.flight", this, UploadAdmissionService::getInFlight)
+                .description("Uploads currently being processed")
+                .register(meterRegistry);
+        Gauge.builder("uploads.admission.queue.depth", waiting, AtomicInteger::get)
+                .description("Uploads waiting for a free slot")
+                .register(meterRegistry);
+        this.admitted = meterRegistry.counter("uploads.admission.admitted");
+        this.rejectedUserLimit = meterRegistry.counter("uploads.admission.rejected", "reason", "user_limit");
+        this.rejectedQueueFull = meterRegistry.counter("uploads.admission.rejected", "reason", "queue_full");
+        this.rejectedTimeout = meterRegistry.counter("uploads.admission.rejected", "reason", "timeout");
+        this.waitTimer = meterRegistry.timer("uploads.admission.wait");
+    }
+
+    /**
+     * Blocks for at most the configured wait. The returned permit must be closed when the upload ends.
+     */
+    public Permit admit(String username) {
+        if (!acquireUserSlot(username)) {
+            rejectedUserLimit.increment();
+            throw new TooManyUploadsException("You already have " + config.getMaxPerUser() + " uploads in progress");
+        }
+
+        boolean acquired = false;
+        try {
+            acquired = acquireGlobalSlot();
+        } finally {
+            if (!acquired) {
+                releaseUserSlot(username);
+            }
+        }
+        admitted.increment();
+        return new Permit(username);
+    }
+
+    public int getInFlight() {
+        return config.getMaxConcurrent() - globalSlots.availablePermits();
+    }
+
+    private boolean acquireGlobalSlot() {
+        try {
+            // A zero timeout still respects fairness, unlike the untimed tryAcquire()
+            if (globalSlots.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            if (waiting.incrementAndGet() > config.getQueueCapacity()) {
+                waiting.decrementAndGet();
+                rejectedQueueFull.increment();
+                throw new TooManyUploadsException("Too many uploads in progress, try again later");
+            }
+
+            long start = System.nanoTime();
+            try {
+                if (globalSlots.tryAcquire(config.getMaxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            } finally {
+                waiting.decrementAndGet();
+                waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectedTimeout.increment();
+        throw new TooManyUploadsException("Too many uploads in progress, try again later");
+    }
+
+    private boolean acquireUserSlot(String username) {
+        AtomicBoolean acquired = new AtomicBoolean();
+        inFlightByUser.compute(username, (user, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= config.getMaxPerUser()) {
+                return count;
+            }
+            acquired.set(true);
+            return current + 1;
+        });
+        return acquired.get();
+    }
+
+    private void releaseUserSlot(String username) {
+        // Drop the entry at zero so the map only holds users with uploads in flight
+        inFlightByUser.computeIfPresent(username, (user, count) -> count <= 1 ? null : count - 1);
+    }
+
+    public final class Permit implements AutoCloseable {
+
+        private final String username;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String username) {
+            this.username = username;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                globalSlots.release();
+                releaseUserSlot(username);
+            }
+        }
+    }
+}
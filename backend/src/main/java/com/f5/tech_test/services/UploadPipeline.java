@@ -0,0 +1,60 @@
+package com.f5.tech_test.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Stores an upload while hashing, counting and capturing its header in the same pass,
+ * so the source stream (usually a spooled multipart temp file) is read exactly once.
+ */
+@Component
+public class UploadPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadPipeline.class);
+
+    // Enough for the frame header of JPEGs carrying a full EXIF segment
+    static final int HEADER_CAPTURE_BYTES = 64 * 1024;
+
+    private final FileStorageService fileStorageService;
+    private final ImageDimensionProbe imageDimensionProbe;
+
+    public UploadPipeline(FileStorageService fileStorageService, ImageDimensionProbe imageDimensionProbe) {
+        this.fileStorageService = fileStorageService;
+        this.imageDimensionProbe = imageDimensionProbe;
+    }
+
+    public UploadResult process(InputStream inputStream, String originalFilename) throws IOException {
+        long start = System.nanoTime();
+        UploadTeeInputStream tee = new UploadTeeInputStream(inputStream, HEADER_CAPTURE_BYTES);
+        String filename = fileStorageService.storeFile(tee, originalFilename);
+        long stored = System.nanoTime();
+
+        Optional<ImageDimensions> dimensions = probe(tee, filename);
+        long probed = System.nanoTime();
+
+        long writeNanos = (stored - start) - tee.getReadNanos() - tee.getDigestNanos();
+        UploadTimings timings = new UploadTimings(tee.getReadNanos(), tee.getDigestNanos(), writeNanos, probed - stored);
+        logger.debug("Stored {} ({} bytes) as {}: {}", originalFilename, tee.getBytesRead(), filename, timings);
+
+        return new UploadResult(filename, tee.getContentHash(), tee.getBytesRead(), dimensions.orElse(null), timings);
+    }
+
+    private Optional<ImageDimensions> probe(UploadTeeInputStream tee, String filename) {
+        try {
+            Optional<ImageDimensions> dimensions = imageDimensionProbe.probe(tee.getHeaderStream());
+            if (dimensions.isPresent() || tee.isFullyCaptured()) {
+                return dimensions;
+            }
+            // The frame header lies beyond the captured bytes; read it back from our own copy
+            return imageDimensionProbe.probe(fileStorageService.getFilePath(filename));
+        } catch (IOException e) {
+            logger.debug("Could not determine dimensions of {}", filename, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.f5.tech_test.services;
+
+public record UploadResult(
+    String filename,
+    String contentHash,
+    long size,
+    ImageDimensions dimensions,
+    UploadTimings timings
+) {
+}
@@ -0,0 +1,120 @@
+package com.f5.tech_test.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Passes the upload through to its consumer while feeding every byte read into a
+ * SHA-256 digest, a byte counter and a bounded header capture, so a single read
+ * of the source serves storage, hashing and dimension probing.
+ */
+class UploadTeeInputStream extends FilterInputStream {
+
+    private final MessageDigest digest;
+    private final byte[] header;
+    private int headerLength;
+    private long bytesRead;
+    private long readNanos;
+    private long digestNanos;
+    private String contentHash;
+
+    UploadTeeInputStream(InputStream in, int headerCapacity) {
+        super(in);
+        this.header = new byte[headerCapacity];
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int n = read(single, 0, 1);
+        return n < 0 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        long start = System.nanoTime();
+        int n = in.read(b, off, len);
+        long read = System.nanoTime();
+        readNanos += read - start;
+
+        if (n > 0) {
+            digest.update(b, off, n);
+            digestNanos += System.nanoTime() - read;
+
+            int captured = Math.min(n, header.length - headerLength);
+            if (captured > 0) {
+                System.arraycopy(b, off, header, headerLength, captured);
+                headerLength += captured;
+            }
+            bytesRead += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // Skipped bytes must still be hashed and counted
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read < 0) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readlimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    String getContentHash() {
+        if (contentHash == null) {
+            contentHash = HexFormat.of().formatHex(digest.digest());
+        }
+        return contentHash;
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    InputStream getHeaderStream() {
+        return new ByteArrayInputStream(Arrays.copyOf(header, headerLength));
+    }
+
+    boolean isFullyCaptured() {
+        return bytesRead <= headerLength;
+    }
+
+    long getReadNanos() {
+        return readNanos;
+    }
+
+    long getDigestNanos() {
+        return digestNanos;
+    }
+}
@@ -0,0 +1,20 @@
+package com.f5.tech_test.services;
+
+import java.util.concurrent.TimeUnit;
+
+public record UploadTimings(long readNanos, long digestNanos, long writeNanos, long probeNanos) {
+
+    public long totalNanos() {
+        return readNanos + digestNanos + writeNanos + probeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("read=%dus digest=%dus write=%dus probe=%dus total=%dus",
+            TimeUnit.NANOSECONDS.toMicros(readNanos),
+            TimeUnit.NANOSECONDS.toMicros(digestNanos),
+            TimeUnit.NANOSECONDS.toMicros(writeNanos),
+            TimeUnit.NANOSECONDS.toMicros(probeNanos),
+            TimeUnit.NANOSECONDS.toMicros(totalNanos()));
+    }
+}
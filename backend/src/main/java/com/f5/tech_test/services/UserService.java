@@ -2,6 +2,7 @@ package com.f5.tech_test.services;
 
 import com.f5.tech_test.dto.UserDTO;
 import com.f5.tech_test.dto.RegisterRequest;
+import com.f5.tech_test.dto.StorageStatsDTO;
 import com.f5.tech_test.entities.User;
 import com.f5.tech_test.exceptions.UserAlreadyExistsException;
 import com.f5.tech_test.exceptions.UserNotFoundException;
@@ -22,11 +23,14 @@ public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserStorageService userStorageService;
 
-    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder,
+                       UserStorageService userStorageService) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userStorageService = userStorageService;
     }
 
     @Transactional
@@ -48,6 +52,7 @@ public class UserService {
         userEntity.setLastLogin(LocalDateTime.now());
 
         User savedUser = userRepository.save(userEntity);
+        userStorageService.createStats(savedUser.getId());
         return userMapper.toDTO(savedUser);
     }
 
@@ -65,6 +70,13 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
     }
 
+    @Transactional(readOnly = true)
+    public StorageStatsDTO getStorageStats(String username) {
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UserNotFoundException("User not found with username: " + username));
+        return userStorageService.getStats(user.getId());
+    }
+
     @Transactional(readOnly = true)
     public List<UserDTO> getAllUsers() {
         return userRepository.findAll().stream()
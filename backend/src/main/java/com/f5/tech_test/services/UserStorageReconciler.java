@@ -0,0 +1,66 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.StorageQuotaConfig;
+import com.f5.tech_test.repositories.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Periodically recounts every user's images and repairs storage stats that drifted, e.g.
+ * after rows were changed by hand or by a write path that does not maintain them. Disabled
+ * with {@code storage.reconcile.enabled=false}.
+ */
+@Service
+@ConditionalOnProperty(name = "storage.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class UserStorageReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStorageReconciler.class);
+
+    private final UserRepository userRepository;
+    private final UserStorageService userStorageService;
+    private final StorageQuotaConfig storageQuotaConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserStorageReconciler(UserRepository userRepository,
+                                 UserStorageService userStorageService,
+                                 StorageQuotaConfig storageQuotaConfig,
+                                 PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userStorageService = userStorageService;
+        this.storageQuotaConfig = storageQuotaConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reconciles all users, a batch per transaction, and returns how many needed repairing.
+     */
+    @Scheduled(fixedDelayString = "${storage.reconcile.interval:PT6H}",
+               initialDelayString = "${storage.reconcile.initial-delay:PT10M}")
+    public int reconcile() {
+        int repaired = 0;
+        int checked = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> userIds = transactionTemplate.execute(status ->
+                userRepository.findIdsAfter(from, PageRequest.of(0, storageQuotaConfig.getReconcileBatchSize())));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            repaired += transactionTemplate.execute(status ->
+                (int) userIds.stream().filter(userStorageService::reconcile).count());
+            checked += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        logger.info("Reconciled storage stats of {} users, {} repaired", checked, repaired);
+        return repaired;
+    }
+}
@@ -0,0 +1,233 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.StorageQuotaConfig;
+import com.f5.tech_test.dto.StorageStatsDTO;
+import com.f5.tech_test.dto.StorageUsageDTO;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.StorageUsage;
+import com.f5.tech_test.entities.UserStorageStats;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.repositories.ContentTypeUsage;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.UserStorageStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@link UserStorageStats} in step with each user's images and enforces the storage
+ * quota against it, so neither needs to sum the images. Changes are applied in the caller's
+ * transaction, before the images themselves are written, and commit or roll back with them.
+ */
+@Service
+public class UserStorageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserStorageService.class);
+
+    private final UserStorageStatsRepository userStorageStatsRepository;
+    private final ImageRepository imageRepository;
+    private final StorageQuotaConfig storageQuotaConfig;
+
+    public UserStorageService(UserStorageStatsRepository userStorageStatsRepository,
+                              ImageRepository imageRepository,
+                              StorageQuotaConfig storageQuotaConfig) {
+        this.userStorageStatsRepository = userStorageStatsRepository;
+        this.imageRepository = imageRepository;
+        this.storageQuotaConfig = storageQuotaConfig;
+    }
+
+    /**
+     * Rejects an upload of {@code images} totalling {@code bytes} before it is stored if it
+     * could not fit. Only a hint: the quota is enforced when the upload is recorded.
+     * {@code bytes} is 0 when unknown.
+     */
+    @Transactional(readOnly = true)
+    public void checkQuota(Long userId, long bytes, int images) {
+        userStorageStatsRepository.findById(userId)
+                .ifPresent(stats -> checkFits(stats.getTotalBytes(), stats.getImageCount(), bytes, images));
+    }
+
+    /**
+     * Counts newly uploaded images, which must not have been saved yet.
+     *
+     * @throws StorageQuotaExceededException if they take the user over the quota
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAdded(Long userId, List<Image> images) {
+        Map<String, StorageUsage> changes = new TreeMap<>();
+        images.forEach(image -> add(changes, image.getContentType(), image.getFileSize(), 1));
+        apply(userId, changes);
+    }
+
+    /**
+     * Stops counting an image, which must not have been deleted yet.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRemoved(Long userId, Image image) {
+        Map<String, StorageUsage> changes = new TreeMap<>();
+        add(changes, image.getContentType(), -image.getFileSize(), -1);
+        apply(userId, changes);
+    }
+
+    /**
+     * Accounts for an image whose file is being replaced, before the new file is saved.
+     *
+     * @throws StorageQuotaExceededException if the new file takes the user over the quota
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReplaced(Long userId, String oldContentType, long oldSize, String newContentType, long newSize) {
+        Map<String, StorageUsage> changes = new TreeMap<>();
+        add(changes, oldContentType, -oldSize, -1);
+        add(changes, newContentType, newSize, 1);
+        apply(userId, changes);
+    }
+
+    /**
+     * Starts counting for a user without images.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void createStats(Long userId) {
+        UserStorageStats stats = new UserStorageStats();
+        stats.setUserId(userId);
+        userStorageStatsRepository.save(stats);
+    }
+
+    @Transactional(readOnly = true)
+    public StorageStatsDTO getStats(Long userId) {
+        UserStorageStats stats = userStorageStatsRepository.findById(userId)
+                .orElseGet(() -> count(userId));
+        StorageStatsDTO dto = new StorageStatsDTO();
+        dto.setTotalBytes(stats.getTotalBytes());
+        dto.setImageCount(stats.getImageCount());
+        dto.setMaxBytes(storageQuotaConfig.getMaxBytes().toBytes() > 0 ? storageQuotaConfig.getMaxBytes().toBytes() : null);
+        dto.setMaxImages(storageQuotaConfig.getMaxImages() > 0 ? storageQuotaConfig.getMaxImages() : null);
+        dto.setContentTypes(stats.getContentTypes().entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey,
+                    entry -> new StorageUsageDTO(entry.getValue().getTotalBytes(), entry.getValue().getImageCount()),
+                    (a, b) -> a, TreeMap::new)));
+        return dto;
+    }
+
+    /**
+     * Recounts the user's images and overwrites the stats if they drifted. The stats row is
+     * locked first, so uploads in flight either finish before the count or wait for it.
+     * Returns whether anything had to be repaired.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reconcile(Long userId) {
+        UserStorageStats stats = userStorageStatsRepository.findByIdForUpdate(userId).orElse(null);
+        if (stats == null) {
+            userStorageStatsRepository.save(count(userId));
+            logger.warn("Created missing storage stats of user {}", userId);
+            return true;
+        }
+
+        UserStorageStats actual = count(userId);
+        stats.setReconciledAt(actual.getReconciledAt());
+        if (actual.getTotalBytes().equals(stats.getTotalBytes())
+                && actual.getImageCount().equals(stats.getImageCount())
+                && actual.getContentTypes().equals(stats.getContentTypes())) {
+            return false;
+        }
+        logger.warn("Repaired storage stats of user {}: {} bytes in {} images, counted {} bytes in {} images",
+            userId, stats.getTotalBytes(), stats.getImageCount(), actual.getTotalBytes(), actual.getImageCount());
+        stats.setTotalBytes(actual.getTotalBytes());
+        stats.setImageCount(actual.getImageCount());
+        stats.getContentTypes().clear();
+        stats.getContentTypes().putAll(actual.getContentTypes());
+        return true;
+    }
+
+    private void apply(Long userId, Map<String, StorageUsage> changes) {
+        long bytes = changes.values().stream().mapToLong(StorageUsage::getTotalBytes).sum();
+        long count = changes.values().stream().mapToLong(StorageUsage::getImageCount).sum();
+
+        // Updating the totals row first locks it, which serializes the rest for this user
+        if (!addWithinQuota(userId, bytes, count)) {
+            if (!userStorageStatsRepository.existsById(userId)) {
+                // Users created outside the API, or stats lost to manual edits, are counted here
+                userStorageStatsRepository.saveAndFlush(count(userId));
+            }
+            if (!addWithinQuota(userId, bytes, count)) {
+                UserStorageStats stats = userStorageStatsRepository.findById(userId).orElseThrow();
+                checkFits(stats.getTotalBytes(), stats.getImageCount(), bytes, count);
+                throw new StorageQuotaExceededException("Storage quota exceeded");
+            }
+        }
+
+        boolean emptied = false;
+        for (Map.Entry<String, StorageUsage> change : changes.entrySet()) {
+            long typeBytes = change.getValue().getTotalBytes();
+            long typeCount = change.getValue().getImageCount();
+            if (typeBytes == 0 && typeCount == 0) {
+                continue;
+            }
+            if (userStorageStatsRepository.addToContentType(userId, change.getKey(), typeBytes, typeCount) == 0) {
+                userStorageStatsRepository.insertContentType(userId, change.getKey(), typeBytes, typeCount);
+            }
+            emptied |= typeCount < 0;
+        }
+        if (emptied) {
+            userStorageStatsRepository.deleteEmptyContentTypes(userId);
+        }
+    }
+
+    private boolean addWithinQuota(Long userId, long bytes, long count) {
+        return userStorageStatsRepository.addWithinQuota(userId, bytes, count,
+            limit(storageQuotaConfig.getMaxBytes().toBytes()), limit(storageQuotaConfig.getMaxImages())) > 0;
+    }
+
+    private void checkFits(long totalBytes, long imageCount, long bytes, long count) {
+        long maxImages = storageQuotaConfig.getMaxImages();
+        if (count > 0 && maxImages > 0 && imageCount + count > maxImages) {
+            throw new StorageQuotaExceededException("Storage quota of " + maxImages + " images exceeded");
+        }
+        DataSize maxBytes = storageQuotaConfig.getMaxBytes();
+        if (bytes > 0 && maxBytes.toBytes() > 0 && totalBytes + bytes > maxBytes.toBytes()) {
+            throw new StorageQuotaExceededException("Storage quota of " + maxBytes + " exceeded: "
+                + totalBytes + " bytes used, " + bytes + " more requested");
+        }
+    }
+
+    /**
+     * Sums the user's images into new, unsaved stats.
+     */
+    private UserStorageStats count(Long userId) {
+        UserStorageStats stats = new UserStorageStats();
+        stats.setUserId(userId);
+        Map<String, StorageUsage> contentTypes = new HashMap<>();
+        long totalBytes = 0;
+        long imageCount = 0;
+        for (ContentTypeUsage usage : imageRepository.sumStorageByContentType(userId)) {
+            contentTypes.put(usage.contentType(), new StorageUsage(usage.totalBytes(), usage.imageCount()));
+            totalBytes += usage.totalBytes();
+            imageCount += usage.imageCount();
+        }
+        stats.setTotalBytes(totalBytes);
+        stats.setImageCount(imageCount);
+        stats.setContentTypes(contentTypes);
+        stats.setReconciledAt(LocalDateTime.now());
+        return stats;
+    }
+
+    private static void add(Map<String, StorageUsage> changes, String contentType, long bytes, long count) {
+        StorageUsage usage = changes.computeIfAbsent(contentType, type -> new StorageUsage(0L, 0L));
+        usage.setTotalBytes(usage.getTotalBytes() + bytes);
+        usage.setImageCount(usage.getImageCount() + count);
+    }
+
+    // 0 disables a limit
+    private static long limit(long max) {
+        return max > 0 ? max : Long.MAX_VALUE;
+    }
+}
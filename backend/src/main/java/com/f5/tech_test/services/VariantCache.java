@@ -0,0 +1,169 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageResizeConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Two-level cache of rendered variants: a byte-bounded in-memory LRU for hot entries
+ * in front of a byte-bounded LRU directory on disk. Disk hits are promoted to memory.
+ */
+@Component
+public class VariantCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VariantCache.class);
+
+    private final long memoryMaxBytes;
+    private final long diskMaxBytes;
+    private final Path diskLocation;
+
+    // Both maps are kept in access order, so the first entry is the least recently used
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    public VariantCache(ImageResizeConfig imageResizeConfig) {
+        this.memoryMaxBytes = imageResizeConfig.getMemoryCacheMaxSize().toBytes();
+        this.diskMaxBytes = imageResizeConfig.getDiskCacheMaxSize().toBytes();
+        this.diskLocation = Paths.get(imageResizeConfig.getDiskCacheDir()).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.diskLocation);
+            loadDiskIndex();
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not initialise the variant cache directory.", ex);
+        }
+    }
+
+    public Optional<byte[]> get(String key) {
+        synchronized (memory) {
+            byte[] content = memory.get(key);
+            if (content != null) {
+                return Optional.of(content);
+            }
+        }
+
+        Path file = diskLocation.resolve(key);
+        synchronized (disk) {
+            if (disk.get(key) == null) {
+                return Optional.empty();
+            }
+        }
+        try {
+            byte[] content = Files.readAllBytes(file);
+            // Keep the on-disk recency across restarts
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            putInMemory(key, content);
+            return Optional.of(content);
+        } catch (IOException e) {
+            synchronized (disk) {
+                Long size = disk.remove(key);
+                diskBytes -= size == null ? 0 : size;
+            }
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, byte[] content) {
+        putInMemory(key, content);
+        putOnDisk(key, content);
+    }
+
+    private void putInMemory(String key, byte[] content) {
+        if (content.length > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, content);
+            memoryBytes += content.length - (previous == null ? 0 : previous.length);
+
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void putOnDisk(String key, byte[] content) {
+        if (content.length > diskMaxBytes) {
+            return;
+        }
+        try {
+            // Write next to the target and move, so readers never see a partial file
+            Path temp = Files.createTempFile(diskLocation, ".incoming-", ".tmp");
+            Files.write(temp, content);
+            Files.move(temp, diskLocation.resolve(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not write variant {} to the disk cache", key, e);
+            return;
+        }
+
+        synchronized (disk) {
+            Long previous = disk.put(key, (long) content.length);
+            diskBytes += content.length - (previous == null ? 0 : previous);
+
+            Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+            while (diskBytes > diskMaxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                diskBytes -= entry.getValue();
+                eldest.remove();
+                deleteQuietly(diskLocation.resolve(entry.getKey()));
+            }
+        }
+    }
+
+    private void loadDiskIndex() throws IOException {
+        try (Stream<Path> files = Files.list(diskLocation)) {
+            files.filter(Files::isRegularFile)
+                .sorted(Comparator.comparing(this::lastModified))
+                .forEach(file -> {
+                    String name = file.getFileName().toString();
+                    if (name.startsWith(".incoming-")) {
+                        deleteQuietly(file);
+                        return;
+                    }
+                    try {
+                        long size = Files.size(file);
+                        disk.put(name, size);
+                        diskBytes += size;
+                    } catch (IOException e) {
+                        deleteQuietly(file);
+                    }
+                });
+        }
+    }
+
+    private FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.debug("Could not delete cached variant {}", file, e);
+        }
+    }
+}
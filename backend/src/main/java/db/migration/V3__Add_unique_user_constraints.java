@@ -0,0 +1,54 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Login and registration look users up by username and email; both must be unique.
+ * The last release already declared them unique, so Hibernate created the constraints
+ * under names it generated. A constraint is therefore only added where the column has no
+ * unique constraint of its own yet, whatever it is called, instead of a second index.
+ */
+public class V3__Add_unique_user_constraints extends BaseJavaMigration {
+
+    // Single-column unique constraints on a column of a table in the current schema
+    private static final String UNIQUE_CONSTRAINTS =
+        "select tc.constraint_name"
+        + " from information_schema.table_constraints tc"
+        + " join information_schema.key_column_usage kcu"
+        + "   on kcu.constraint_schema = tc.constraint_schema and kcu.constraint_name = tc.constraint_name"
+        + " where tc.constraint_type = 'UNIQUE'"
+        + "   and tc.table_schema = current_schema"
+        + "   and lower(tc.table_name) = ?"
+        + " group by tc.constraint_name"
+        + " having count(*) = 1 and lower(max(kcu.column_name)) = ?";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connection = context.getConnection();
+        addUniqueConstraint(connection, "users", "username", "uk_users_username");
+        addUniqueConstraint(connection, "users", "email", "uk_users_email");
+    }
+
+    private void addUniqueConstraint(Connection connection, String table, String column, String name)
+            throws SQLException {
+        try (PreparedStatement query = connection.prepareStatement(UNIQUE_CONSTRAINTS)) {
+            query.setString(1, table);
+            query.setString(2, column);
+            try (ResultSet existing = query.executeQuery()) {
+                if (existing.next()) {
+                    return;
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table " + table + " add constraint " + name + " unique (" + column + ")");
+        }
+    }
+}
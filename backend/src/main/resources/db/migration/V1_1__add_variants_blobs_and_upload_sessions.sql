@@ -0,0 +1,45 @@
+-- Content hashes, placeholders and optimization dates on images, resized variants,
+-- deduplicated blobs and resumable upload sessions, all added after the last release.
+-- Databases baselined at V1 get them here.
+
+alter table images add column content_hash varchar(64);
+alter table images add column placeholder varchar(200);
+alter table images add column optimized_date timestamp(6);
+
+create table image_variants (
+    id bigint generated by default as identity,
+    image_id bigint not null,
+    name varchar(32) not null,
+    filename varchar(255) not null,
+    width integer not null,
+    height integer not null,
+    file_size bigint not null,
+    content_hash varchar(64),
+    created_at timestamp(6) not null,
+    primary key (id),
+    constraint fk_image_variants_image foreign key (image_id) references images (id)
+);
+
+create table stored_blobs (
+    filename varchar(80) not null,
+    content_hash varchar(64) not null,
+    size bigint not null,
+    reference_count integer not null,
+    created_at timestamp(6) not null,
+    primary key (filename)
+);
+
+create table upload_sessions (
+    id varchar(36) not null,
+    user_id bigint not null,
+    original_filename varchar(255) not null,
+    content_type varchar(255) not null,
+    length bigint not null,
+    upload_offset bigint not null,
+    title varchar(255),
+    description varchar(255),
+    created_at timestamp(6) not null,
+    last_modified_date timestamp(6) not null,
+    primary key (id),
+    constraint fk_upload_sessions_user foreign key (user_id) references users (id)
+);
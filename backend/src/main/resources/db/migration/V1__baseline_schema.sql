@@ -0,0 +1,32 @@
+-- Schema of the last release, as created there by spring.jpa.hibernate.ddl-auto=update.
+-- Databases created that way are baselined at this version and skip it, so everything
+-- added since belongs in a later migration.
+
+create table users (
+    id bigint generated by default as identity,
+    username varchar(50) not null,
+    password varchar(100) not null,
+    email varchar(255) not null,
+    created_at timestamp(6) not null,
+    last_login timestamp(6),
+    primary key (id),
+    constraint uk_users_username unique (username),
+    constraint uk_users_email unique (email)
+);
+
+create table images (
+    id bigint generated by default as identity,
+    user_id bigint not null,
+    filename varchar(255) not null,
+    original_filename varchar(255) not null,
+    content_type varchar(255) not null,
+    file_size bigint not null,
+    width integer,
+    height integer,
+    title varchar(255),
+    description varchar(255),
+    upload_date timestamp(6) not null,
+    last_modified_date timestamp(6),
+    primary key (id),
+    constraint fk_images_user foreign key (user_id) references users (id)
+);
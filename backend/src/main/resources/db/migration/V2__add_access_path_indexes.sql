@@ -0,0 +1,16 @@
+-- Listing a user's images: one index per sort order of GET /api/images. The id suffix
+-- matches the keyset tie-breaker, so pages are read straight off the index in order.
+create index if not exists idx_images_user_upload_date on images (user_id, upload_date, id);
+create index if not exists idx_images_user_file_size on images (user_id, file_size, id);
+create index if not exists idx_images_user_title on images (user_id, title, id);
+
+-- Variants of a page of images, smallest first
+create index if not exists idx_image_variants_image_width on image_variants (image_id, width);
+
+-- ETag lookups by stored filename
+create index if not exists idx_images_filename on images (filename);
+create index if not exists idx_image_variants_filename on image_variants (filename);
+
+-- Resumable sessions: ownership checks and the expiry sweep
+create index if not exists idx_upload_sessions_user on upload_sessions (user_id);
+create index if not exists idx_upload_sessions_last_modified on upload_sessions (last_modified_date);
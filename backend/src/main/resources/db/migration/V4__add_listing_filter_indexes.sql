@@ -0,0 +1,11 @@
+-- Filters on GET /api/images. The sort indexes from V2 serve filters that match most images:
+-- pages are read in order and stop once full. These cover selective filters, which would
+-- otherwise walk a large part of the user's images to fill a page.
+
+-- contentType with the default sort: an equality prefix followed by the sort key, still in order
+create index if not exists idx_images_user_content_type_upload_date on images (user_id, content_type, upload_date, id);
+
+-- Dimension ranges. The other dimension is included so orientation and the opposite bound
+-- are checked on the index entry before the row is read.
+create index if not exists idx_images_user_width on images (user_id, width, height);
+create index if not exists idx_images_user_height on images (user_id, height, width);
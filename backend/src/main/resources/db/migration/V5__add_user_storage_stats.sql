@@ -0,0 +1,31 @@
+-- Storage used per user, kept up to date by every write to images so quotas are checked
+-- without summing the user's images. Both tables are filled from images here; afterwards
+-- drift is repaired by the reconciliation job. Stats go with their user.
+
+create table user_storage_stats (
+    user_id bigint not null,
+    total_bytes bigint not null,
+    image_count bigint not null,
+    reconciled_at timestamp(6),
+    primary key (user_id),
+    constraint fk_user_storage_stats_user foreign key (user_id) references users (id) on delete cascade
+);
+
+create table user_storage_type_stats (
+    user_id bigint not null,
+    content_type varchar(255) not null,
+    total_bytes bigint not null,
+    image_count bigint not null,
+    primary key (user_id, content_type),
+    constraint fk_user_storage_type_stats_user foreign key (user_id) references user_storage_stats (user_id) on delete cascade
+);
+
+insert into user_storage_stats (user_id, total_bytes, image_count)
+select u.id, coalesce(sum(i.file_size), 0), count(i.id)
+from users u left join images i on i.user_id = u.id
+group by u.id;
+
+insert into user_storage_type_stats (user_id, content_type, total_bytes, image_count)
+select user_id, content_type, sum(file_size), count(*)
+from images
+group by user_id, content_type;
@@ -0,0 +1,9 @@
+-- Written to the primary by ReplicaLagMonitor and read back from the replica; how far the
+-- replica's copy trails the last value written is its replication lag.
+create table replication_heartbeat (
+    id integer not null,
+    beat_at timestamp(6) not null,
+    primary key (id)
+);
+
+insert into replication_heartbeat (id, beat_at) values (1, current_timestamp);
@@ -0,0 +1,20 @@
+-- Ids come from sequences instead of identity columns, so Hibernate knows an entity's id
+-- before inserting it and can send many inserts as one JDBC batch. Each call to a sequence
+-- hands out a block of 50 ids (allocationSize on the entities must match the increment).
+-- The sequences start past the existing rows, and the columns default to them so inserts
+-- written in plain SQL still get ids that do not collide with Hibernate's blocks.
+
+create sequence users_seq start with 50 increment by 50;
+alter sequence users_seq restart with (select coalesce(max(id), 0) + 50 from users);
+alter table users alter column id drop identity;
+alter table users alter column id set default next value for users_seq;
+
+create sequence images_seq start with 50 increment by 50;
+alter sequence images_seq restart with (select coalesce(max(id), 0) + 50 from images);
+alter table images alter column id drop identity;
+alter table images alter column id set default next value for images_seq;
+
+create sequence image_variants_seq start with 50 increment by 50;
+alter sequence image_variants_seq restart with (select coalesce(max(id), 0) + 50 from image_variants);
+alter table image_variants alter column id drop identity;
+alter table image_variants alter column id set default next value for image_variants_seq;
@@ -0,0 +1,115 @@
+package com.f5.tech_test.benchmarks;
+
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.repositories.UserRepository;
+import com.f5.tech_test.services.JwtService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMultipartHttpServletRequestBuilder;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Imports an album of {@value #FILES} photos through one request per file and through a single
+ * batch request, including JWT authentication, the user lookup and the database inserts.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    // Keep background variant generation from competing for the CPU being measured
+    "image.variants.sizes=100000",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.f5.tech_test=INFO"
+})
+@AutoConfigureMockMvc
+class BatchUploadBenchmark {
+
+    private static final int FILES = 100;
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload-dir", () -> tempDir.toString());
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private String token;
+    private List<MockMultipartFile> album;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (userRepository.findByUsername("benchmark").isEmpty()) {
+            User user = new User();
+            user.setUsername("benchmark");
+            user.setEmail("benchmark@example.com");
+            user.setPassword(passwordEncoder.encode("password123"));
+            userRepository.save(user);
+        }
+        token = "Bearer " + jwtService.generateToken(userDetailsService.loadUserByUsername("benchmark"));
+
+        album = new ArrayList<>();
+        for (int i = 0; i < FILES; i++) {
+            BufferedImage image = new BufferedImage(1280, 960, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(i, i, 0xFFFFFF);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, "jpg", out);
+            album.add(new MockMultipartFile("image", "photo-" + i + ".jpg", MediaType.IMAGE_JPEG_VALUE, out.toByteArray()));
+        }
+    }
+
+    @Test
+    void album_OneRequestPerFileVersusBatch() throws Exception {
+        BenchmarkSupport.Result single = BenchmarkSupport.measure(FILES + " x POST /api/images", 1, 3, () -> {
+            for (MockMultipartFile file : album) {
+                mockMvc.perform(multipart("/api/images").file(file).header("Authorization", token))
+                    .andExpect(status().isOk());
+            }
+            return null;
+        });
+
+        BenchmarkSupport.Result batch = BenchmarkSupport.measure("POST /api/images/batch (" + FILES + ")", 1, 3, () -> {
+            MockMultipartHttpServletRequestBuilder request = multipart("/api/images/batch");
+            album.forEach(request::file);
+            return mockMvc.perform(request.header("Authorization", token)).andExpect(status().isOk());
+        });
+
+        System.out.printf("batch speed-up: %.1fx%n", single.nanosPerOp() / batch.nanosPerOp());
+        assertTrue(batch.nanosPerOp() < single.nanosPerOp());
+    }
+}
@@ -0,0 +1,87 @@
+package com.f5.tech_test.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Minimal timing harness for the tests tagged {@code benchmark}, run with {@code ./gradlew benchmark}.
+ * Reports wall time and bytes allocated by the calling thread per operation.
+ */
+final class BenchmarkSupport {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkSupport() {
+    }
+
+    static Result measure(String name, int warmup, int iterations, Callable<?> operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.call();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.call();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        Result result = new Result(name, elapsed / (double) iterations, allocated / (double) iterations);
+        System.out.println(result);
+        return result;
+    }
+
+    /**
+     * Measures several operations by running each once per round, in turn, so that JIT warm-up
+     * and other drift during the run weigh on all of them alike. Results follow the map's order.
+     */
+    static List<Result> measureInTurn(int warmup, int iterations, Map<String, Callable<?>> operations)
+            throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            for (Callable<?> operation : operations.values()) {
+                operation.call();
+            }
+        }
+
+        long threadId = Thread.currentThread().getId();
+        List<Callable<?>> calls = new ArrayList<>(operations.values());
+        long[] elapsed = new long[calls.size()];
+        long[] allocated = new long[calls.size()];
+        for (int i = 0; i < iterations; i++) {
+            for (int op = 0; op < calls.size(); op++) {
+                long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+                long start = System.nanoTime();
+                calls.get(op).call();
+                elapsed[op] += System.nanoTime() - start;
+                allocated[op] += THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        int op = 0;
+        for (String name : operations.keySet()) {
+            Result result = new Result(name, elapsed[op] / (double) iterations, allocated[op] / (double) iterations);
+            System.out.println(result);
+            results.add(result);
+            op++;
+        }
+        return results;
+    }
+
+    record Result(String name, double nanosPerOp, double bytesPerOp) {
+        double millisPerOp() {
+            return nanosPerOp / 1_000_000d;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-40s %12.3f ms/op %14.0f B/op", name, millisPerOp(), bytesPerOp);
+        }
+    }
+}
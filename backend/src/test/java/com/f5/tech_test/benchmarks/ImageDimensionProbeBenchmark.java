@@ -0,0 +1,59 @@
+package com.f5.tech_test.benchmarks;
+
+import com.f5.tech_test.services.ImageDimensionProbe;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("benchmark")
+class ImageDimensionProbeBenchmark {
+
+    // 24 MP, the size of a typical phone photo
+    private static final int WIDTH = 6000;
+    private static final int HEIGHT = 4000;
+
+    private static byte[] jpeg;
+    private static byte[] png;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        jpeg = encode(image, "jpg");
+        png = encode(image, "png");
+    }
+
+    @Test
+    void jpeg_HeaderProbeVersusFullDecode() throws Exception {
+        compare("jpeg", jpeg);
+    }
+
+    @Test
+    void png_HeaderProbeVersusFullDecode() throws Exception {
+        compare("png", png);
+    }
+
+    private void compare(String format, byte[] content) throws Exception {
+        ImageDimensionProbe probe = new ImageDimensionProbe();
+
+        BenchmarkSupport.Result decode = BenchmarkSupport.measure(format + " ImageIO.read", 2, 5,
+            () -> ImageIO.read(new ByteArrayInputStream(content)).getWidth());
+        BenchmarkSupport.Result header = BenchmarkSupport.measure(format + " ImageDimensionProbe", 1_000, 10_000,
+            () -> probe.probe(new ByteArrayInputStream(content)).orElseThrow().width());
+
+        assertTrue(header.nanosPerOp() < decode.nanosPerOp());
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,149 @@
+package com.f5.tech_test.benchmarks;
+
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.h2.tools.Server;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Imports {@value #ROWS} images in one transaction, flushing every {@value #CHUNK} rows, once
+ * sending one insert statement per row (what identity ids forced on Hibernate) and once with
+ * the configured JDBC batching over pooled sequence ids. Reports inserts per second.
+ * <p>
+ * The database is H2 behind its TCP server on localhost rather than embedded, so every
+ * statement is a round-trip as it would be to a database server. The two variants take
+ * turns, so the long JIT warm-up of the insert path favours neither.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    // Keep the background jobs from picking up the imported rows while they are being measured
+    "image.placeholder.backfill.enabled=false",
+    "storage.reconcile.enabled=false",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.f5.tech_test=INFO"
+})
+class ImageInsertBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int CHUNK = 500;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 5;
+
+    private static Server server;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        registry.add("spring.datasource.url",
+            () -> "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:image-inserts;DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop();
+    }
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long userId;
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByUsername("importer").orElseGet(() -> {
+            User created = new User();
+            created.setUsername("importer");
+            created.setEmail("importer@example.com");
+            created.setPassword("password123");
+            return userRepository.save(created);
+        }).getId();
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void import_RowByRowVersusBatched() throws Exception {
+        Map<String, Callable<?>> imports = new LinkedHashMap<>();
+        imports.put("row by row: import " + ROWS, () -> importImages(1));
+        imports.put("batched: import " + ROWS, () -> importImages(null));
+
+        List<BenchmarkSupport.Result> results = BenchmarkSupport.measureInTurn(WARMUP, ITERATIONS, imports);
+        BenchmarkSupport.Result rowByRow = results.get(0);
+        BenchmarkSupport.Result batched = results.get(1);
+
+        System.out.printf("inserts per second: row by row %.0f, batched %.0f (%.1fx)%n",
+            insertsPerSecond(rowByRow), insertsPerSecond(batched), rowByRow.nanosPerOp() / batched.nanosPerOp());
+        assertEquals(2L * (WARMUP + ITERATIONS) * ROWS, imageRepository.count());
+        assertTrue(batched.nanosPerOp() < rowByRow.nanosPerOp());
+    }
+
+    // A null batch size keeps hibernate.jdbc.batch_size from the configuration
+    private int importImages(Integer jdbcBatchSize) {
+        return transaction.execute(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            User owner = entityManager.getReference(User.class, userId);
+            List<Image> chunk = new ArrayList<>(CHUNK);
+            for (int i = 0; i < ROWS; i++) {
+                chunk.add(image(owner, i));
+                if (chunk.size() == CHUNK) {
+                    imageRepository.saveAll(chunk);
+                    entityManager.flush();
+                    entityManager.clear();
+                    owner = entityManager.getReference(User.class, userId);
+                    chunk.clear();
+                }
+            }
+            return ROWS;
+        });
+    }
+
+    private Image image(User owner, int i) {
+        Image image = new Image();
+        image.setFilename("import-" + i + ".jpg");
+        image.setOriginalFilename("photo-" + i + ".jpg");
+        image.setContentType("image/jpeg");
+        image.setFileSize(100_000L + i);
+        image.setWidth(1920);
+        image.setHeight(1080);
+        image.setTitle("Photo " + i);
+        image.setUser(owner);
+        return image;
+    }
+
+    private double insertsPerSecond(BenchmarkSupport.Result result) {
+        return ROWS / (result.nanosPerOp() / 1_000_000_000d);
+    }
+}
@@ -0,0 +1,204 @@
+package com.f5.tech_test.benchmarks;
+
+import com.f5.tech_test.config.FileStorageConfig;
+import com.f5.tech_test.dto.ImageDTO;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.ImageVariant;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.mappers.ImageMapper;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.UserRepository;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImagePage;
+import com.f5.tech_test.services.ImageService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lists a page of {@value #PAGE_SIZE} images, each with three variants, and fetches single
+ * images by id: once the way the read paths used to work (entities hydrated into the
+ * persistence context and copied by the mapper, ownership checked in Java) and once through
+ * the projections. Reports statements and allocation per operation.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.f5.tech_test=INFO",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class ImageListingBenchmark {
+
+    private static final int IMAGES = 500;
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    @Autowired
+    private ImageMapper imageMapper;
+
+    @Autowired
+    private FileStorageConfig fileStorageConfig;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User user;
+    private Long someImageId;
+    private TransactionTemplate readOnly;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("listing").orElseGet(() -> {
+            User created = new User();
+            created.setUsername("listing");
+            created.setEmail("listing@example.com");
+            created.setPassword("password123");
+            return userRepository.save(created);
+        });
+
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        if (imageRepository.count() == 0) {
+            List<Image> images = new ArrayList<>();
+            for (int i = 0; i < IMAGES; i++) {
+                Image image = new Image();
+                image.setFilename("image-" + i + ".jpg");
+                image.setOriginalFilename("photo-" + i + ".jpg");
+                image.setContentType("image/jpeg");
+                image.setFileSize(100_000L + i);
+                image.setWidth(1920);
+                image.setHeight(1080);
+                image.setTitle("Photo " + i);
+                image.setDescription("Description of photo " + i);
+                image.setUser(user);
+                for (int size : new int[] {150, 480, 1080}) {
+                    ImageVariant variant = new ImageVariant();
+                    variant.setName(String.valueOf(size));
+                    variant.setFilename(size + "-" + i + ".jpg");
+                    variant.setWidth(size);
+                    variant.setHeight(size * 9 / 16);
+                    variant.setFileSize((long) size * 10);
+                    variant.setImage(image);
+                    image.getVariants().add(variant);
+                }
+                images.add(image);
+            }
+            imageRepository.saveAll(images);
+        }
+        someImageId = imageRepository.findAll().get(IMAGES / 2).getId();
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("listing");
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void listPage_EntitiesVersusProjection() throws Exception {
+        Measurement entities = measure("entities: list page of " + PAGE_SIZE, () -> readOnly.execute(status -> {
+            User owner = userRepository.findByUsername("listing").orElseThrow();
+            return entityManager.createQuery(
+                    "select i from Image i where i.user = :user order by i.uploadDate desc, i.id desc", Image.class)
+                .setParameter("user", owner)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList()
+                .stream()
+                .map(image -> imageMapper.toDTO(image, fileStorageConfig.getBaseUrl()))
+                .toList();
+        }));
+        Measurement projection = measure("projection: list page of " + PAGE_SIZE, () -> {
+            ImagePage page = imageService.getImages(null, PAGE_SIZE, null, ImageFilter.NONE);
+            assertEquals(PAGE_SIZE, page.images().size());
+            assertEquals(3, page.images().get(0).getVariants().size());
+            return page;
+        });
+
+        report(entities, projection);
+        assertTrue(projection.result().bytesPerOp() < entities.result().bytesPerOp());
+    }
+
+    @Test
+    void getById_EntitiesVersusProjection() throws Exception {
+        Measurement entities = measure("entities: get by id", () -> readOnly.execute(status -> {
+            User owner = userRepository.findByUsername("listing").orElseThrow();
+            Image image = imageRepository.findById(someImageId).orElseThrow();
+            if (!image.getUser().getId().equals(owner.getId())) {
+                throw new IllegalStateException("You can only access your own images");
+            }
+            return imageMapper.toDTO(image, fileStorageConfig.getBaseUrl());
+        }));
+        Measurement projection = measure("projection: get by id", () -> {
+            ImageDTO image = imageService.getImageById(someImageId);
+            assertEquals(3, image.getVariants().size());
+            return image;
+        });
+
+        report(entities, projection);
+    }
+
+    private Measurement measure(String name, Callable<?> operation) throws Exception {
+        // Statement count of a single cold call; the timing loop below repeats it
+        statistics.clear();
+        operation.call();
+        long statements = statistics.getPrepareStatementCount();
+
+        return new Measurement(BenchmarkSupport.measure(name, 20, 200, operation), statements);
+    }
+
+    private void report(Measurement entities, Measurement projection) {
+        System.out.printf("statements per call: entities %d, projection %d%n",
+            entities.statements(), projection.statements());
+        System.out.printf("projection allocation %+.0f%%, %.1fx the speed%n",
+            100 * (projection.result().bytesPerOp() / entities.result().bytesPerOp() - 1),
+            entities.result().nanosPerOp() / projection.result().nanosPerOp());
+    }
+
+    private record Measurement(BenchmarkSupport.Result result, long statements) {
+    }
+}
@@ -0,0 +1,104 @@
+package com.f5.tech_test.benchmarks;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Downloads a {@value #FILE_MB}MB file over a real connection from the dedicated handler and from
+ * the {@code ResourceHttpRequestHandler} that used to serve {@code /uploads/**}, which is mounted
+ * again under {@code /uploads/legacy/} for the comparison. Reports throughput and server CPU per request.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.jpa.show-sql=false",
+    "logging.level.com.f5.tech_test=INFO"
+})
+class ImageServingBenchmark {
+
+    private static final int FILE_MB = 64;
+    private static final String FILENAME = "large.jpg";
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("file.upload-dir", () -> tempDir.toString());
+    }
+
+    @TestConfiguration
+    static class LegacyResourceHandler implements WebMvcConfigurer {
+        @Override
+        public void addResourceHandlers(ResourceHandlerRegistry registry) {
+            registry.addResourceHandler("/uploads/legacy/**")
+                .addResourceLocations("file:" + tempDir + "/");
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @BeforeAll
+    static void createFile() throws Exception {
+        byte[] content = new byte[FILE_MB * 1024 * 1024];
+        new Random(42).nextBytes(content);
+        Files.write(tempDir.resolve(FILENAME), content);
+    }
+
+    @Test
+    void largeFile_ZeroCopyVersusResourceHandler() throws Exception {
+        Throughput legacy = measure("ResourceHttpRequestHandler", "/uploads/legacy/" + FILENAME);
+        Throughput zeroCopy = measure("ImageFileServer", "/uploads/" + FILENAME);
+
+        System.out.printf("throughput: %.1fx, server CPU per request: %.1fx less%n",
+            zeroCopy.mbPerSecond() / legacy.mbPerSecond(), legacy.cpuMillisPerOp() / zeroCopy.cpuMillisPerOp());
+    }
+
+    private Throughput measure(String name, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).build();
+        long cpuBefore = processCpuNanos();
+        BenchmarkSupport.Result result = BenchmarkSupport.measure(name, 3, 20, () -> {
+            HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, response.statusCode());
+            try (InputStream body = response.body()) {
+                return body.transferTo(OutputStream.nullOutputStream());
+            }
+        });
+        // Client and server share the process; the client's share is the same for both handlers
+        double cpuMillisPerOp = (processCpuNanos() - cpuBefore) / 23 / 1_000_000.0;
+        double mbPerSecond = FILE_MB / (result.millisPerOp() / 1000.0);
+        System.out.printf("%-28s %8.1f MB/s %8.1f ms CPU/request%n", name, mbPerSecond, cpuMillisPerOp);
+        return new Throughput(mbPerSecond, cpuMillisPerOp);
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private record Throughput(double mbPerSecond, double cpuMillisPerOp) {
+    }
+}
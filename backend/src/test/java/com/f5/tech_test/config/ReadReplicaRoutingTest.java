@@ -0,0 +1,315 @@
+package com.f5.tech_test.config;
+
+import com.f5.tech_test.dto.CreateUploadRequest;
+import com.f5.tech_test.dto.ImageDTO;
+import com.f5.tech_test.entities.UploadSession;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.repositories.SearchDocument;
+import com.f5.tech_test.repositories.UserRepository;
+import com.f5.tech_test.services.ImageSearchIndex;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImageService;
+import com.f5.tech_test.services.ResumableUploadService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory H2 databases stand in for the primary and the replica. Nothing replicates
+ * between them, so a row written to only one of them shows which one a transaction used.
+ */
+@SpringBootTest(properties = {
+    "datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};DB_CLOSE_DELAY=-1",
+    "datasource.replica.migrate=true",
+    "datasource.replica.max-lag=PT5S",
+    // The tests run the checks themselves
+    "datasource.replica.initial-delay=PT1H",
+    "datasource.replica.check-interval=PT1H"
+})
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ImageSearchIndex imageSearchIndex;
+
+    @Autowired
+    private ResumableUploadService resumableUploadService;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+        replicaCatchesUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        imageSearchIndex.clear();
+        primary.update("delete from upload_sessions");
+        primary.update("delete from image_variants");
+        primary.update("delete from images");
+        primary.update("delete from users");
+        replica.update("delete from users");
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReadFromReplica() {
+        // Arrange
+        insertUser(replica, "replicated");
+
+        // Act & Assert
+        assertTrue(finds(readOnly, "replicated"));
+        assertFalse(finds(readWrite, "replicated"));
+    }
+
+    @Test
+    void readWriteTransaction_ShouldWriteToPrimary() {
+        // Act
+        readWrite.executeWithoutResult(status -> userRepository.save(user("written")));
+
+        // Assert
+        assertEquals(1, count(primary, "written"));
+        assertEquals(0, count(replica, "written"));
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldNotCacheWhatItReadsFromReplica() {
+        // Arrange
+        insertUser(replica, "replicated");
+        assertTrue(finds(readOnly, "replicated"));
+
+        // Act
+        replica.update("delete from users where username = ?", "replicated");
+
+        // Assert
+        assertFalse(finds(readOnly, "replicated"), "the replica's copy was not kept in the second-level cache");
+    }
+
+    @Test
+    void laggingReplica_ShouldFallBackToPrimaryUntilCaughtUp() {
+        // Arrange
+        insertUser(replica, "replicated");
+        lastHeartbeatWrittenAgo(Duration.ofSeconds(10));
+        replica.update("update replication_heartbeat set beat_at = ? where id = 1", LocalDateTime.now().minusMinutes(1));
+        double fallbacks = meterRegistry.counter("datasource.routing.fallbacks").count();
+
+        // Act
+        replicaLagMonitor.check();
+
+        // Assert
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertTrue(replicaLagMonitor.getLag().compareTo(Duration.ofSeconds(10)) >= 0);
+        assertFalse(finds(readOnly, "replicated"));
+        assertTrue(meterRegistry.counter("datasource.routing.fallbacks").count() > fallbacks);
+
+        replicaCatchesUp();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        assertTrue(finds(readOnly, "replicated"));
+    }
+
+    @Test
+    void replicaReceivingEachHeartbeatAfterItsCheck_ShouldStayUsable() {
+        for (int i = 0; i < 3; i++) {
+            // Arrange: the previous check wrote its heartbeat longer ago than the allowed lag,
+            // and the replica received it only after that check had read the replica
+            lastHeartbeatWrittenAgo(Duration.ofSeconds(10));
+            replicate();
+
+            // Act
+            replicaLagMonitor.check();
+
+            // Assert
+            assertTrue(replicaLagMonitor.isReplicaUsable());
+            assertEquals(Duration.ZERO, replicaLagMonitor.getLag());
+        }
+    }
+
+    @Test
+    void searchImages_WithImageNotYetOnReplica_ShouldFindItOnPrimaryAndKeepItIndexed() {
+        // Arrange
+        long userId = 1_000_000L;
+        for (JdbcTemplate database : List.of(primary, replica)) {
+            database.update("insert into users (id, username, password, email, created_at) values (?, ?, ?, ?, ?)",
+                userId, "searcher", "password", "searcher@example.com", LocalDateTime.now());
+        }
+        primary.update("insert into images (id, user_id, filename, original_filename, content_type, file_size,"
+            + " title, upload_date) values (?, ?, ?, ?, ?, ?, ?, ?)",
+            userId, userId, "beach.jpg", "beach.jpg", "image/jpeg", 100L, "Beach", LocalDateTime.now());
+        imageSearchIndex.put(new SearchDocument(userId, userId, "Beach", null, "beach.jpg"));
+        authenticate("searcher");
+
+        // Act
+        List<ImageDTO> result = imageService.searchImages("beach", null);
+
+        // Assert
+        assertEquals(List.of(userId), result.stream().map(ImageDTO::getId).toList());
+        assertEquals(List.of(userId), imageSearchIndex.search(userId, "beach", 10));
+    }
+
+    @Test
+    void resumableUpload_WithSessionNotYetOnReplica_ShouldAcceptEachChunkInTurn() throws IOException {
+        // Arrange: the user and everything they write exist on the primary only, as within the allowed lag
+        insertUser(primary, "resumer");
+        authenticate("resumer");
+        byte[] content = jpeg();
+        int half = content.length / 2;
+        CreateUploadRequest request = new CreateUploadRequest();
+        request.setFilename("photo.jpg");
+        request.setContentType("image/jpeg");
+        request.setLength((long) content.length);
+
+        // Act
+        UploadSession session = resumableUploadService.createSession(request);
+        long afterFirst = resumableUploadService.appendChunk(session.getId(), 0, half,
+            new ByteArrayInputStream(Arrays.copyOf(content, half)));
+        long afterSecond = resumableUploadService.appendChunk(session.getId(), afterFirst, content.length - half,
+            new ByteArrayInputStream(Arrays.copyOfRange(content, half, content.length)));
+        UploadSession reported = resumableUploadService.getSession(session.getId());
+        ImageDTO image = resumableUploadService.complete(session.getId());
+
+        // Assert
+        assertEquals(0, count(replica, "resumer"));
+        assertEquals(content.length, afterSecond);
+        assertEquals(content.length, reported.getOffset().longValue());
+        assertEquals(image.getId(), imageService.getImageById(image.getId()).getId());
+    }
+
+    @Test
+    void getImages_RightAfterUpload_ShouldFindImageNotYetOnReplica() throws IOException {
+        // Arrange
+        insertUser(primary, "uploader");
+        authenticate("uploader");
+
+        // Act
+        ImageDTO uploaded = imageService.uploadImage(
+            new MockMultipartFile("image", "photo.jpg", "image/jpeg", jpeg()), "Photo", null);
+
+        // Assert
+        assertEquals(0, replica.queryForObject("select count(*) from images", Integer.class));
+        assertEquals("Photo", imageService.getImageById(uploaded.getId()).getTitle());
+        assertEquals(List.of(uploaded.getId()), imageService.getImages(null, null, null, ImageFilter.NONE)
+            .images().stream().map(ImageDTO::getId).toList());
+    }
+
+    @Test
+    void pools_ShouldReportMetricsSeparately() {
+        // Arrange
+        double replicaConnections = meterRegistry.counter("datasource.routing.connections", "pool", "replica").count();
+
+        // Act
+        readOnly.execute(status -> userRepository.count());
+
+        // Assert
+        assertTrue(meterRegistry.counter("datasource.routing.connections", "pool", "replica").count() > replicaConnections);
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "primary").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "replica").gauge());
+        assertEquals(1.0, meterRegistry.get("datasource.replica.usable").gauge().value());
+    }
+
+    private void replicaCatchesUp() {
+        replicate();
+        replicaLagMonitor.check();
+    }
+
+    // Copies the last heartbeat written to the primary, as replication would
+    private void replicate() {
+        LocalDateTime beat = primary.queryForObject("select beat_at from replication_heartbeat where id = 1",
+            LocalDateTime.class);
+        replica.update("update replication_heartbeat set beat_at = ? where id = 1", beat);
+    }
+
+    // As if the previous check had run that long ago
+    private void lastHeartbeatWrittenAgo(Duration age) {
+        primary.update("update replication_heartbeat set beat_at = ? where id = 1", LocalDateTime.now().minus(age));
+    }
+
+    private void authenticate(String username) {
+        UserDetails principal = org.springframework.security.core.userdetails.User
+            .withUsername(username).password("password").authorities(List.of()).build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    // Small enough that no variants are generated in the background
+    private byte[] jpeg() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(16, 12, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private boolean finds(TransactionTemplate transaction, String username) {
+        return Boolean.TRUE.equals(transaction.execute(status -> userRepository.findByUsername(username).isPresent()));
+    }
+
+    private void insertUser(JdbcTemplate database, String username) {
+        database.update("insert into users (username, password, email, created_at) values (?, ?, ?, ?)",
+            username, "password", username + "@example.com", LocalDateTime.now());
+    }
+
+    private int count(JdbcTemplate database, String username) {
+        return database.queryForObject("select count(*) from users where username = ?", Integer.class, username);
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -16,18 +16,32 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.mockito.quality.Strictness;
 import org.mockito.junit.jupiter.MockitoSettings;
 
+import com.f5.tech_test.services.ContactSheetService;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImageOrientation;
+import com.f5.tech_test.services.ImagePage;
 import com.f5.tech_test.services.ImageService;
 import com.f5.tech_test.controllers.ImageController;
 import com.f5.tech_test.exceptions.ImageNotFoundException;
 import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
+import com.f5.tech_test.dto.BatchUploadItemDTO;
+import com.f5.tech_test.dto.ContactSheetDTO;
+import com.f5.tech_test.dto.SheetTileDTO;
 import com.f5.tech_test.dto.ImageDTO;
 import com.f5.tech_test.entities.User;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -39,6 +53,9 @@ class ImageControllerTest {
     @Mock
     private ImageService imageService;
 
+    @Mock
+    private ContactSheetService contactSheetService;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -108,6 +125,114 @@ class ImageControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void uploadImages_WithSeveralFiles_ShouldReturnResultPerFile() throws Exception {
+        // Arrange
+        setupSecurityContext();
+        MockMultipartFile secondImage = new MockMultipartFile("image", "second.txt", MediaType.TEXT_PLAIN_VALUE, "x".getBytes());
+        ImageDTO storedDTO = new ImageDTO();
+        storedDTO.setId(1L);
+        when(imageService.uploadImages(any())).thenReturn(List.of(
+            BatchUploadItemDTO.success("test.jpg", storedDTO),
+            BatchUploadItemDTO.failure("second.txt", "Invalid file type")));
+
+        // Act & Assert
+        mockMvc.perform(multipart("/api/images/batch")
+                .file(validImage)
+                .file(secondImage))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].image.id").value(1))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].error").value("Invalid file type"));
+        verify(imageService).uploadImages(argThat(files -> files.size() == 2));
+    }
+
+    @Test
+    void getContactSheet_ShouldReturnSpriteAndAtlas() throws Exception {
+        // Arrange
+        setupSecurityContext();
+        ContactSheetDTO sheet = new ContactSheetDTO();
+        sheet.setNextCursor("next");
+        sheet.setImage("data:image/jpeg;base64,AAAA");
+        sheet.getTiles().put(7L, new SheetTileDTO(150, 0, 150, 100));
+        when(contactSheetService.getSheet("size", "abc")).thenReturn(sheet);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/images/sheet").param("sort", "size").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.image").value("data:image/jpeg;base64,AAAA"))
+                .andExpect(jsonPath("$.tiles.7.x").value(150))
+                .andExpect(jsonPath("$.tiles.7.height").value(100));
+    }
+
+    @Test
+    void searchImages_ShouldReturnMatches() throws Exception {
+        // Arrange
+        setupSecurityContext();
+        ImageDTO match = new ImageDTO();
+        match.setId(3L);
+        match.setTitle("Beach day");
+        when(imageService.searchImages("bea", 5)).thenReturn(List.of(match));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/images/search").param("q", "bea").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].title").value("Beach day"));
+    }
+
+    @Test
+    void uploadImageStream_WithHeaders_ShouldPassDecodedMetadata() throws Exception {
+        // Arrange
+        setupSecurityContext();
+        ImageDTO expectedDTO = new ImageDTO();
+        expectedDTO.setId(1L);
+        when(imageService.uploadImageStream(any(), eq(18L), eq("playa.jpg"), eq("image/jpeg"), eq("Día de playa"), isNull()))
+            .thenReturn(expectedDTO);
+
+        // Act & Assert
+        mockMvc.perform(put("/api/images/stream")
+                .contentType(MediaType.IMAGE_JPEG)
+                .header("X-Filename", "playa.jpg")
+                .header("X-Title", "D%C3%ADa%20de%20playa")
+                .content("test image content".getBytes()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+    }
+
+    @Test
+    void uploadImageStream_WhenTooLarge_ShouldReturnPayloadTooLarge() throws Exception {
+        // Arrange
+        setupSecurityContext();
+        when(imageService.uploadImageStream(any(), anyLong(), any(), any(), any(), any()))
+            .thenThrow(new UploadTooLargeException("Upload exceeds the maximum size of 50MB"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/images/stream")
+                .contentType(MediaType.IMAGE_JPEG)
+                .header("X-Filename", "big.jpg")
+                .content(new byte[10]))
+                .andExpect(status().isPayloadTooLarge());
+    }
+
+    @Test
+    void uploadImage_OverStorageQuota_ShouldReturnPayloadTooLarge() throws Exception {
+        // Arrange
+        setupSecurityContext();
+        when(imageService.uploadImageStream(any(), anyLong(), any(), any(), any(), any()))
+            .thenThrow(new StorageQuotaExceededException("Storage quota of 1GB exceeded"));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/images/stream")
+                .contentType(MediaType.IMAGE_JPEG)
+                .header("X-Filename", "photo.jpg")
+                .content(new byte[10]))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(jsonPath("$.error").value("Storage quota of 1GB exceeded"));
+    }
+
     @Test
     void deleteImage_WithOwnImage_ShouldReturnNoContent() throws Exception {
         // Arrange
@@ -144,7 +269,7 @@ class ImageControllerTest {
     }
 
     @Test
-    void getAllImages_ShouldReturnListOfImageDTOs() throws Exception {
+    void getImages_ShouldReturnListOfImageDTOs() throws Exception {
         // Arrange
         ImageDTO image1 = new ImageDTO();
         image1.setId(1L);
@@ -153,17 +278,77 @@ class ImageControllerTest {
         image2.setId(2L);
         image2.setUrl("http://example.com/images/image2.jpg");
         List<ImageDTO> expectedImages = Arrays.asList(image1, image2);
-        when(imageService.getAllImages()).thenReturn(expectedImages);
+        when(imageService.getImages(null, null, null, ImageFilter.NONE)).thenReturn(new ImagePage(expectedImages, null));
 
         // Act & Assert
         mockMvc.perform(get("/api/images"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].url").value(image1.getUrl()))
                 .andExpect(jsonPath("$[1].url").value(image2.getUrl()));
     }
 
+    @Test
+    void getImages_WithMorePages_ShouldReturnNextCursorHeader() throws Exception {
+        // Arrange
+        ImageDTO image = new ImageDTO();
+        image.setId(3L);
+        when(imageService.getImages("size", 1, "abc", ImageFilter.NONE)).thenReturn(new ImagePage(List.of(image), "def"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/images").param("sort", "size").param("limit", "1").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void getImages_WithFilters_ShouldPassThemToService() throws Exception {
+        // Arrange
+        ImageFilter filter = new ImageFilter(800, null, null, 1200, 1024L, null, "image/png",
+            LocalDateTime.of(2024, 1, 1, 0, 0), null, ImageOrientation.LANDSCAPE);
+        ImageDTO image = new ImageDTO();
+        image.setId(4L);
+        when(imageService.getImages(null, null, null, filter)).thenReturn(new ImagePage(List.of(image), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/images")
+                .param("minWidth", "800")
+                .param("maxHeight", "1200")
+                .param("minSize", "1024")
+                .param("contentType", "image/png")
+                .param("uploadedAfter", "2024-01-01T00:00:00")
+                .param("orientation", "landscape"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(4));
+    }
+
+    @Test
+    void getImages_WithInvalidFilter_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/images").param("orientation", "diagonal"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid orientation. Allowed values: landscape, portrait, square"));
+        mockMvc.perform(get("/api/images").param("minWidth", "900").param("maxWidth", "800"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Minimum width must not exceed the maximum"));
+        verify(imageService, never()).getImages(any(), any(), any(), any());
+    }
+
+    @Test
+    void getImages_WithInvalidSort_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        when(imageService.getImages("colour", null, null, ImageFilter.NONE))
+                .thenThrow(new InvalidImageException("Invalid sort. Allowed values: uploadDate, size, title"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/images").param("sort", "colour"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Invalid sort. Allowed values: uploadDate, size, title"));
+    }
+
     @Test
     void getImageById_ShouldReturnImageDTO() throws Exception {
         // Arrange
@@ -0,0 +1,113 @@
+package com.f5.tech_test.controllers;
+
+import com.f5.tech_test.entities.UploadSession;
+import com.f5.tech_test.exceptions.UploadConflictException;
+import com.f5.tech_test.services.ResumableUploadService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResumableUploadControllerTest {
+
+    @Mock
+    private ResumableUploadService resumableUploadService;
+
+    @InjectMocks
+    private ResumableUploadController resumableUploadController;
+
+    private MockMvc mockMvc;
+    private UploadSession session;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(resumableUploadController).build();
+
+        session = new UploadSession();
+        session.setId("abc");
+        session.setLength(100L);
+        session.setOffset(40L);
+    }
+
+    @Test
+    void createUpload_ShouldReturnLocationOfSession() throws Exception {
+        // Arrange
+        session.setOffset(0L);
+        when(resumableUploadService.createSession(any())).thenReturn(session);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/uploads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filename\":\"a.jpg\",\"contentType\":\"image/jpeg\",\"length\":100}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/uploads/abc"))
+                .andExpect(header().string("Upload-Offset", "0"))
+                .andExpect(jsonPath("$.id").value("abc"));
+    }
+
+    @Test
+    void createUpload_WithoutLength_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/api/uploads")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filename\":\"a.jpg\",\"contentType\":\"image/jpeg\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getOffset_ShouldReturnOffsetHeaders() throws Exception {
+        // Arrange
+        when(resumableUploadService.getSession("abc")).thenReturn(session);
+
+        // Act & Assert
+        mockMvc.perform(head("/api/uploads/abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Upload-Offset", "40"))
+                .andExpect(header().string("Upload-Length", "100"))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    void appendChunk_ShouldReturnNewOffset() throws Exception {
+        // Arrange
+        when(resumableUploadService.appendChunk(eq("abc"), eq(40L), eq(10L), any())).thenReturn(50L);
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/uploads/abc")
+                .header("Upload-Offset", "40")
+                .contentType("application/offset+octet-stream")
+                .content(new byte[10]))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("Upload-Offset", "50"));
+    }
+
+    @Test
+    void appendChunk_WithStaleOffset_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(resumableUploadService.appendChunk(eq("abc"), anyLong(), anyLong(), any()))
+            .thenThrow(new UploadConflictException("Upload-Offset 0 does not match the current offset 40"));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/uploads/abc")
+                .header("Upload-Offset", "0")
+                .contentType("application/offset+octet-stream")
+                .content(new byte[10]))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,45 @@
+package com.f5.tech_test.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+    "upload.admission.max-per-user=0",
+    "upload.admission.retry-after=7s"
+})
+@AutoConfigureMockMvc
+class UploadAdmissionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @WithMockUser(username = "bulkuser")
+    void upload_OverLimit_ShouldReturnTooManyRequestsWithRetryAfter() throws Exception {
+        // Act & Assert
+        mockMvc.perform(put("/api/images/stream")
+                .contentType(MediaType.IMAGE_JPEG)
+                .header("X-Filename", "photo.jpg")
+                .content(new byte[10]))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "7"))
+                .andExpect(jsonPath("$.error").exists());
+    }
+
+    @Test
+    @WithMockUser(username = "bulkuser")
+    void nonUploadRequest_ShouldNotBeLimited() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/hello"))
+                .andExpect(status().isOk());
+    }
+}
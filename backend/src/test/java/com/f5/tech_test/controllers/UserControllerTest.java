@@ -1,5 +1,7 @@
 package com.f5.tech_test.controllers;
 
+import com.f5.tech_test.dto.StorageStatsDTO;
+import com.f5.tech_test.dto.StorageUsageDTO;
 import com.f5.tech_test.dto.UserDTO;
 import com.f5.tech_test.dto.RegisterRequest;
 import com.f5.tech_test.entities.User;
@@ -13,12 +15,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -85,6 +89,26 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.email").value(testUserDTO.getEmail()));
     }
 
+    @Test
+    void getStorage_ShouldReturnStatsOfAuthenticatedUser() throws Exception {
+        // Arrange
+        StorageStatsDTO stats = new StorageStatsDTO();
+        stats.setTotalBytes(1500L);
+        stats.setImageCount(2L);
+        stats.setMaxBytes(1024L * 1024 * 1024);
+        stats.setContentTypes(Map.of("image/jpeg", new StorageUsageDTO(1500L, 2L)));
+        when(userService.getStorageStats("testuser")).thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/users/me/storage")
+                .principal(new UsernamePasswordAuthenticationToken("testuser", null)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalBytes").value(1500))
+                .andExpect(jsonPath("$.imageCount").value(2))
+                .andExpect(jsonPath("$.maxImages").doesNotExist())
+                .andExpect(jsonPath("$.contentTypes['image/jpeg'].totalBytes").value(1500));
+    }
+
     @Test
     void getUserById_WithNonExistingUser_ShouldReturnNotFound() throws Exception {
         // Arrange
@@ -2,6 +2,9 @@ package com.f5.tech_test.mappers;
 
 import com.f5.tech_test.dto.ImageDTO;
 import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.ImageVariant;
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.repositories.VariantSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -75,6 +79,50 @@ public class ImageMapperTest {
         assertEquals(BASE_URL + "/" + testImage.getFilename(), result.getUrl());
     }
 
+    @Test
+    void toDTO_WithVariants_ShouldMapVariantUrlsByName() {
+        // Arrange
+        ImageVariant thumbnail = new ImageVariant();
+        thumbnail.setName("150");
+        thumbnail.setFilename("thumb.jpg");
+        ImageVariant medium = new ImageVariant();
+        medium.setName("480");
+        medium.setFilename("medium.jpg");
+        testImage.getVariants().add(thumbnail);
+        testImage.getVariants().add(medium);
+
+        // Act
+        ImageDTO result = imageMapper.toDTO(testImage, BASE_URL);
+
+        // Assert
+        assertEquals(2, result.getVariants().size());
+        assertEquals(BASE_URL + "/thumb.jpg", result.getVariants().get("150"));
+        assertEquals(BASE_URL + "/medium.jpg", result.getVariants().get("480"));
+    }
+
+    @Test
+    void toDTO_WithSummary_ShouldMapColumnsAndVariants() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        ImageSummary summary = new ImageSummary(1L, "test.jpg", "original.jpg", "image/jpeg", 1000L, 800, 600,
+            "L0TI:j", "Test Image", "Test Description", now, now);
+        List<VariantSummary> variants = List.of(
+            new VariantSummary(1L, "150", "thumb.jpg"), new VariantSummary(1L, "480", "medium.jpg"));
+
+        // Act
+        ImageDTO result = imageMapper.toDTO(summary, variants, BASE_URL);
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals("original.jpg", result.getOriginalFilename());
+        assertEquals(800, result.getWidth());
+        assertEquals("L0TI:j", result.getPlaceholder());
+        assertEquals(now, result.getUploadDate());
+        assertEquals(BASE_URL + "/test.jpg", result.getUrl());
+        assertEquals(List.of("150", "480"), List.copyOf(result.getVariants().keySet()));
+        assertEquals(BASE_URL + "/medium.jpg", result.getVariants().get("480"));
+    }
+
     @Test
     void toDTO_WithNullImage_ShouldReturnNull() {
         // Act
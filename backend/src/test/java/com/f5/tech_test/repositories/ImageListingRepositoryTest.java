@@ -0,0 +1,188 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.services.ImageCursor;
+import com.f5.tech_test.services.ImageFilter;
+import com.f5.tech_test.services.ImageOrientation;
+import com.f5.tech_test.services.ImageSort;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class ImageListingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    private User user;
+    private final List<Image> images = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(user("owner"));
+        User other = entityManager.persist(user("other"));
+
+        LocalDateTime day = LocalDateTime.of(2024, 3, 1, 12, 0);
+        // Two images share an upload time and two share a size, so ties are broken by id
+        images.add(persist(user, day, 500L, "beach"));
+        images.add(persist(user, day.plusDays(1), 300L, null));
+        images.add(persist(user, day.plusDays(1), 300L, "alps"));
+        images.add(persist(user, day.plusDays(2), 100L, "city"));
+        images.add(persist(user, day.plusDays(3), 900L, null));
+        persist(other, day.plusDays(4), 1000L, "not mine");
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPage_ByUploadDate_ShouldWalkNewestFirstWithoutGapsOrRepeats() {
+        // Act
+        List<Long> ids = walk(ImageSort.UPLOAD_DATE, 2);
+
+        // Assert
+        assertEquals(List.of(id(4), id(3), id(2), id(1), id(0)), ids);
+    }
+
+    @Test
+    void findPage_BySize_ShouldWalkLargestFirst() {
+        // Act
+        List<Long> ids = walk(ImageSort.SIZE, 2);
+
+        // Assert
+        assertEquals(List.of(id(4), id(0), id(2), id(1), id(3)), ids);
+    }
+
+    @Test
+    void findPage_ByTitle_ShouldListUntitledImagesLast() {
+        // Act
+        List<Long> ids = walk(ImageSort.TITLE, 2);
+
+        // Assert
+        assertEquals(List.of(id(2), id(0), id(3), id(1), id(4)), ids);
+    }
+
+    @Test
+    void findPage_ByTitle_WithPageSpanningBothGroups_ShouldFillFromUntitled() {
+        // Act
+        List<ImageSummary> page = imageRepository.findPage(user, ImageSort.TITLE, ImageFilter.NONE,
+            new ImageCursor(ImageSort.TITLE, "beach", id(0)), 3);
+
+        // Assert
+        assertEquals(List.of(id(3), id(1), id(4)), page.stream().map(ImageSummary::id).toList());
+    }
+
+    @Test
+    void findPage_WithFilters_ShouldOnlyReturnMatchingImages() {
+        // Arrange
+        setDimensions(0, 800, 600);
+        setDimensions(1, 600, 800);
+        setDimensions(2, 700, 700);
+        setDimensions(3, 1200, 900);
+        entityManager.getEntityManager().createQuery("update Image i set i.contentType = 'image/png' where i.id = :id")
+            .setParameter("id", id(3))
+            .executeUpdate();
+        LocalDateTime day = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+        // Act & Assert
+        assertEquals(List.of(id(3), id(0)), ids(filter(null, null, null, null, ImageOrientation.LANDSCAPE)));
+        assertEquals(List.of(id(1)), ids(filter(null, null, null, null, ImageOrientation.PORTRAIT)));
+        assertEquals(List.of(id(2)), ids(filter(null, null, null, null, ImageOrientation.SQUARE)));
+        assertEquals(List.of(id(3), id(2), id(0)), ids(filter(700, null, null, null, null)));
+        assertEquals(List.of(id(2), id(0)), ids(filter(700, 800, null, null, null)));
+        assertEquals(List.of(id(4), id(2), id(1), id(0)), ids(filter(null, null, 300L, null, null)));
+        assertEquals(List.of(id(3)), ids(new ImageFilter(null, null, null, null, null, null, "IMAGE/PNG",
+            null, null, null)));
+        assertEquals(List.of(id(4), id(3)), ids(new ImageFilter(null, null, null, null, null, null, null,
+            day.plusDays(1), null, null)));
+        assertEquals(List.of(id(2), id(1)), ids(new ImageFilter(null, null, null, null, null, null, null,
+            day, day.plusDays(2), null)));
+    }
+
+    @Test
+    void findPage_WithFilter_ShouldWalkMatchesAcrossPages() {
+        // Act
+        List<Long> bySize = walk(ImageSort.SIZE, filter(null, null, 300L, null, null), 1);
+        List<Long> byTitle = walk(ImageSort.TITLE, filter(null, null, 300L, null, null), 1);
+
+        // Assert
+        assertEquals(List.of(id(4), id(0), id(2), id(1)), bySize);
+        assertEquals(List.of(id(2), id(0), id(1), id(4)), byTitle);
+    }
+
+    private ImageFilter filter(Integer minWidth, Integer maxHeight, Long minSize, Long maxSize,
+                               ImageOrientation orientation) {
+        return new ImageFilter(minWidth, null, null, maxHeight, minSize, maxSize, null, null, null, orientation);
+    }
+
+    private List<Long> ids(ImageFilter filter) {
+        return imageRepository.findPage(user, ImageSort.UPLOAD_DATE, filter, null, 10).stream()
+            .map(ImageSummary::id)
+            .toList();
+    }
+
+    private void setDimensions(int index, int width, int height) {
+        entityManager.getEntityManager().createQuery("update Image i set i.width = :width, i.height = :height"
+                + " where i.id = :id")
+            .setParameter("width", width)
+            .setParameter("height", height)
+            .setParameter("id", id(index))
+            .executeUpdate();
+    }
+
+    private List<Long> walk(ImageSort sort, int limit) {
+        return walk(sort, ImageFilter.NONE, limit);
+    }
+
+    private List<Long> walk(ImageSort sort, ImageFilter filter, int limit) {
+        List<Long> ids = new ArrayList<>();
+        ImageCursor cursor = null;
+        while (true) {
+            List<ImageSummary> page = imageRepository.findPage(user, sort, filter, cursor, limit);
+            page.forEach(image -> ids.add(image.id()));
+            if (page.size() < limit) {
+                return ids;
+            }
+            ImageSummary last = page.get(page.size() - 1);
+            cursor = new ImageCursor(sort, sort.keyOf(last), last.id());
+        }
+    }
+
+    private Long id(int index) {
+        return images.get(index).getId();
+    }
+
+    private Image persist(User owner, LocalDateTime uploadDate, Long fileSize, String title) {
+        Image image = new Image();
+        image.setFilename(title + fileSize + ".jpg");
+        image.setOriginalFilename("original.jpg");
+        image.setContentType("image/jpeg");
+        image.setFileSize(fileSize);
+        image.setTitle(title);
+        image.setUser(owner);
+        image = entityManager.persist(image);
+        // @PrePersist stamps the current time; pin it so the order is known
+        image.setUploadDate(uploadDate);
+        return image;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,88 @@
+package com.f5.tech_test.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application on a database laid out as the last release left it: created by
+ * Hibernate's ddl-auto=update, with its generated constraint names and no Flyway history.
+ * Startup baselines it at V1, applies the later migrations and validates the entities.
+ */
+@SpringBootTest(properties = {
+    "spring.flyway.baseline-on-migrate=true",
+    "spring.flyway.baseline-version=1"
+})
+class MigrationUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:released-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+
+    @DynamicPropertySource
+    static void releasedDatabase(DynamicPropertyRegistry registry) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "password");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table images (file_size bigint not null, height integer, width integer,"
+                + " id bigint generated by default as identity, last_modified_date timestamp(6),"
+                + " upload_date timestamp(6) not null, user_id bigint not null, content_type varchar(255) not null,"
+                + " description varchar(255), filename varchar(255) not null,"
+                + " original_filename varchar(255) not null, title varchar(255), primary key (id))");
+            statement.execute("create table users (created_at timestamp(6) not null,"
+                + " id bigint generated by default as identity, last_login timestamp(6), email varchar(255) not null,"
+                + " password varchar(100) not null, username varchar(50) not null, primary key (id))");
+            statement.execute("alter table if exists users add constraint UK_r43af9ap4edm43mmtq01oddj6 unique (username)");
+            statement.execute("alter table if exists users add constraint UK_6dotkott2kjsp8vw4d0m25fb7 unique (email)");
+            statement.execute("alter table if exists images add constraint FK13ljqfrfwbyvnsdhihwta8cpr"
+                + " foreign key (user_id) references users");
+            statement.execute("insert into users (id, username, password, email, created_at)"
+                + " values (1, 'released', 'password', 'released@example.com', current_timestamp)");
+            statement.execute("insert into images (id, user_id, filename, original_filename, content_type, file_size,"
+                + " upload_date) values (1, 1, 'a.jpg', 'a.jpg', 'image/jpeg', 100, current_timestamp)");
+        }
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Test
+    void upgrade_ShouldAddNewSchemaAndKeepExistingRows() {
+        // Assert
+        assertEquals("a.jpg", imageRepository.findById(1L).orElseThrow().getFilename());
+        assertEquals(1L, count("select count(*) from user_storage_stats where user_id = 1 and image_count = 1"));
+        assertEquals(0L, count("select count(*) from image_variants"));
+        assertEquals(0L, count("select count(*) from stored_blobs"));
+        assertEquals(0L, count("select count(*) from upload_sessions"));
+    }
+
+    @Test
+    void upgrade_ShouldKeepOneUniqueConstraintPerUserColumn() {
+        // Act
+        List<?> constraints = entityManager.createNativeQuery("select tc.constraint_name"
+                + " from information_schema.table_constraints tc"
+                + " where tc.table_name = 'USERS' and tc.constraint_type = 'UNIQUE'"
+                + " order by tc.constraint_name")
+            .getResultList();
+
+        // Assert
+        assertEquals(List.of("UK_6DOTKOTT2KJSP8VW4D0M25FB7", "UK_R43AF9AP4EDM43MMTQ01ODDJ6"), constraints);
+    }
+
+    private long count(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+}
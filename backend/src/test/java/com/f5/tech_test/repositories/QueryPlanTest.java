@@ -0,0 +1,143 @@
+package com.f5.tech_test.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot queries through H2's EXPLAIN against the migrated schema and checks that each
+ * one is answered from the index created for it rather than a table scan. The SQL mirrors
+ * what Hibernate generates for the corresponding repository methods.
+ * <p>
+ * The optimizer needs statistics to weigh range conditions, and H2's ANALYZE commits, so the
+ * rows outlive each test. The class therefore gets a database of its own, seeded once.
+ */
+@DataJpaTest
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:query-plans-${random.uuid};DB_CLOSE_DELAY=-1")
+class QueryPlanTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        if (((Number) entityManager.getEntityManager().createNativeQuery("select count(*) from users")
+                .getSingleResult()).longValue() > 0) {
+            return;
+        }
+        // Enough rows across several owners for the statistics to mean something
+        execute("insert into users (id, username, password, email, created_at)"
+            + " select x, 'user' || x, 'password', 'user' || x || '@example.com', current_timestamp"
+            + " from system_range(1, 20)");
+        execute("insert into images (id, user_id, filename, original_filename, content_type, file_size, width,"
+            + " height, title, upload_date) select x, mod(x, 20) + 1, 'file' || x || '.jpg', 'photo.jpg',"
+            + " case when mod(x, 10) = 0 then 'image/png' else 'image/jpeg' end, x * 100, mod(x * 7, 4000),"
+            + " mod(x * 13, 4000), case when mod(x, 3) = 0 then null else 'title' || x end,"
+            + " dateadd('MINUTE', -x, current_timestamp) from system_range(1, 2000)");
+        execute("insert into image_variants (id, image_id, name, filename, width, height, file_size,"
+            + " created_at) select x, mod(x, 2000) + 1, 'v' || x, 'variant' || x || '.jpg', 150, 100, 1000, current_timestamp"
+            + " from system_range(1, 6000)");
+        execute("insert into upload_sessions (id, user_id, original_filename, content_type, length, upload_offset,"
+            + " created_at, last_modified_date) select 'session' || x, mod(x, 20) + 1, 'photo.jpg', 'image/jpeg',"
+            + " 1000, 0, current_timestamp, current_timestamp from system_range(1, 500)");
+        execute("analyze");
+    }
+
+    @Test
+    void listingByUploadDate_ShouldSeekOwnerUploadDateIndex() {
+        assertUsesIndex("IDX_IMAGES_USER_UPLOAD_DATE", "select id from images where user_id = 1"
+            + " and (upload_date < timestamp '2024-01-01 00:00:00'"
+            + " or upload_date = timestamp '2024-01-01 00:00:00' and id < 500)"
+            + " order by upload_date desc, id desc fetch first 51 rows only");
+    }
+
+    @Test
+    void listingBySize_ShouldSeekOwnerFileSizeIndex() {
+        assertUsesIndex("IDX_IMAGES_USER_FILE_SIZE", "select id from images where user_id = 1"
+            + " and (file_size < 5000 or file_size = 5000 and id < 50)"
+            + " order by file_size desc, id desc fetch first 51 rows only");
+    }
+
+    @Test
+    void listingByTitle_ShouldSeekOwnerTitleIndex() {
+        assertUsesIndex("IDX_IMAGES_USER_TITLE", "select id from images where user_id = 1"
+            + " and title is not null and (title > 'title5' or title = 'title5' and id > 5)"
+            + " order by title, id fetch first 51 rows only");
+    }
+
+    @Test
+    void listingByContentType_ShouldSeekOwnerContentTypeIndex() {
+        assertUsesIndex("IDX_IMAGES_USER_CONTENT_TYPE_UPLOAD_DATE", "select id from images where user_id = 1"
+            + " and content_type = 'image/png' order by upload_date desc, id desc fetch first 51 rows only");
+    }
+
+    @Test
+    void listingByDimensions_ShouldSeekOwnerDimensionIndexes() {
+        assertUsesIndex("IDX_IMAGES_USER_WIDTH", "select id from images where user_id = 1"
+            + " and width >= 3000 and width > height order by upload_date desc, id desc fetch first 51 rows only");
+        assertUsesIndex("IDX_IMAGES_USER_HEIGHT", "select id from images where user_id = 1"
+            + " and height >= 3000 order by upload_date desc, id desc fetch first 51 rows only");
+    }
+
+    @Test
+    void variantsOfPage_ShouldSeekByImageId() {
+        // H2 indexes foreign keys itself and may prefer that index; either way it must not scan
+        assertNoTableScan(
+            "select image_id, name, filename from image_variants where image_id in (1, 2, 3) order by width");
+    }
+
+    @Test
+    void imageByIdAndOwner_ShouldNotScan() {
+        assertNoTableScan("select id from images where id = 1 and user_id = 1");
+    }
+
+    @Test
+    void userByUsernameOrEmail_ShouldUseUniqueConstraintIndexes() {
+        assertUsesConstraintIndex("UK_USERS_USERNAME", "select id from users where username = 'user1'");
+        assertUsesConstraintIndex("UK_USERS_EMAIL", "select id from users where email = 'user1@example.com'");
+    }
+
+    @Test
+    void contentHashByFilename_ShouldUseFilenameIndexes() {
+        assertUsesIndex("IDX_IMAGES_FILENAME", "select content_hash from images where filename = 'file1.jpg'");
+        assertUsesIndex("IDX_IMAGE_VARIANTS_FILENAME",
+            "select content_hash from image_variants where filename = 'variant1.jpg'");
+    }
+
+    @Test
+    void expiredUploadSessions_ShouldUseLastModifiedIndex() {
+        assertUsesIndex("IDX_UPLOAD_SESSIONS_LAST_MODIFIED",
+            "select id from upload_sessions where last_modified_date < timestamp '2000-01-01 00:00:00'");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.contains("/* PUBLIC." + index + ":"), () -> "Expected " + index + " in plan:\n" + plan);
+    }
+
+    // H2 names the index backing a constraint after it, with a numbered suffix
+    private void assertUsesConstraintIndex(String constraint, String sql) {
+        String plan = explain(sql);
+        assertTrue(plan.contains("/* PUBLIC." + constraint + "_INDEX_"),
+            () -> "Expected the index of " + constraint + " in plan:\n" + plan);
+    }
+
+    private void assertNoTableScan(String sql) {
+        String plan = explain(sql);
+        assertFalse(plan.contains(".tableScan"), () -> "Expected an index lookup in plan:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        return String.valueOf(entityManager.getEntityManager().createNativeQuery("explain " + sql).getSingleResult());
+    }
+
+    private void execute(String sql) {
+        entityManager.getEntityManager().createNativeQuery(sql).executeUpdate();
+    }
+}
@@ -0,0 +1,184 @@
+package com.f5.tech_test.repositories;
+
+import com.f5.tech_test.config.SecondLevelCacheConfig;
+import com.f5.tech_test.dto.UserDTO;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.services.UserService;
+import com.f5.tech_test.services.UserStorageService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that users, their username lookup and images are served from the second-level cache
+ * once loaded, and that every kind of write the application makes is visible afterwards.
+ * Statement counts come from Hibernate's statistics.
+ */
+@SpringBootTest
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImageRepository imageRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserStorageService userStorageService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private TransactionTemplate transaction;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transaction = new TransactionTemplate(transactionManager);
+        user = userRepository.save(user("cached"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByUsername_ShouldBeServedFromCacheAfterFirstLookup() {
+        // Arrange
+        userRepository.findByUsername("cached").orElseThrow();
+        statistics.clear();
+
+        // Act
+        User found = userRepository.findByUsername("cached").orElseThrow();
+
+        // Assert
+        assertEquals(user.getId(), found.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.USERS).getHitCount());
+    }
+
+    @Test
+    void findByUsername_AfterRename_ShouldOnlyFindNewUsername() {
+        // Arrange
+        userRepository.findByUsername("cached").orElseThrow();
+        UserDTO renamed = new UserDTO();
+        renamed.setUsername("renamed");
+        renamed.setEmail("renamed@example.com");
+
+        // Act
+        userService.updateUser(user.getId(), renamed);
+
+        // Assert
+        assertTrue(userRepository.findByUsername("cached").isEmpty());
+        assertEquals("renamed@example.com", userRepository.findByUsername("renamed").orElseThrow().getEmail());
+    }
+
+    @Test
+    void findByUsername_AfterDelete_ShouldFindNothing() {
+        // Arrange
+        userRepository.findByUsername("cached").orElseThrow();
+
+        // Act
+        userRepository.deleteById(user.getId());
+
+        // Assert
+        assertTrue(userRepository.findByUsername("cached").isEmpty());
+        assertTrue(userRepository.findById(user.getId()).isEmpty());
+    }
+
+    @Test
+    void findById_ShouldServeImageFromCacheAndSeeUpdates() {
+        // Arrange
+        Long id = imageRepository.save(image("Beach")).getId();
+        imageRepository.findById(id).orElseThrow();
+        statistics.clear();
+
+        // Act & Assert
+        assertEquals("Beach", imageRepository.findById(id).orElseThrow().getTitle());
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        transaction.executeWithoutResult(status -> imageRepository.findById(id).orElseThrow().setTitle("Forest"));
+        assertEquals("Forest", imageRepository.findById(id).orElseThrow().getTitle());
+
+        LocalDateTime optimizedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        transaction.executeWithoutResult(status -> imageRepository.markOptimized(id, optimizedAt));
+        assertEquals(optimizedAt, imageRepository.findById(id).orElseThrow().getOptimizedDate(),
+            "bulk updates evict the region");
+    }
+
+    @Test
+    void storageCounterUpdates_ShouldNotEvictUsers() {
+        // Arrange
+        userRepository.findByUsername("cached").orElseThrow();
+
+        // Act
+        transaction.executeWithoutResult(status -> userStorageService.recordAdded(user.getId(), List.of(image("Beach"))));
+        statistics.clear();
+        userRepository.findByUsername("cached").orElseThrow();
+
+        // Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void regionStatistics_ShouldBePublishedAsMetrics() {
+        // Act
+        userRepository.findByUsername("cached").orElseThrow();
+        userRepository.findByUsername("cached").orElseThrow();
+
+        // Assert
+        FunctionCounter hits = meterRegistry.get("hibernate.second.level.cache.requests")
+            .tags("region", SecondLevelCacheConfig.USERS, "result", "hit").functionCounter();
+        assertTrue(hits.count() > 0);
+        assertTrue(meterRegistry.get("hibernate.cache.natural.id.requests").tags("result", "hit")
+            .functionCounter().count() > 0);
+    }
+
+    private Image image(String title) {
+        Image image = new Image();
+        image.setFilename(title.toLowerCase() + ".jpg");
+        image.setOriginalFilename(title + ".jpg");
+        image.setContentType("image/jpeg");
+        image.setFileSize(100L);
+        image.setTitle(title);
+        image.setUser(user);
+        return image;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,242 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ContactSheetConfig;
+import com.f5.tech_test.config.ImageVariantConfig;
+import com.f5.tech_test.dto.ContactSheetDTO;
+import com.f5.tech_test.dto.SheetTileDTO;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.events.ImageSetChangedEvent;
+import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.repositories.ImageVariantRepository;
+import com.f5.tech_test.repositories.VariantSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContactSheetServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageVariantRepository imageVariantRepository;
+
+    @Mock
+    private ImageService imageService;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ContactSheetConfig contactSheetConfig;
+
+    @Mock
+    private ImageVariantConfig imageVariantConfig;
+
+    @Mock
+    private RecentWriteTracker recentWriteTracker;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ContactSheetService contactSheetService;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(contactSheetConfig.getPageSize()).thenReturn(3);
+        when(contactSheetConfig.getTileSize()).thenReturn(50);
+        when(contactSheetConfig.getColumns()).thenReturn(2);
+        when(contactSheetConfig.getCacheMaxEntries()).thenReturn(10);
+        when(imageVariantConfig.getJpegQuality()).thenReturn(0.85f);
+        when(fileStorageService.getFilePath(any())).thenAnswer(invocation -> tempDir.resolve((String) invocation.getArgument(0)));
+
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        when(imageService.getCurrentUser()).thenReturn(Optional.of(user));
+
+        // One more than the page size, so another sheet follows
+        List<ImageSummary> images = new ArrayList<>();
+        images.add(image(10L, "wide.jpg", 200, 100));
+        images.add(image(11L, "tall.jpg", 100, 200));
+        images.add(image(12L, "square.jpg", 80, 80));
+        images.add(image(13L, "next.jpg", 80, 80));
+        when(imageRepository.findPage(eq(user), eq(ImageSort.UPLOAD_DATE), eq(ImageFilter.NONE), isNull(), eq(4)))
+            .thenReturn(images);
+
+        contactSheetService = new ContactSheetService(imageRepository, imageVariantRepository, imageService,
+            fileStorageService, new ImageResizer(imageVariantConfig), contactSheetConfig, recentWriteTracker,
+            transactionManager);
+    }
+
+    @Test
+    void getSheet_ShouldPlaceEveryThumbnailInSprite() throws IOException {
+        // Act
+        ContactSheetDTO sheet = contactSheetService.getSheet(null, null);
+
+        // Assert
+        ImageCursor next = ImageCursor.decode(sheet.getNextCursor(), ImageSort.UPLOAD_DATE);
+        assertEquals(12L, next.id());
+        assertEquals(100, sheet.getWidth());
+        assertEquals(100, sheet.getHeight());
+        assertEquals(List.of(10L, 11L, 12L), new ArrayList<>(sheet.getTiles().keySet()));
+
+        SheetTileDTO wide = sheet.getTiles().get(10L);
+        assertEquals(0, wide.getX());
+        assertEquals(12, wide.getY());
+        assertEquals(50, wide.getWidth());
+        assertEquals(25, wide.getHeight());
+        SheetTileDTO square = sheet.getTiles().get(12L);
+        assertEquals(0, square.getX());
+        assertEquals(50, square.getY());
+
+        assertTrue(sheet.getImage().startsWith("data:image/jpeg;base64,"));
+        BufferedImage sprite = ImageIO.read(new ByteArrayInputStream(
+            Base64.getDecoder().decode(sheet.getImage().substring("data:image/jpeg;base64,".length()))));
+        assertEquals(100, sprite.getWidth());
+    }
+
+    @Test
+    void getSheet_Twice_ShouldRenderOnce() throws IOException {
+        // Act
+        ContactSheetDTO first = contactSheetService.getSheet(null, null);
+        ContactSheetDTO second = contactSheetService.getSheet(null, null);
+
+        // Assert
+        assertSame(first, second);
+        verify(imageRepository, times(1)).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getSheet_AfterImageSetChanged_ShouldRenderAgain() throws IOException {
+        // Arrange
+        ContactSheetDTO first = contactSheetService.getSheet(null, null);
+
+        // Act
+        contactSheetService.onImageSetChanged(new ImageSetChangedEvent(1L));
+        ContactSheetDTO second = contactSheetService.getSheet(null, null);
+
+        // Assert
+        assertNotSame(first, second);
+        verify(imageRepository, times(2)).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getSheet_WithOtherUsersChange_ShouldKeepCachedSheet() throws IOException {
+        // Arrange
+        ContactSheetDTO first = contactSheetService.getSheet(null, null);
+
+        // Act
+        contactSheetService.onImageSetChanged(new ImageSetChangedEvent(2L));
+
+        // Assert
+        assertSame(first, contactSheetService.getSheet(null, null));
+    }
+
+    @Test
+    void getSheet_WithUnreadableFile_ShouldLeaveItOutOfAtlas() throws IOException {
+        // Arrange
+        when(fileStorageService.getFilePath("tall.jpg")).thenReturn(tempDir.resolve("missing.jpg"));
+
+        // Act
+        ContactSheetDTO sheet = contactSheetService.getSheet(null, null);
+
+        // Assert
+        assertEquals(List.of(10L, 12L), new ArrayList<>(sheet.getTiles().keySet()));
+    }
+
+    @Test
+    void getSheet_WithCursor_ShouldContinueAfterIt() throws IOException {
+        // Arrange
+        ImageCursor after = new ImageCursor(ImageSort.SIZE, 4096L, 12L);
+        when(imageRepository.findPage(eq(user), eq(ImageSort.SIZE), eq(ImageFilter.NONE), eq(after), eq(4)))
+            .thenReturn(List.of(image(13L, "next.jpg", 80, 80)));
+
+        // Act
+        ContactSheetDTO sheet = contactSheetService.getSheet("size", after.encode());
+
+        // Assert
+        assertEquals(List.of(13L), new ArrayList<>(sheet.getTiles().keySet()));
+        assertNull(sheet.getNextCursor());
+    }
+
+    @Test
+    void getSheet_WithVariantAtLeastATileWide_ShouldDrawFromSmallestSuchVariant() throws IOException {
+        // Arrange
+        image(0L, "wide_150.jpg", 150, 75);
+        when(imageVariantRepository.findSummariesByImageIds(any())).thenReturn(List.of(
+            new VariantSummary(10L, "480", "wide_480.jpg"),
+            new VariantSummary(10L, "150", "wide_150.jpg")));
+
+        // Act
+        contactSheetService.getSheet(null, null);
+
+        // Assert
+        verify(fileStorageService).getFilePath("wide_150.jpg");
+        verify(fileStorageService, never()).getFilePath("wide.jpg");
+        verify(fileStorageService, never()).getFilePath("wide_480.jpg");
+    }
+
+    @Test
+    void getSheet_PastLastPage_ShouldReturnEmptySheet() throws IOException {
+        // Arrange
+        when(imageRepository.findPage(eq(user), eq(ImageSort.UPLOAD_DATE), eq(ImageFilter.NONE), any(), eq(4)))
+            .thenReturn(List.of());
+
+        // Act
+        ContactSheetDTO sheet = contactSheetService.getSheet(null, new ImageCursor(ImageSort.UPLOAD_DATE,
+            LocalDateTime.of(2024, 1, 1, 0, 0), 1L).encode());
+
+        // Assert
+        assertTrue(sheet.getTiles().isEmpty());
+        assertNull(sheet.getImage());
+        assertNull(sheet.getNextCursor());
+    }
+
+    @Test
+    void getSheet_WithCursorForOtherSort_ShouldThrowInvalidImageException() {
+        // Arrange
+        String cursor = new ImageCursor(ImageSort.SIZE, 4096L, 12L).encode();
+
+        // Act & Assert
+        assertThrows(InvalidImageException.class, () -> contactSheetService.getSheet("title", cursor));
+    }
+
+    private ImageSummary image(Long id, String filename, int width, int height) throws IOException {
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", tempDir.resolve(filename).toFile());
+        return new ImageSummary(id, filename, filename, "image/jpeg", 4096L, width, height, null, null, null,
+            LocalDateTime.of(2024, 1, 1, 0, 0), null);
+    }
+}
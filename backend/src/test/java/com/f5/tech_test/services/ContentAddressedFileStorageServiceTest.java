@@ -0,0 +1,187 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.repositories.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ContentAddressedFileStorageServiceTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @DynamicPropertySource
+    static void storageProperties(DynamicPropertyRegistry registry) {
+        registry.add("file.storage", () -> "content-addressed");
+        registry.add("file.upload-dir", () -> tempDir.toString());
+        // Small enough that the longer contents below go through a temp file
+        registry.add("file.content-addressed.buffer-size", () -> "32B");
+    }
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        storedBlobRepository.deleteAll();
+    }
+
+    @Test
+    void storeFile_ShouldNameBlobByContentHash() throws IOException {
+        // Act
+        String name = fileStorageService.storeFile(image("photo.JPG", "test image content"));
+
+        // Assert
+        assertInstanceOf(ContentAddressedFileStorageService.class, fileStorageService);
+        assertTrue(name.matches("[0-9a-f]{64}"));
+        assertEquals("test image content", Files.readString(tempDir.resolve(name)));
+        assertEquals(1, storedBlobRepository.findById(name).orElseThrow().getReferenceCount());
+    }
+
+    @Test
+    void storeFile_ShouldTakeExtensionFromContentRatherThanFilename() throws IOException {
+        // Arrange
+        byte[] jpeg = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 'j', 'p', 'e', 'g'};
+
+        // Act
+        String jpg = fileStorageService.storeFile(image("photo.jpg", jpeg));
+        String jpegName = fileStorageService.storeFile(image("photo.JPEG", jpeg));
+        String noExtension = fileStorageService.storeFile(image("photo", jpeg));
+
+        // Assert
+        assertTrue(jpg.matches("[0-9a-f]{64}\\.jpg"));
+        assertEquals(jpg, jpegName);
+        assertEquals(jpg, noExtension);
+        assertEquals(3, storedBlobRepository.findById(jpg).orElseThrow().getReferenceCount());
+    }
+
+    @Test
+    void storeFile_WithDuplicateContent_ShouldShareOneBlob() throws IOException {
+        // Act
+        String first = fileStorageService.storeFile(image("first.jpg", "same content"));
+        String second = fileStorageService.storeFile(image("second.jpg", "same content"));
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(2, storedBlobRepository.findById(first).orElseThrow().getReferenceCount());
+        assertEquals(1, fileStorageService.getAllFiles().stream().filter(first::equals).count());
+    }
+
+    @Test
+    void storeFile_WithDuplicateLargerThanBuffer_ShouldShareOneBlobAndDropTempFile() throws IOException {
+        // Arrange
+        String content = "content longer than the in-memory buffer of this test";
+
+        // Act
+        String first = fileStorageService.storeFile(image("first.png", content));
+        String second = fileStorageService.storeFile(image("second.png", content));
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(content, Files.readString(tempDir.resolve(first)));
+        assertEquals(2, storedBlobRepository.findById(first).orElseThrow().getReferenceCount());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void deleteFile_ShouldKeepBlobUntilLastReferenceIsGone() throws IOException {
+        // Arrange
+        String name = fileStorageService.storeFile(image("first.jpg", "shared content"));
+        fileStorageService.storeFile(image("second.jpg", "shared content"));
+
+        // Act & Assert
+        assertTrue(fileStorageService.deleteFile(name));
+        assertTrue(Files.exists(tempDir.resolve(name)));
+
+        assertTrue(fileStorageService.deleteFile(name));
+        assertFalse(Files.exists(tempDir.resolve(name)));
+        assertTrue(storedBlobRepository.findById(name).isEmpty());
+    }
+
+    @Test
+    void storeFile_WhenTransactionRollsBack_ShouldReleaseReference() throws IOException {
+        // Arrange
+        String kept = fileStorageService.storeFile(image("kept.jpg", "rolled back content"));
+        Set<String> filesBefore = Set.copyOf(fileStorageService.getAllFiles());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            store(image("first.jpg", "rolled back content"));
+            store(image("second.jpg", "only in the rolled back transaction"));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(1, storedBlobRepository.findById(kept).orElseThrow().getReferenceCount());
+        assertEquals(1, storedBlobRepository.count());
+        assertEquals(filesBefore, Set.copyOf(fileStorageService.getAllFiles()));
+    }
+
+    @Test
+    void storeFile_WhenCallerDeletesBeforeRollback_ShouldNotReleaseTwice() throws IOException {
+        // Arrange
+        String kept = fileStorageService.storeFile(image("kept.jpg", "deleted then rolled back"));
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // Act
+        transaction.executeWithoutResult(status -> {
+            fileStorageService.deleteFile(store(image("first.jpg", "deleted then rolled back")));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertEquals(1, storedBlobRepository.findById(kept).orElseThrow().getReferenceCount());
+        assertTrue(Files.exists(tempDir.resolve(kept)));
+    }
+
+    @Test
+    void deleteFile_WithUnknownBlob_ShouldReturnFalse() {
+        // Act
+        boolean result = fileStorageService.deleteFile("/uploads/nonexistent.jpg");
+
+        // Assert
+        assertFalse(result);
+    }
+
+    private String store(MockMultipartFile file) {
+        try {
+            return fileStorageService.storeFile(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MockMultipartFile image(String originalFilename, String content) {
+        return image(originalFilename, content.getBytes());
+    }
+
+    private MockMultipartFile image(String originalFilename, byte[] content) {
+        return new MockMultipartFile("image", originalFilename, "image/jpeg", content);
+    }
+}
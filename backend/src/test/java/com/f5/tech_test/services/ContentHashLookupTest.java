@@ -0,0 +1,84 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.ImageVariantRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ContentHashLookupTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageVariantRepository imageVariantRepository;
+
+    @InjectMocks
+    private ContentHashLookup contentHashLookup;
+
+    @Test
+    void getContentHash_ShouldUseStoredHashAndCacheIt() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("photo.jpg");
+        when(imageRepository.findContentHashesByFilename("photo.jpg")).thenReturn(List.of("stored-hash"));
+
+        // Act
+        String first = contentHashLookup.getContentHash("photo.jpg", file);
+        String second = contentHashLookup.getContentHash("photo.jpg", file);
+
+        // Assert
+        assertEquals("stored-hash", first);
+        assertEquals("stored-hash", second);
+        verify(imageRepository, times(1)).findContentHashesByFilename("photo.jpg");
+        verifyNoInteractions(imageVariantRepository);
+    }
+
+    @Test
+    void getContentHash_ForVariant_ShouldUseVariantHash() throws IOException {
+        // Arrange
+        when(imageRepository.findContentHashesByFilename("small.jpg")).thenReturn(Collections.emptyList());
+        when(imageVariantRepository.findContentHashesByFilename("small.jpg")).thenReturn(List.of("variant-hash"));
+
+        // Act
+        String hash = contentHashLookup.getContentHash("small.jpg", tempDir.resolve("small.jpg"));
+
+        // Assert
+        assertEquals("variant-hash", hash);
+    }
+
+    @Test
+    void getContentHash_WithoutStoredHash_ShouldHashFile() throws IOException {
+        // Arrange
+        Path file = Files.write(tempDir.resolve("legacy.jpg"), "abc".getBytes(StandardCharsets.US_ASCII));
+        when(imageRepository.findContentHashesByFilename("legacy.jpg")).thenReturn(Arrays.asList((String) null));
+        when(imageVariantRepository.findContentHashesByFilename("legacy.jpg")).thenReturn(Collections.emptyList());
+
+        // Act
+        String hash = contentHashLookup.getContentHash("legacy.jpg", file);
+
+        // Assert
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", hash);
+    }
+}
@@ -0,0 +1,164 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.HotImageCacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class HotImageCacheTest {
+
+    private static final int BLOCK = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private HotImageCacheConfig config;
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotImageCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Room for four single-block files
+        when(config.getMaxSize()).thenReturn(DataSize.ofBytes(4 * BLOCK));
+        when(config.getMaxEntrySize()).thenReturn(DataSize.ofBytes(2 * BLOCK));
+        when(config.getBlockSize()).thenReturn(DataSize.ofBytes(BLOCK));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new HotImageCache(config, meterRegistry);
+    }
+
+    @Test
+    void load_ShouldServeSameBytesFromMemory() throws IOException {
+        // Arrange
+        byte[] content = new byte[BLOCK + 100];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 7);
+        }
+        Path file = write("a.jpg", content);
+
+        // Act
+        try (HotImageCache.Entry loaded = cache.load("a.jpg", file, content.length)) {
+            assertNotNull(loaded);
+        }
+        Files.delete(file);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (HotImageCache.Entry entry = cache.get("a.jpg")) {
+            entry.writeTo(Channels.newChannel(out), 1000, 100);
+        }
+
+        // Assert
+        assertArrayEquals(Arrays.copyOfRange(content, 1000, 1100), out.toByteArray());
+        assertEquals(2 * BLOCK, cache.residentBytes());
+    }
+
+    @Test
+    void load_LargerThanMaxEntrySize_ShouldNotCache() throws IOException {
+        // Arrange
+        Path file = write("big.jpg", new byte[3 * BLOCK]);
+
+        // Act
+        HotImageCache.Entry entry = cache.load("big.jpg", file, 3 * BLOCK);
+
+        // Assert
+        assertNull(entry);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void load_WhenFull_ShouldRejectFileReadLessOftenThanVictim() throws IOException {
+        // Arrange
+        fill();
+
+        // Act
+        cache.get("cold.jpg");
+        HotImageCache.Entry entry = cache.load("cold.jpg", write("cold.jpg", new byte[BLOCK]), BLOCK);
+
+        // Assert
+        assertNull(entry);
+        assertEquals(4, cache.size());
+        assertEquals(1.0, meterRegistry.counter("images.hot.cache.rejections").count());
+    }
+
+    @Test
+    void load_WhenFull_ShouldEvictLeastRecentlyUsedForFrequentFile() throws IOException {
+        // Arrange
+        fill();
+        for (int i = 0; i < 5; i++) {
+            cache.get("hot.jpg");
+        }
+
+        // Act
+        try (HotImageCache.Entry entry = cache.load("hot.jpg", write("hot.jpg", new byte[BLOCK]), BLOCK)) {
+            assertNotNull(entry);
+        }
+
+        // Assert
+        assertEquals(4, cache.size());
+        assertNull(cache.get("f0.jpg"));
+        assertEquals(1.0, meterRegistry.counter("images.hot.cache.evictions").count());
+    }
+
+    @Test
+    void invalidate_WhileBeingRead_ShouldFreeMemoryWhenReaderCloses() throws IOException {
+        // Arrange
+        Path file = write("a.jpg", new byte[BLOCK]);
+        cache.load("a.jpg", file, BLOCK).close();
+        HotImageCache.Entry reader = cache.get("a.jpg");
+
+        // Act
+        cache.invalidate("a.jpg");
+
+        // Assert
+        assertNull(cache.get("a.jpg"));
+        assertEquals(BLOCK, cache.residentBytes());
+        reader.close();
+        assertEquals(0, cache.residentBytes());
+    }
+
+    @Test
+    void get_ShouldRecordHitRatio() throws IOException {
+        // Arrange
+        cache.load("a.jpg", write("a.jpg", new byte[100]), 100).close();
+
+        // Act
+        cache.get("a.jpg").close();
+        cache.get("missing.jpg");
+
+        // Assert
+        assertEquals(0.5, meterRegistry.get("images.hot.cache.hit.ratio").gauge().value());
+        assertEquals(BLOCK, meterRegistry.get("images.hot.cache.resident.bytes").gauge().value());
+    }
+
+    private void fill() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            String name = "f" + i + ".jpg";
+            cache.get(name);
+            cache.get(name);
+            cache.load(name, write(name, new byte[BLOCK]), BLOCK).close();
+        }
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(tempDir.resolve(name), content);
+    }
+}
@@ -0,0 +1,100 @@
+package com.f5.tech_test.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageDimensionProbeTest {
+
+    private ImageDimensionProbe probe;
+
+    @BeforeEach
+    void setUp() {
+        probe = new ImageDimensionProbe();
+    }
+
+    @Test
+    void probe_WithJpeg_ShouldReadFrameHeader() throws IOException {
+        // Arrange
+        byte[] jpeg = encode("jpg", 37, 21);
+
+        // Act
+        Optional<ImageDimensions> result = probe.probe(new ByteArrayInputStream(jpeg));
+
+        // Assert
+        assertEquals(Optional.of(new ImageDimensions(37, 21)), result);
+    }
+
+    @Test
+    void probe_WithPng_ShouldReadIhdr() throws IOException {
+        // Arrange
+        byte[] png = encode("png", 640, 1);
+
+        // Act
+        Optional<ImageDimensions> result = probe.probe(new ByteArrayInputStream(png));
+
+        // Assert
+        assertEquals(Optional.of(new ImageDimensions(640, 1)), result);
+    }
+
+    @Test
+    void probe_WithGif_ShouldReadLogicalScreenDescriptor() throws IOException {
+        // Arrange
+        byte[] gif = encode("gif", 300, 200);
+
+        // Act
+        Optional<ImageDimensions> result = probe.probe(new ByteArrayInputStream(gif));
+
+        // Assert
+        assertEquals(Optional.of(new ImageDimensions(300, 200)), result);
+    }
+
+    @Test
+    void probe_WithOtherFormat_ShouldFallBackToImageReader() throws IOException {
+        // Arrange
+        byte[] bmp = encode("bmp", 12, 34);
+
+        // Act
+        Optional<ImageDimensions> result = probe.probe(new ByteArrayInputStream(bmp));
+
+        // Assert
+        assertEquals(Optional.of(new ImageDimensions(12, 34)), result);
+    }
+
+    @Test
+    void probe_WithTruncatedPng_ShouldReturnEmpty() throws IOException {
+        // Arrange
+        byte[] png = Arrays.copyOf(encode("png", 10, 10), 20);
+
+        // Act
+        Optional<ImageDimensions> result = probe.probe(new ByteArrayInputStream(png));
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void probe_WithNonImageContent_ShouldReturnEmpty() throws IOException {
+        // Act
+        Optional<ImageDimensions> result = probe.probe(new ByteArrayInputStream("test image content".getBytes()));
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    private byte[] encode(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,317 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.HotImageCacheConfig;
+import com.f5.tech_test.config.TestFileStorageConfig;
+import com.f5.tech_test.exceptions.ImageNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ImageFileServerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String HASH = "ab".repeat(32);
+
+    private ContentHashLookup contentHashLookup;
+    private HotImageCache hotImageCache;
+    private ImageFileServer imageFileServer;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        contentHashLookup = mock(ContentHashLookup.class);
+        when(contentHashLookup.getContentHash(anyString(), any())).thenReturn(HASH);
+        HotImageCacheConfig cacheConfig = mock(HotImageCacheConfig.class);
+        when(cacheConfig.getMaxSize()).thenReturn(DataSize.ofKilobytes(256));
+        when(cacheConfig.getMaxEntrySize()).thenReturn(DataSize.ofKilobytes(64));
+        when(cacheConfig.getBlockSize()).thenReturn(DataSize.ofKilobytes(4));
+        hotImageCache = new HotImageCache(cacheConfig, new SimpleMeterRegistry());
+        imageFileServer = new ImageFileServer(
+            new LocalFileStorageService(new TestFileStorageConfig(tempDir.toString()), hotImageCache),
+            contentHashLookup, hotImageCache);
+        content = new byte[1000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        Files.write(tempDir.resolve("photo.jpg"), content);
+    }
+
+    @Test
+    void serve_WithoutRange_ShouldSendWholeFile() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals("image/jpeg", response.getContentType());
+        assertEquals("bytes", response.getHeader("Accept-Ranges"));
+        assertEquals(1000, response.getContentLengthLong());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader("Cache-Control"));
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void serve_WhenCached_ShouldNotReadFromDisk() throws IOException {
+        // Arrange
+        imageFileServer.serve("photo.jpg", new MockHttpServletRequest("GET", "/uploads/photo.jpg"),
+            new MockHttpServletResponse());
+        // Remove the file behind the cache's back; only deleteFile invalidates
+        Files.delete(tempDir.resolve("photo.jpg"));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=500-509");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertArrayEquals(Arrays.copyOfRange(content, 500, 510), response.getContentAsByteArray());
+        assertEquals(1, hotImageCache.size());
+    }
+
+    @Test
+    void serve_AfterInvalidation_ShouldThrowNotFound() throws IOException {
+        // Arrange
+        imageFileServer.serve("photo.jpg", new MockHttpServletRequest("GET", "/uploads/photo.jpg"),
+            new MockHttpServletResponse());
+        Files.delete(tempDir.resolve("photo.jpg"));
+        hotImageCache.invalidate("photo.jpg");
+
+        // Act & Assert
+        assertThrows(ImageNotFoundException.class, () -> imageFileServer.serve("photo.jpg",
+            new MockHttpServletRequest("GET", "/uploads/photo.jpg"), new MockHttpServletResponse()));
+    }
+
+    @Test
+    void serve_WithMatchingIfNoneMatch_ShouldReturn304WithoutBody() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("photo.jpg");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("If-None-Match", "\"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals("\"" + HASH + "\"", response.getHeader("ETag"));
+        assertEquals("public, max-age=31536000, immutable", response.getHeader("Cache-Control"));
+        assertEquals(0, response.getContentAsByteArray().length);
+        verify(contentHashLookup).getContentHash("photo.jpg", file);
+    }
+
+    @Test
+    void serve_WithOtherIfNoneMatch_ShouldSendWholeFile() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("If-None-Match", "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void serve_WithStaleIfRange_ShouldIgnoreRange() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=100-199");
+        request.addHeader("If-Range", "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void serve_WithMatchingIfRange_ShouldSendPartialContent() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=100-199");
+        request.addHeader("If-Range", "\"" + HASH + "\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals(100, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serve_WithRange_ShouldSendPartialContent() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=100-199");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/1000", response.getHeader("Content-Range"));
+        assertEquals(100, response.getContentLengthLong());
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), response.getContentAsByteArray());
+    }
+
+    @Test
+    void serve_WithSuffixRange_ShouldSendLastBytes() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=-10");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 990-999/1000", response.getHeader("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(content, 990, 1000), response.getContentAsByteArray());
+    }
+
+    @Test
+    void serve_WithRangePastEnd_ShouldClampToFileSize() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=900-5000");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 900-999/1000", response.getHeader("Content-Range"));
+        assertEquals(100, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serve_WithUnsatisfiableRange_ShouldReturn416() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=1000-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */1000", response.getHeader("Content-Range"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serve_WithMultipleRanges_ShouldSendWholeFile() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/photo.jpg");
+        request.addHeader("Range", "bytes=0-9,20-29");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(content, response.getContentAsByteArray());
+    }
+
+    @Test
+    void serve_WithHead_ShouldSendHeadersOnly() throws IOException {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/uploads/photo.jpg");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("photo.jpg", request, response);
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(1000, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serve_WhenSendfileSupported_ShouldHandFileToConnector() throws IOException {
+        // Arrange
+        byte[] large = new byte[(int) ImageFileServer.SENDFILE_MIN_SIZE * 2];
+        Files.write(tempDir.resolve("large.png"), large);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/large.png");
+        request.setAttribute(ImageFileServer.SENDFILE_SUPPORTED, Boolean.TRUE);
+        request.addHeader("Range", "bytes=10-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        imageFileServer.serve("large.png", request, response);
+
+        // Assert
+        assertEquals(206, response.getStatus());
+        assertEquals(tempDir.resolve("large.png").toAbsolutePath().toString(),
+            request.getAttribute(ImageFileServer.SENDFILE_FILENAME));
+        assertEquals(10L, request.getAttribute(ImageFileServer.SENDFILE_START));
+        assertEquals((long) large.length, request.getAttribute(ImageFileServer.SENDFILE_END));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void serve_WithPathTraversal_ShouldThrowNotFound() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/x");
+
+        // Act & Assert
+        assertThrows(ImageNotFoundException.class,
+            () -> imageFileServer.serve("..\\secret.jpg", request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void serve_WithMissingFile_ShouldThrowNotFound() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/missing.jpg");
+
+        // Act & Assert
+        assertThrows(ImageNotFoundException.class,
+            () -> imageFileServer.serve("missing.jpg", request, new MockHttpServletResponse()));
+    }
+
+    @Test
+    void parseRange_WithMalformedHeader_ShouldIgnoreIt() {
+        // Act & Assert
+        assertNull(ImageFileServer.parseRange("bytes=abc-", 1000));
+        assertNull(ImageFileServer.parseRange("items=0-10", 1000));
+        assertNull(ImageFileServer.parseRange("bytes=20-10", 1000));
+    }
+}
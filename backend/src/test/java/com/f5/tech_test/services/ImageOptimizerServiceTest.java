@@ -0,0 +1,166 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageOptimizerConfig;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.repositories.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImageOptimizerServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private UploadPipeline uploadPipeline;
+
+    @Mock
+    private ImageRecompressor imageRecompressor;
+
+    @Mock
+    private UploadAdmissionService uploadAdmissionService;
+
+    @Mock
+    private UserStorageService userStorageService;
+
+    @Mock
+    private ImageOptimizerConfig config;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImageOptimizerService imageOptimizerService;
+    private Image image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(config.getBatchSize()).thenReturn(10);
+        when(config.getPause()).thenReturn(Duration.ZERO);
+        when(config.getMaxFileSize()).thenReturn(DataSize.ofMegabytes(20));
+        when(config.getMinSavings()).thenReturn(0.05);
+        when(imageRecompressor.supports("image/png")).thenReturn(true);
+
+        image = new Image();
+        image.setId(1L);
+        image.setFilename("old.png");
+        image.setContentType("image/png");
+        image.setFileSize(1000L);
+        User owner = new User();
+        owner.setId(7L);
+        image.setUser(owner);
+        Files.write(tempDir.resolve("old.png"), new byte[1000]);
+        when(fileStorageService.getFilePath("old.png")).thenReturn(tempDir.resolve("old.png"));
+        when(imageRepository.findOptimizationCandidates(eq(List.of("image/png")), anyLong(), any()))
+            .thenReturn(List.of(image));
+
+        imageOptimizerService = new ImageOptimizerService(imageRepository, fileStorageService, uploadPipeline,
+            imageRecompressor, uploadAdmissionService, userStorageService, config, transactionManager);
+    }
+
+    @Test
+    void optimizeBatch_WithSmallerResult_ShouldReplaceFile() throws IOException {
+        // Arrange
+        when(imageRecompressor.recompress(any(), eq("image/png"))).thenReturn(new byte[600]);
+        when(uploadPipeline.process(any(InputStream.class), eq("old.png")))
+            .thenReturn(new UploadResult("new.png", "hash", 600, null, null));
+        when(imageRepository.replaceFile(eq(1L), eq("old.png"), eq("new.png"), eq(600L), eq("hash"), any()))
+            .thenReturn(1);
+
+        // Act
+        long saved = imageOptimizerService.optimizeBatch();
+
+        // Assert
+        assertEquals(400, saved);
+        verify(userStorageService).recordReplaced(7L, "image/png", 1000L, "image/png", 600L);
+        verify(fileStorageService).deleteFile("old.png");
+        verify(fileStorageService, never()).deleteFile("new.png");
+    }
+
+    @Test
+    void optimizeBatch_WithSavingBelowThreshold_ShouldOnlyMarkImage() throws IOException {
+        // Arrange
+        when(imageRecompressor.recompress(any(), eq("image/png"))).thenReturn(new byte[980]);
+
+        // Act
+        long saved = imageOptimizerService.optimizeBatch();
+
+        // Assert
+        assertEquals(0, saved);
+        verify(imageRepository).markOptimized(eq(1L), any());
+        verify(uploadPipeline, never()).process(any(InputStream.class), anyString());
+        verify(fileStorageService, never()).deleteFile(anyString());
+    }
+
+    @Test
+    void optimizeBatch_WhenImageChangedMeanwhile_ShouldDiscardOptimizedFile() throws IOException {
+        // Arrange
+        when(imageRecompressor.recompress(any(), eq("image/png"))).thenReturn(new byte[600]);
+        when(uploadPipeline.process(any(InputStream.class), eq("old.png")))
+            .thenReturn(new UploadResult("new.png", "hash", 600, null, null));
+        when(imageRepository.replaceFile(anyLong(), anyString(), anyString(), anyLong(), anyString(), any()))
+            .thenReturn(0);
+
+        // Act
+        long saved = imageOptimizerService.optimizeBatch();
+
+        // Assert
+        assertEquals(0, saved);
+        verify(fileStorageService).deleteFile("new.png");
+        verify(fileStorageService, never()).deleteFile("old.png");
+        verify(userStorageService, never()).recordReplaced(anyLong(), any(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    void optimizeBatch_WhileUploadsInFlight_ShouldNotTouchImages() throws IOException {
+        // Arrange
+        when(uploadAdmissionService.getInFlight()).thenReturn(1);
+
+        // Act
+        long saved = imageOptimizerService.optimizeBatch();
+
+        // Assert
+        assertEquals(0, saved);
+        verify(imageRecompressor, never()).recompress(any(), anyString());
+        verify(imageRepository, never()).markOptimized(anyLong(), any());
+    }
+
+    @Test
+    void optimizeBatch_WhenRecompressionFails_ShouldMarkImage() throws IOException {
+        // Arrange
+        when(imageRecompressor.recompress(any(), eq("image/png"))).thenThrow(new IOException("corrupt"));
+
+        // Act
+        imageOptimizerService.optimizeBatch();
+
+        // Assert
+        verify(imageRepository).markOptimized(eq(1L), any());
+    }
+}
@@ -0,0 +1,168 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImagePlaceholderConfig;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.repositories.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImagePlaceholderBackfillServiceTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private ImagePlaceholderGenerator imagePlaceholderGenerator;
+
+    @Mock
+    private ImagePlaceholderConfig config;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImagePlaceholderBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getBackfillBatchSize()).thenReturn(2);
+        when(fileStorageService.getFilePath(anyString()))
+            .thenAnswer(invocation -> Path.of("uploads", invocation.<String>getArgument(0)));
+        when(imageRepository.updatePlaceholder(any(), anyString(), anyString())).thenReturn(1);
+        when(imageRepository.existsByPlaceholderIsNull()).thenReturn(true);
+
+        backfillService = new ImagePlaceholderBackfillService(imageRepository, fileStorageService,
+            imagePlaceholderGenerator, config, transactionManager);
+    }
+
+    @Test
+    void backfillBatch_ShouldStorePlaceholderForEachImage() throws IOException {
+        // Arrange
+        when(imageRepository.findPlaceholderCandidates(eq(0L), any())).thenReturn(List.of(image(1L), image(2L)));
+        when(imagePlaceholderGenerator.generate(any(Path.class))).thenReturn("L0TI:j");
+
+        // Act
+        int generated = backfillService.backfillBatch();
+
+        // Assert
+        assertEquals(2, generated);
+        verify(imageRepository).updatePlaceholder(1L, "1.jpg", "L0TI:j");
+        verify(imageRepository).updatePlaceholder(2L, "2.jpg", "L0TI:j");
+    }
+
+    @Test
+    void backfillBatch_ShouldContinueAfterLastImageOfPreviousRun() throws IOException {
+        // Arrange
+        when(imageRepository.findPlaceholderCandidates(eq(0L), any())).thenReturn(List.of(image(1L), image(2L)));
+        when(imageRepository.findPlaceholderCandidates(eq(2L), any())).thenReturn(List.of(image(5L)));
+        when(imagePlaceholderGenerator.generate(any(Path.class))).thenReturn("L0TI:j");
+
+        // Act
+        backfillService.backfillBatch();
+        int generated = backfillService.backfillBatch();
+
+        // Assert
+        assertEquals(1, generated);
+        verify(imageRepository).updatePlaceholder(5L, "5.jpg", "L0TI:j");
+    }
+
+    @Test
+    void backfillBatch_WithUndecodableImage_ShouldSkipItAndNotRetry() throws IOException {
+        // Arrange
+        when(imageRepository.findPlaceholderCandidates(eq(0L), any())).thenReturn(List.of(image(1L), image(2L)));
+        when(imagePlaceholderGenerator.generate(Path.of("uploads", "1.jpg"))).thenThrow(new IOException("broken"));
+        when(imagePlaceholderGenerator.generate(Path.of("uploads", "2.jpg"))).thenReturn("L0TI:j");
+
+        // Act
+        int generated = backfillService.backfillBatch();
+        backfillService.backfillBatch();
+
+        // Assert
+        assertEquals(1, generated);
+        verify(imageRepository, never()).updatePlaceholder(eq(1L), anyString(), anyString());
+        verify(imageRepository).findPlaceholderCandidates(eq(2L), any());
+    }
+
+    @Test
+    void backfillBatch_AfterReachingEnd_ShouldStartANewPass() throws IOException {
+        // Arrange
+        when(imageRepository.findPlaceholderCandidates(eq(1L), any())).thenReturn(List.of());
+        when(imageRepository.findPlaceholderCandidates(eq(0L), any()))
+            .thenReturn(List.of(image(1L)))
+            .thenReturn(List.of(image(7L)));
+        when(imagePlaceholderGenerator.generate(any(Path.class))).thenReturn("L0TI:j");
+
+        // Act
+        backfillService.backfillBatch();
+        backfillService.backfillBatch();
+        int generated = backfillService.backfillBatch();
+
+        // Assert
+        assertEquals(1, generated);
+        verify(imageRepository).updatePlaceholder(7L, "7.jpg", "L0TI:j");
+    }
+
+    @Test
+    void backfillBatch_WhenNoImageIsMissingAPlaceholder_ShouldOnlyCheckExistence() {
+        // Arrange
+        when(imageRepository.existsByPlaceholderIsNull()).thenReturn(false);
+
+        // Act
+        int generated = backfillService.backfillBatch();
+
+        // Assert
+        assertEquals(0, generated);
+        verify(imageRepository, never()).findPlaceholderCandidates(anyLong(), any());
+    }
+
+    @Test
+    void backfillBatch_OnLaterPass_ShouldSkipUndecodableImageUntilItIsReplaced() throws IOException {
+        // Arrange
+        Image replaced = image(1L);
+        replaced.setFilename("1-new.jpg");
+        when(imageRepository.findPlaceholderCandidates(eq(1L), any())).thenReturn(List.of());
+        when(imageRepository.findPlaceholderCandidates(eq(0L), any()))
+            .thenReturn(List.of(image(1L)))
+            .thenReturn(List.of(image(1L)))
+            .thenReturn(List.of(replaced));
+        when(imagePlaceholderGenerator.generate(Path.of("uploads", "1.jpg"))).thenThrow(new IOException("broken"));
+        when(imagePlaceholderGenerator.generate(Path.of("uploads", "1-new.jpg"))).thenReturn("L0TI:j");
+
+        // Act
+        backfillService.backfillBatch();
+        backfillService.backfillBatch();
+        backfillService.backfillBatch();
+        backfillService.backfillBatch();
+        int generated = backfillService.backfillBatch();
+
+        // Assert
+        assertEquals(1, generated);
+        verify(imagePlaceholderGenerator, times(1)).generate(Path.of("uploads", "1.jpg"));
+        verify(imageRepository).updatePlaceholder(1L, "1-new.jpg", "L0TI:j");
+    }
+
+    private Image image(Long id) {
+        Image image = new Image();
+        image.setId(id);
+        image.setFilename(id + ".jpg");
+        return image;
+    }
+}
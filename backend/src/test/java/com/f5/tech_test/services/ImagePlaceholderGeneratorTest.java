@@ -0,0 +1,113 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImagePlaceholderConfig;
+import com.f5.tech_test.config.ImageVariantConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImagePlaceholderGeneratorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ImagePlaceholderConfig config;
+    private ImagePlaceholderGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        ImageVariantConfig imageVariantConfig = mock(ImageVariantConfig.class);
+        when(imageVariantConfig.getJpegQuality()).thenReturn(0.85f);
+        config = mock(ImagePlaceholderConfig.class);
+        when(config.getComponentsX()).thenReturn(4);
+        when(config.getComponentsY()).thenReturn(3);
+        generator = new ImagePlaceholderGenerator(new ImageResizer(imageVariantConfig), config);
+    }
+
+    @Test
+    void encode_WithSolidColour_ShouldEncodeColourAsAverage() {
+        // Arrange
+        BufferedImage red = filled(BufferedImage.TYPE_INT_RGB, Color.RED);
+
+        // Act
+        String hash = ImagePlaceholderGenerator.encode(red, 4, 3);
+
+        // Assert
+        assertEquals(28, hash.length());
+        assertEquals('L', hash.charAt(0)); // 4x3 components
+        assertEquals("TI:j", hash.substring(2, 6)); // 0xFF0000 in base 83
+    }
+
+    @Test
+    void encode_WithTransparentPixels_ShouldBlendOntoWhite() {
+        // Arrange
+        BufferedImage transparent = new BufferedImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage white = filled(BufferedImage.TYPE_INT_RGB, Color.WHITE);
+
+        // Act & Assert
+        assertEquals(ImagePlaceholderGenerator.encode(white, 4, 3), ImagePlaceholderGenerator.encode(transparent, 4, 3));
+    }
+
+    @Test
+    void generate_ShouldEncodeDetailFromFile() throws IOException {
+        // Arrange
+        BufferedImage image = new BufferedImage(1200, 800, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, 600, 800);
+        graphics.setColor(Color.YELLOW);
+        graphics.fillRect(600, 0, 600, 800);
+        graphics.dispose();
+        Path file = tempDir.resolve("split.png");
+        ImageIO.write(image, "png", file.toFile());
+
+        Path solid = tempDir.resolve("solid.png");
+        ImageIO.write(filled(BufferedImage.TYPE_INT_RGB, Color.BLUE), "png", solid.toFile());
+
+        // Act
+        String hash = generator.generate(file);
+
+        // Assert
+        assertEquals(28, hash.length());
+        assertNotEquals(generator.generate(solid), hash);
+    }
+
+    @Test
+    void generate_WithUndecodableFile_ShouldThrow() throws IOException {
+        // Arrange
+        Path file = Files.write(tempDir.resolve("broken.jpg"), new byte[] {1, 2, 3});
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> generator.generate(file));
+    }
+
+    @Test
+    void constructor_WithTooManyComponents_ShouldThrow() {
+        // Arrange
+        when(config.getComponentsX()).thenReturn(10);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new ImagePlaceholderGenerator(mock(ImageResizer.class), config));
+    }
+
+    private BufferedImage filled(int type, Color color) {
+        BufferedImage image = new BufferedImage(8, 8, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, 8, 8);
+        graphics.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,129 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageOptimizerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageRecompressorTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ImageOptimizerConfig config;
+    private ImageRecompressor imageRecompressor;
+
+    @BeforeEach
+    void setUp() {
+        config = mock(ImageOptimizerConfig.class);
+        when(config.getJpegQuality()).thenReturn(0.5f);
+        imageRecompressor = new ImageRecompressor(config);
+    }
+
+    @Test
+    void recompress_WithUncompressedPng_ShouldShrinkWithoutChangingPixels() throws IOException {
+        // Arrange
+        BufferedImage image = gradient(BufferedImage.TYPE_INT_ARGB);
+        Path source = write("image.png", encode(image, "png", 1f));
+
+        // Act
+        byte[] result = imageRecompressor.recompress(source, "image/png");
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.length < Files.size(source));
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result));
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals(image.getRGB(x, y), decoded.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    void recompress_WithJpegWhenDisabled_ShouldReturnNull() throws IOException {
+        // Arrange
+        Path source = write("image.jpg", encode(gradient(BufferedImage.TYPE_INT_RGB), "jpeg", 1f));
+
+        // Act
+        byte[] result = imageRecompressor.recompress(source, "image/jpeg");
+
+        // Assert
+        assertNull(result);
+        assertFalse(imageRecompressor.supports("image/jpeg"));
+    }
+
+    @Test
+    void recompress_WithHighQualityJpegWhenEnabled_ShouldReencodeSmaller() throws IOException {
+        // Arrange
+        when(config.isJpegEnabled()).thenReturn(true);
+        Path source = write("image.jpg", encode(gradient(BufferedImage.TYPE_INT_RGB), "jpeg", 1f));
+
+        // Act
+        byte[] result = imageRecompressor.recompress(source, "image/jpeg");
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.length < Files.size(source));
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result));
+        assertEquals(200, decoded.getWidth());
+        assertEquals(100, decoded.getHeight());
+    }
+
+    @Test
+    void recompress_WithGif_ShouldReturnNull() throws IOException {
+        // Arrange
+        Path source = write("image.gif", encode(gradient(BufferedImage.TYPE_INT_RGB), "gif", 1f));
+
+        // Act & Assert
+        assertNull(imageRecompressor.recompress(source, "image/gif"));
+        assertFalse(imageRecompressor.supports("image/gif"));
+    }
+
+    private BufferedImage gradient(int type) {
+        BufferedImage image = new BufferedImage(200, 100, type);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, 0xFF000000 | (x << 16) | (y << 8) | ((x * y) & 0xFF));
+            }
+        }
+        return image;
+    }
+
+    private byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed() && !"gif".equals(format)) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+        return Files.write(tempDir.resolve(name), content);
+    }
+}
@@ -0,0 +1,117 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageResizeConfig;
+import com.f5.tech_test.config.ImageVariantConfig;
+import com.f5.tech_test.config.TestFileStorageConfig;
+import com.f5.tech_test.exceptions.ImageNotFoundException;
+import com.f5.tech_test.exceptions.InvalidImageException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ImageResizeServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ImageResizer imageResizer;
+    private ImageResizeService imageResizeService;
+    private String filename;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path uploads = Files.createDirectory(tempDir.resolve("uploads"));
+        LocalFileStorageService fileStorageService = new LocalFileStorageService(new TestFileStorageConfig(uploads.toString()), mock(HotImageCache.class));
+
+        ImageResizeConfig resizeConfig = mock(ImageResizeConfig.class);
+        when(resizeConfig.getMaxDimension()).thenReturn(2000);
+        when(resizeConfig.getMemoryCacheMaxSize()).thenReturn(DataSize.ofMegabytes(1));
+        when(resizeConfig.getDiskCacheMaxSize()).thenReturn(DataSize.ofMegabytes(1));
+        when(resizeConfig.getDiskCacheDir()).thenReturn(tempDir.resolve("cache").toString());
+
+        ImageVariantConfig variantConfig = mock(ImageVariantConfig.class);
+        when(variantConfig.getJpegQuality()).thenReturn(0.85f);
+
+        imageResizer = spy(new ImageResizer(variantConfig));
+        imageResizeService = new ImageResizeService(fileStorageService, new ImageDimensionProbe(), imageResizer,
+            new VariantCache(resizeConfig), resizeConfig);
+
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "jpg", original);
+        filename = fileStorageService.storeFile(new ByteArrayInputStream(original.toByteArray()), "photo.jpg");
+    }
+
+    @Test
+    void resize_WithContain_ShouldFitInsideBox() throws IOException {
+        // Act
+        ResizedImage result = imageResizeService.resize(filename, 100, 100, "contain");
+
+        // Assert
+        assertEquals("image/jpeg", result.contentType());
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result.content()));
+        assertEquals(100, decoded.getWidth());
+        assertEquals(50, decoded.getHeight());
+    }
+
+    @Test
+    void resize_WithCover_ShouldFillBoxAndCrop() throws IOException {
+        // Act
+        ResizedImage result = imageResizeService.resize(filename, 100, 100, "cover");
+
+        // Assert
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result.content()));
+        assertEquals(100, decoded.getWidth());
+        assertEquals(100, decoded.getHeight());
+    }
+
+    @Test
+    void resize_WithOnlyHeight_ShouldKeepAspectRatio() throws IOException {
+        // Act
+        ResizedImage result = imageResizeService.resize(filename, null, 50, null);
+
+        // Assert
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(result.content()));
+        assertEquals(100, decoded.getWidth());
+        assertEquals(50, decoded.getHeight());
+    }
+
+    @Test
+    void resize_RepeatedRequest_ShouldBeServedFromCache() throws IOException {
+        // Act
+        ResizedImage first = imageResizeService.resize(filename, 120, null, null);
+        ResizedImage second = imageResizeService.resize(filename, 120, null, null);
+
+        // Assert
+        assertArrayEquals(first.content(), second.content());
+        verify(imageResizer, times(1)).decode(any(Path.class), anyInt(), anyInt());
+    }
+
+    @Test
+    void resize_WithInvalidParameters_ShouldThrowException() {
+        // Act & Assert
+        assertThrows(InvalidImageException.class, () -> imageResizeService.resize(filename, 0, null, null));
+        assertThrows(InvalidImageException.class, () -> imageResizeService.resize(filename, 5000, null, null));
+        assertThrows(InvalidImageException.class, () -> imageResizeService.resize(filename, 100, null, "stretch"));
+    }
+
+    @Test
+    void resize_WithUnknownFile_ShouldThrowNotFound() {
+        // Act & Assert
+        assertThrows(ImageNotFoundException.class, () -> imageResizeService.resize("missing.jpg", 100, null, null));
+        assertThrows(ImageNotFoundException.class, () -> imageResizeService.resize("..", 100, null, null));
+    }
+}
@@ -0,0 +1,166 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.repositories.SearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageSearchIndexTest {
+
+    private ImageSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ImageSearchIndex();
+    }
+
+    @Test
+    void search_ShouldMatchWordsInAnyField() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Sunset", null, "IMG_001.jpg"));
+        index.put(new SearchDocument(2L, 1L, null, "Sunset over the harbour", "IMG_002.jpg"));
+        index.put(new SearchDocument(3L, 1L, null, null, "sunset-harbour.png"));
+        index.put(new SearchDocument(4L, 1L, "Mountains", null, "IMG_004.jpg"));
+
+        // Act
+        List<Long> result = index.search(1L, "sunset", 10);
+
+        // Assert
+        assertEquals(List.of(1L, 3L, 2L), result, "title beats filename beats description");
+    }
+
+    @Test
+    void search_ShouldRequireEveryWord() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Beach day", "With the dog", "a.jpg"));
+        index.put(new SearchDocument(2L, 1L, "Beach night", null, "b.jpg"));
+
+        // Act & Assert
+        assertEquals(List.of(1L), index.search(1L, "beach dog", 10));
+        assertEquals(List.of(), index.search(1L, "beach cat", 10));
+    }
+
+    @Test
+    void search_ShouldMatchPrefixesBelowExactWords() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Catalog cover", null, "a.jpg"));
+        index.put(new SearchDocument(2L, 1L, "Cat cover", null, "b.jpg"));
+
+        // Act & Assert
+        assertEquals(List.of(2L, 1L), index.search(1L, "cat", 10));
+        assertEquals(List.of(1L), index.search(1L, "catal", 10));
+    }
+
+    @Test
+    void search_ShouldIgnoreCaseAndAccents() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Día de PLAYA", null, "café.jpg"));
+
+        // Act & Assert
+        assertEquals(List.of(1L), index.search(1L, "dia playa", 10));
+        assertEquals(List.of(1L), index.search(1L, "CAFE", 10));
+    }
+
+    @Test
+    void search_ShouldOnlyReturnImagesOfTheUser() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Beach", null, "a.jpg"));
+        index.put(new SearchDocument(2L, 2L, "Beach", null, "b.jpg"));
+
+        // Act & Assert
+        assertEquals(List.of(1L), index.search(1L, "beach", 10));
+        assertEquals(List.of(2L), index.search(2L, "beach", 10));
+        assertEquals(List.of(), index.search(3L, "beach", 10));
+    }
+
+    @Test
+    void search_ShouldStopAtLimit() {
+        // Arrange
+        for (long id = 1; id <= 5; id++) {
+            index.put(new SearchDocument(id, 1L, "Beach", null, "a.jpg"));
+        }
+
+        // Act & Assert
+        assertEquals(List.of(5L, 4L), index.search(1L, "beach", 2), "ties go to the newest image");
+    }
+
+    @Test
+    void search_WithoutWords_ShouldReturnNothing() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Beach", null, "a.jpg"));
+
+        // Act & Assert
+        assertEquals(List.of(), index.search(1L, " - ! ", 10));
+    }
+
+    @Test
+    void put_ShouldReplacePreviousText() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Beach", null, "a.jpg"));
+
+        // Act
+        index.put(new SearchDocument(1L, 1L, "Forest", null, "a.jpg"));
+
+        // Assert
+        assertEquals(List.of(), index.search(1L, "beach", 10));
+        assertEquals(List.of(1L), index.search(1L, "forest", 10));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropImage() {
+        // Arrange
+        index.put(new SearchDocument(1L, 1L, "Beach", null, "a.jpg"));
+        long modifications = index.modifications();
+
+        // Act
+        index.remove(1L, 1L);
+
+        // Assert
+        assertEquals(List.of(), index.search(1L, "beach", 10));
+        assertEquals(0, index.size());
+        assertTrue(index.modifications() > modifications);
+    }
+
+    @Test
+    void writeTo_ShouldRoundTripThroughFile(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("index").resolve("images.idx");
+        LocalDateTime takenAt = LocalDateTime.of(2024, 5, 1, 12, 30);
+        index.put(new SearchDocument(1L, 1L, "Catalog cover", "Spring edition", "a.jpg"));
+        index.put(new SearchDocument(2L, 1L, "Cat cover", null, "b.jpg"));
+        index.put(new SearchDocument(3L, 2L, "Beach", null, "c.jpg"));
+        index.writeTo(file, takenAt);
+
+        // Act
+        ImageSearchIndex loaded = new ImageSearchIndex();
+        LocalDateTime loadedTakenAt = loaded.readFrom(file);
+
+        // Assert
+        assertEquals(takenAt, loadedTakenAt);
+        assertEquals(3, loaded.size());
+        assertEquals(index.search(1L, "cat", 10), loaded.search(1L, "cat", 10));
+        assertEquals(List.of(1L), loaded.search(1L, "spring", 10));
+        assertEquals(List.of(3L), loaded.search(2L, "beach", 10));
+    }
+
+    @Test
+    void readFrom_WithCorruptFile_ShouldThrowAndLeaveIndexEmpty(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path file = directory.resolve("images.idx");
+        Files.write(file, new byte[] {1, 2, 3});
+        index.put(new SearchDocument(1L, 1L, "Beach", null, "a.jpg"));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> index.readFrom(file));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,169 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageSearchConfig;
+import com.f5.tech_test.events.ImageDeletedEvent;
+import com.f5.tech_test.events.ImageTextChangedEvent;
+import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.SearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImageSearchIndexerTest {
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageSearchConfig imageSearchConfig;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private ImageSearchIndex index;
+    private Path indexFile;
+
+    @BeforeEach
+    void setUp() {
+        index = new ImageSearchIndex();
+        indexFile = directory.resolve("images.idx");
+        when(imageSearchConfig.getIndexFile()).thenReturn(indexFile.toString());
+        when(imageSearchConfig.getRebuildThreads()).thenReturn(2);
+        when(imageSearchConfig.getRebuildBatchSize()).thenReturn(2);
+        when(imageRepository.findSearchDocuments(anyLong(), anyLong(), any(Pageable.class))).thenReturn(List.of());
+    }
+
+    private ImageSearchIndexer indexer() {
+        return new ImageSearchIndexer(index, imageRepository, imageSearchConfig, transactionManager);
+    }
+
+    @Test
+    void load_WithoutSnapshot_ShouldRebuildFromTableInSlices() {
+        // Arrange
+        when(imageRepository.findMaxId()).thenReturn(5L);
+        when(imageRepository.findSearchDocuments(eq(0L), eq(3L), any(Pageable.class))).thenReturn(List.of(
+            new SearchDocument(1L, 1L, "Beach", null, "a.jpg"),
+            new SearchDocument(2L, 1L, "Beach party", null, "b.jpg")));
+        when(imageRepository.findSearchDocuments(eq(2L), eq(3L), any(Pageable.class))).thenReturn(List.of(
+            new SearchDocument(3L, 2L, "Beach", null, "c.jpg")));
+        when(imageRepository.findSearchDocuments(eq(3L), eq(5L), any(Pageable.class))).thenReturn(List.of(
+            new SearchDocument(5L, 1L, "Forest", null, "e.jpg")));
+
+        // Act
+        indexer().load();
+
+        // Assert
+        assertEquals(4, index.size());
+        assertEquals(List.of(1L, 2L), index.search(1L, "beach", 10));
+        assertEquals(List.of(3L), index.search(2L, "beach", 10));
+        assertEquals(List.of(5L), index.search(1L, "forest", 10));
+        verify(imageRepository, never()).findSearchDocumentsModifiedSince(any());
+    }
+
+    @Test
+    void load_WithSnapshot_ShouldCatchUpOnImagesModifiedSince() throws IOException {
+        // Arrange
+        LocalDateTime takenAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        index.put(new SearchDocument(1L, 1L, "Beach", null, "a.jpg"));
+        index.put(new SearchDocument(2L, 1L, "Beach", null, "b.jpg"));
+        index.writeTo(indexFile, takenAt);
+        index.clear();
+        when(imageRepository.findSearchDocumentsModifiedSince(takenAt.minus(ImageSearchIndexer.CATCH_UP_MARGIN)))
+            .thenReturn(List.of(new SearchDocument(2L, 1L, "Forest", null, "b.jpg")));
+
+        // Act
+        indexer().load();
+
+        // Assert
+        assertEquals(List.of(1L), index.search(1L, "beach", 10));
+        assertEquals(List.of(2L), index.search(1L, "forest", 10));
+        verify(imageRepository, never()).findMaxId();
+    }
+
+    @Test
+    void load_WithCorruptSnapshot_ShouldRebuild() throws IOException {
+        // Arrange
+        Files.write(indexFile, new byte[] {1, 2, 3});
+        when(imageRepository.findMaxId()).thenReturn(1L);
+        when(imageRepository.findSearchDocuments(eq(0L), eq(1L), any(Pageable.class))).thenReturn(List.of(
+            new SearchDocument(1L, 1L, "Beach", null, "a.jpg")));
+
+        // Act
+        indexer().load();
+
+        // Assert
+        assertEquals(List.of(1L), index.search(1L, "beach", 10));
+    }
+
+    @Test
+    void events_ShouldUpdateIndex() {
+        // Arrange
+        ImageSearchIndexer indexer = indexer();
+
+        // Act
+        indexer.onImageTextChanged(new ImageTextChangedEvent(1L, 1L, "Beach", "Sand", "a.jpg"));
+        indexer.onImageTextChanged(new ImageTextChangedEvent(2L, 1L, "Beach", null, "b.jpg"));
+        indexer.onImageDeleted(new ImageDeletedEvent(2L, 1L));
+
+        // Assert
+        assertEquals(List.of(1L), index.search(1L, "beach", 10));
+    }
+
+    @Test
+    void flush_ShouldWriteOnlyWhenIndexChanged() throws IOException {
+        // Arrange
+        ImageSearchIndexer indexer = indexer();
+        indexer.onImageTextChanged(new ImageTextChangedEvent(1L, 1L, "Beach", null, "a.jpg"));
+
+        // Act
+        indexer.flush();
+        Files.delete(indexFile);
+        indexer.flush();
+
+        // Assert
+        assertFalse(Files.exists(indexFile), "unchanged index is not written again");
+        indexer.onImageDeleted(new ImageDeletedEvent(1L, 1L));
+        indexer.flush();
+        assertTrue(Files.exists(indexFile));
+    }
+
+    @Test
+    void flush_WithoutIndexFile_ShouldKeepIndexInMemory() throws IOException {
+        // Arrange
+        when(imageSearchConfig.getIndexFile()).thenReturn("");
+        ImageSearchIndexer indexer = indexer();
+        indexer.onImageTextChanged(new ImageTextChangedEvent(1L, 1L, "Beach", null, "a.jpg"));
+
+        // Act
+        indexer.flush();
+
+        // Assert
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -1,16 +1,31 @@
 package com.f5.tech_test.services;
 
 import com.f5.tech_test.config.FileStorageConfig;
+import com.f5.tech_test.config.ImageBatchConfig;
+import com.f5.tech_test.config.ImagePageConfig;
+import com.f5.tech_test.dto.BatchUploadItemDTO;
 import com.f5.tech_test.dto.ImageDTO;
 import com.f5.tech_test.entities.Image;
 import com.f5.tech_test.entities.User;
+import com.f5.tech_test.events.ImageDeletedEvent;
+import com.f5.tech_test.events.ImageTextChangedEvent;
+import com.f5.tech_test.events.ImageUploadedEvent;
 import com.f5.tech_test.exceptions.ImageNotFoundException;
 import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
 import com.f5.tech_test.mappers.ImageMapper;
 import com.f5.tech_test.repositories.ImageRepository;
+import com.f5.tech_test.repositories.ImageSummary;
+import com.f5.tech_test.repositories.ImageVariantRepository;
+import com.f5.tech_test.repositories.VariantSummary;
 import com.f5.tech_test.repositories.UserRepository;
 import com.f5.tech_test.services.ImageService;
 import com.f5.tech_test.services.FileStorageService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -24,6 +39,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
@@ -33,7 +49,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -42,7 +60,10 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -57,6 +78,9 @@ class ImageServiceTest {
     @Mock
     private ImageRepository imageRepository;
 
+    @Mock
+    private ImageVariantRepository imageVariantRepository;
+
     @Mock
     private ImageMapper imageMapper;
 
@@ -66,6 +90,36 @@ class ImageServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UploadPipeline uploadPipeline;
+
+    @Spy
+    private ImageTypeSniffer imageTypeSniffer = new ImageTypeSniffer();
+
+    @Mock
+    private ImageSearchIndex imageSearchIndex;
+
+    @Mock
+    private UserStorageService userStorageService;
+
+    @Mock
+    private RecentWriteTracker recentWriteTracker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ImageBatchConfig imageBatchConfig;
+
+    @Mock
+    private ImagePageConfig imagePageConfig;
+
+    @Spy
+    private SyncTaskExecutor batchUploadExecutor = new SyncTaskExecutor();
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private SecurityContext securityContext;
 
@@ -83,13 +137,18 @@ class ImageServiceTest {
     private User otherUser;
     private static final Logger logger = LoggerFactory.getLogger(ImageServiceTest.class);
 
+    // Just the signatures; the pipeline is mocked so nothing is decoded
+    private static final byte[] JPEG_CONTENT = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0, 0x10, 'J', 'F', 'I', 'F', 0, 1};
+    private static final byte[] PNG_CONTENT = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0x0D};
+    private static final byte[] WEBP_CONTENT = {'R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E', 'B', 'P'};
+
     @BeforeEach
     void setUp() {
         validImage = new MockMultipartFile(
             "image",
             "test.jpg",
             "image/jpeg",
-            "test image content".getBytes()
+            JPEG_CONTENT
         );
 
         invalidFile = new MockMultipartFile(
@@ -132,6 +191,10 @@ class ImageServiceTest {
         testImageDTO.setUrl("http://localhost:8080/uploads/test.jpg");
 
         when(fileStorageConfig.getBaseUrl()).thenReturn("http://localhost:8080/uploads");
+        when(imageBatchConfig.getMaxFiles()).thenReturn(100);
+        when(imagePageConfig.getDefaultLimit()).thenReturn(2);
+        when(imagePageConfig.getMaxLimit()).thenReturn(3);
+        when(fileStorageConfig.getMaxUploadSize()).thenReturn(DataSize.ofKilobytes(1));
         
         // Setup SecurityContext mock with UserDetails
         UserDetails userDetails = org.springframework.security.core.userdetails.User.withUsername(testUser.getUsername())
@@ -150,8 +213,9 @@ class ImageServiceTest {
     @Test
     void uploadImage_WithValidImage_ShouldReturnImageDTO() throws IOException {
         // Arrange
-        String filename = "test.jpg";
-        when(fileStorageService.storeFile(any(MultipartFile.class))).thenReturn(filename);
+        UploadResult upload = new UploadResult("test.jpg", "abc123", 18L, new ImageDimensions(800, 600),
+            new UploadTimings(0, 0, 0, 0));
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(upload);
         when(imageRepository.save(any(Image.class))).thenReturn(testImage);
         when(imageMapper.toDTO(any(Image.class), eq("http://localhost:8080/uploads"))).thenReturn(testImageDTO);
 
@@ -165,9 +229,231 @@ class ImageServiceTest {
         assertEquals(testImageDTO.getDescription(), result.getDescription());
         assertEquals(testImageDTO.getUrl(), result.getUrl());
         
-        verify(fileStorageService).storeFile(eq(validImage));
-        verify(imageRepository).save(any(Image.class));
+        verify(uploadPipeline).process(any(InputStream.class), eq("test.jpg"));
+        verify(imageRepository).save(argThat(image ->
+            "test.jpg".equals(image.getFilename())
+                && "abc123".equals(image.getContentHash())
+                && image.getFileSize() == 18L
+                && image.getWidth() == 800
+                && image.getHeight() == 600));
         verify(imageMapper).toDTO(any(Image.class), anyString());
+        verify(userStorageService).recordAdded(eq(testUser.getId()), argThat(images ->
+            images.size() == 1 && images.get(0).getFileSize() == 18L));
+        verify(eventPublisher).publishEvent(new ImageUploadedEvent(testImage.getId(), testImage.getFilename()));
+        verify(eventPublisher).publishEvent(new ImageTextChangedEvent(testImage.getId(), testUser.getId(),
+            testImage.getTitle(), testImage.getDescription(), testImage.getOriginalFilename()));
+    }
+
+    @Test
+    void uploadImage_OverStorageQuota_ShouldDeleteStoredFileAndNotSave() throws IOException {
+        // Arrange
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(
+            new UploadResult("stored.jpg", "abc123", 18L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0)));
+        doThrow(new StorageQuotaExceededException("Storage quota of 1KB exceeded"))
+            .when(userStorageService).recordAdded(eq(testUser.getId()), anyList());
+
+        // Act & Assert
+        assertThrows(StorageQuotaExceededException.class,
+            () -> imageService.uploadImage(validImage, "Test Title", "Test Description"));
+        verify(fileStorageService).deleteFile("stored.jpg");
+        verify(imageRepository, never()).save(any(Image.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void uploadImage_WhenDimensionsCannotBeRead_ShouldDeleteStoredFileAndThrow() throws IOException {
+        // Arrange
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(
+            new UploadResult("stored.jpg", "abc123", 18L, null, new UploadTimings(0, 0, 0, 0)));
+
+        // Act & Assert
+        assertThrows(InvalidImageException.class,
+            () -> imageService.uploadImage(validImage, "Test Title", "Test Description"));
+        verify(fileStorageService).deleteFile("stored.jpg");
+        verify(imageRepository, never()).save(any(Image.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void uploadImage_WhenQuotaIsAlreadyFull_ShouldThrowBeforeStoring() throws IOException {
+        // Arrange
+        doThrow(new StorageQuotaExceededException("Storage quota of 10 images exceeded"))
+            .when(userStorageService).checkQuota(testUser.getId(), 0, 1);
+
+        // Act & Assert
+        assertThrows(StorageQuotaExceededException.class,
+            () -> imageService.uploadImage(validImage, "Test Title", "Test Description"));
+        verify(uploadPipeline, never()).process(any(), any());
+    }
+
+    @Test
+    void uploadImage_ShouldLeavePlaceholderToVariantPipeline() throws IOException {
+        // Arrange
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(
+            new UploadResult("stored.jpg", "abc123", 12L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0)));
+        when(imageRepository.save(any(Image.class))).thenReturn(testImage);
+
+        // Act
+        imageService.uploadImage(validImage, null, null);
+
+        // Assert
+        verify(imageRepository).save(argThat(image -> "stored.jpg".equals(image.getFilename())
+            && image.getPlaceholder() == null));
+        verify(fileStorageService, never()).getFilePath(any());
+    }
+
+    @Test
+    void uploadImage_WithContentNotMatchingDeclaredType_ShouldThrowBeforeStoring() throws IOException {
+        // Arrange
+        MockMultipartFile pngSentAsJpeg = new MockMultipartFile("image", "photo.jpg", "image/jpeg", PNG_CONTENT);
+        MockMultipartFile textSentAsJpeg = new MockMultipartFile("image", "photo.jpg", "image/jpeg", "not an image".getBytes());
+
+        // Act & Assert
+        assertThrows(InvalidImageException.class, () -> imageService.uploadImage(pngSentAsJpeg, null, null));
+        assertThrows(InvalidImageException.class, () -> imageService.uploadImage(textSentAsJpeg, null, null));
+        verify(uploadPipeline, never()).process(any(), any());
+        verify(imageRepository, never()).save(any(Image.class));
+    }
+
+    @Test
+    void uploadImage_WithWebp_ShouldThrowUnsupportedType() throws IOException {
+        // Arrange
+        MockMultipartFile webpSentAsPng = new MockMultipartFile("image", "photo.webp", "image/png", WEBP_CONTENT);
+
+        // Act & Assert
+        InvalidImageException exception = assertThrows(InvalidImageException.class,
+            () -> imageService.uploadImage(webpSentAsPng, null, null));
+        assertTrue(exception.getMessage().startsWith("Invalid file type"));
+        verify(uploadPipeline, never()).process(any(), any());
+    }
+
+    @Test
+    void uploadImage_ShouldPassStreamPositionedAtFirstByte() throws IOException {
+        // Arrange
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenAnswer(invocation -> {
+            assertArrayEquals(JPEG_CONTENT, ((InputStream) invocation.getArgument(0)).readAllBytes());
+            return new UploadResult("test.jpg", "abc123", 12L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0));
+        });
+        when(imageRepository.save(any(Image.class))).thenReturn(testImage);
+
+        // Act
+        imageService.uploadImage(validImage, null, null);
+
+        // Assert
+        verify(imageRepository).save(argThat(image -> "image/jpeg".equals(image.getContentType())));
+    }
+
+    @Test
+    void uploadImageStream_WithValidBody_ShouldStoreAndSaveImage() throws IOException {
+        // Arrange
+        when(uploadPipeline.process(any(InputStream.class), eq("stream.jpg"))).thenAnswer(invocation -> {
+            assertArrayEquals(JPEG_CONTENT, ((InputStream) invocation.getArgument(0)).readAllBytes());
+            return new UploadResult("stored.jpg", "abc123", 12L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0));
+        });
+        when(imageRepository.save(any(Image.class))).thenReturn(testImage);
+        when(imageMapper.toDTO(any(Image.class), anyString())).thenReturn(testImageDTO);
+
+        // Act
+        ImageDTO result = imageService.uploadImageStream(new ByteArrayInputStream(JPEG_CONTENT), JPEG_CONTENT.length,
+            "stream.jpg", "image/jpeg", "Title", null);
+
+        // Assert
+        assertEquals(testImageDTO.getId(), result.getId());
+        verify(imageRepository).save(argThat(image ->
+            "stored.jpg".equals(image.getFilename()) && "Title".equals(image.getTitle()) && image.getUser() == testUser));
+        verify(eventPublisher).publishEvent(new ImageUploadedEvent(testImage.getId(), testImage.getFilename()));
+    }
+
+    @Test
+    void uploadImageStream_WithDeclaredLengthOverLimit_ShouldThrowBeforeReading() throws IOException {
+        // Arrange
+        InputStream body = mock(InputStream.class);
+
+        // Act & Assert
+        assertThrows(UploadTooLargeException.class, () -> imageService.uploadImageStream(body, 2048,
+            "big.jpg", "image/jpeg", null, null));
+        verify(body, never()).read(any(byte[].class), anyInt(), anyInt());
+        verify(uploadPipeline, never()).process(any(), any());
+    }
+
+    @Test
+    void uploadImageStream_WithUnknownLengthOverLimit_ShouldAbortWhileStoring() throws IOException {
+        // Arrange
+        byte[] oversized = Arrays.copyOf(JPEG_CONTENT, 4096);
+        when(uploadPipeline.process(any(InputStream.class), eq("big.jpg"))).thenAnswer(invocation -> {
+            ((InputStream) invocation.getArgument(0)).readAllBytes();
+            return new UploadResult("stored.jpg", "abc123", 4096L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0));
+        });
+
+        // Act & Assert
+        assertThrows(UploadTooLargeException.class, () -> imageService.uploadImageStream(
+            new ByteArrayInputStream(oversized), -1, "big.jpg", "image/jpeg", null, null));
+        verify(imageRepository, never()).save(any(Image.class));
+    }
+
+    @Test
+    void uploadImages_WithMixedFiles_ShouldReturnResultPerFileInOrder() throws IOException {
+        // Arrange
+        MockMultipartFile secondImage = new MockMultipartFile("image", "second.png", "image/png", PNG_CONTENT);
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(
+            new UploadResult("stored-1.jpg", "hash1", 18L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0)));
+        when(uploadPipeline.process(any(InputStream.class), eq("second.png"))).thenReturn(
+            new UploadResult("stored-2.png", "hash2", 3L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0)));
+        when(imageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Image> images = invocation.getArgument(0);
+            for (int i = 0; i < images.size(); i++) {
+                images.get(i).setId(10L + i);
+            }
+            return images;
+        });
+        when(imageMapper.toDTO(any(Image.class), anyString())).thenAnswer(invocation -> {
+            ImageDTO dto = new ImageDTO();
+            dto.setId(((Image) invocation.getArgument(0)).getId());
+            return dto;
+        });
+
+        // Act
+        List<BatchUploadItemDTO> results = imageService.uploadImages(List.of(validImage, invalidFile, secondImage));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(10L, results.get(0).getImage().getId());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("test.txt", results.get(1).getOriginalFilename());
+        assertNotNull(results.get(1).getError());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(11L, results.get(2).getImage().getId());
+
+        verify(imageRepository, times(1)).saveAll(argThat(images -> {
+            List<Image> list = (List<Image>) images;
+            return list.size() == 2 && list.stream().allMatch(image -> image.getUser() == testUser);
+        }));
+        verify(imageRepository, never()).save(any(Image.class));
+        verify(eventPublisher).publishEvent(new ImageUploadedEvent(10L, "stored-1.jpg"));
+        verify(eventPublisher).publishEvent(new ImageUploadedEvent(11L, "stored-2.png"));
+    }
+
+    @Test
+    void uploadImages_WhenInsertFails_ShouldDeleteStoredFiles() throws IOException {
+        // Arrange
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(
+            new UploadResult("stored-1.jpg", "hash1", 18L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0)));
+        when(imageRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> imageService.uploadImages(List.of(validImage)));
+        verify(fileStorageService).deleteFile("stored-1.jpg");
+    }
+
+    @Test
+    void uploadImages_WithTooManyFiles_ShouldThrowException() throws IOException {
+        // Arrange
+        when(imageBatchConfig.getMaxFiles()).thenReturn(1);
+
+        // Act & Assert
+        assertThrows(InvalidImageException.class, () -> imageService.uploadImages(List.of(validImage, validImage)));
+        verify(uploadPipeline, never()).process(any(), any());
     }
 
     @Test
@@ -175,7 +461,7 @@ class ImageServiceTest {
         // Act & Assert
         assertThrows(InvalidImageException.class, 
             () -> imageService.uploadImage(invalidFile, "Test Title", "Test Description"));
-        verify(fileStorageService, never()).storeFile(any());
+        verify(uploadPipeline, never()).process(any(), any());
         verify(imageRepository, never()).save(any(Image.class));
         verify(imageMapper, never()).toDTO(any(), any());
     }
@@ -189,7 +475,9 @@ class ImageServiceTest {
         // Act & Assert
         assertDoesNotThrow(() -> imageService.deleteImage(imageId));
         verify(fileStorageService).deleteFile(testImage.getFilename());
+        verify(userStorageService).recordRemoved(testUser.getId(), testImage);
         verify(imageRepository).delete(testImage);
+        verify(eventPublisher).publishEvent(new ImageDeletedEvent(imageId, testUser.getId()));
     }
 
     @Test
@@ -206,6 +494,7 @@ class ImageServiceTest {
             () -> imageService.deleteImage(imageId));
         assertEquals("You can only delete your own images", exception.getMessage());
         verify(fileStorageService, never()).deleteFile(anyString());
+        verify(userStorageService, never()).recordRemoved(any(), any());
         verify(imageRepository, never()).delete(any(Image.class));
     }
 
@@ -222,45 +511,98 @@ class ImageServiceTest {
     }
 
     @Test
-    void getAllImages_ShouldReturnOnlyUserImages() {
+    void getImages_ShouldReturnOnlyUserImages() {
         // Arrange
-        List<Image> userImages = Arrays.asList(testImage);
-        when(imageRepository.findByUser(testUser)).thenReturn(userImages);
-        when(imageMapper.toDTO(any(Image.class), anyString())).thenReturn(testImageDTO);
+        ImageSummary summary = summary(1L, 1000L);
+        VariantSummary variant = new VariantSummary(1L, "150", "thumb.jpg");
+        when(imageRepository.findPage(testUser, ImageSort.UPLOAD_DATE, ImageFilter.NONE, null, 3)).thenReturn(List.of(summary));
+        when(imageVariantRepository.findSummariesByImageIds(List.of(1L))).thenReturn(List.of(variant));
+        when(imageMapper.toDTO(summary, List.of(variant), "http://localhost:8080/uploads")).thenReturn(testImageDTO);
 
         // Act
-        List<ImageDTO> result = imageService.getAllImages();
+        ImagePage result = imageService.getImages(null, null, null, ImageFilter.NONE);
 
         // Assert
         assertNotNull(result);
-        assertEquals(1, result.size());
-        assertEquals(testImageDTO.getId(), result.get(0).getId());
-        assertEquals(testImageDTO.getUrl(), result.get(0).getUrl());
-        verify(imageRepository).findByUser(testUser);
-        verify(imageMapper).toDTO(any(Image.class), anyString());
+        assertEquals(1, result.images().size());
+        assertEquals(testImageDTO.getId(), result.images().get(0).getId());
+        assertEquals(testImageDTO.getUrl(), result.images().get(0).getUrl());
+        assertNull(result.nextCursor());
+        verify(imageRepository).findPage(testUser, ImageSort.UPLOAD_DATE, ImageFilter.NONE, null, 3);
+        verify(imageRepository, never()).findById(any());
     }
 
     @Test
-    void getAllImages_WithNoImages_ShouldReturnEmptyList() {
+    void getImages_WithNoImages_ShouldReturnEmptyPage() {
         // Arrange
-        when(imageRepository.findByUser(testUser)).thenReturn(Collections.emptyList());
+        when(imageRepository.findPage(eq(testUser), any(), any(), any(), anyInt())).thenReturn(Collections.emptyList());
 
         // Act
-        List<ImageDTO> result = imageService.getAllImages();
+        ImagePage result = imageService.getImages(null, null, null, ImageFilter.NONE);
 
         // Assert
-        assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(imageRepository).findByUser(testUser);
-        verify(imageMapper, never()).toDTO(any(), any());
+        assertTrue(result.images().isEmpty());
+        assertNull(result.nextCursor());
+        verify(imageMapper, never()).toDTO(any(ImageSummary.class), any(), any());
+        verify(imageVariantRepository, never()).findSummariesByImageIds(any());
+    }
+
+    @Test
+    void getImages_WithMoreRowsThanLimit_ShouldReturnCursorOfLastImage() {
+        // Arrange
+        when(imageRepository.findPage(testUser, ImageSort.SIZE, ImageFilter.NONE, null, 3))
+            .thenReturn(List.of(summary(3L, 300L), summary(2L, 200L), summary(1L, 100L)));
+        when(imageMapper.toDTO(any(ImageSummary.class), any(), anyString())).thenReturn(testImageDTO);
+
+        // Act
+        ImagePage result = imageService.getImages("size", null, null, ImageFilter.NONE);
+
+        // Assert
+        assertEquals(2, result.images().size());
+        verify(imageVariantRepository).findSummariesByImageIds(List.of(3L, 2L));
+        ImageCursor cursor = ImageCursor.decode(result.nextCursor(), ImageSort.SIZE);
+        assertEquals(200L, cursor.key());
+        assertEquals(2L, cursor.id());
+    }
+
+    @Test
+    void getImages_WithCursor_ShouldContinueAfterIt() {
+        // Arrange
+        String cursor = new ImageCursor(ImageSort.SIZE, 200L, 2L).encode();
+
+        // Act
+        imageService.getImages("size", 10, cursor, ImageFilter.NONE);
+
+        // Assert
+        verify(imageRepository).findPage(testUser, ImageSort.SIZE, ImageFilter.NONE, new ImageCursor(ImageSort.SIZE, 200L, 2L), 4);
+    }
+
+    @Test
+    void getImages_WithInvalidArguments_ShouldThrowInvalidImageException() {
+        // Arrange
+        String sizeCursor = new ImageCursor(ImageSort.SIZE, 200L, 2L).encode();
+
+        // Act & Assert
+        assertThrows(InvalidImageException.class, () -> imageService.getImages("colour", null, null, ImageFilter.NONE));
+        assertThrows(InvalidImageException.class, () -> imageService.getImages(null, 0, null, ImageFilter.NONE));
+        assertThrows(InvalidImageException.class, () -> imageService.getImages(null, null, "not-a-cursor", ImageFilter.NONE));
+        assertThrows(InvalidImageException.class, () -> imageService.getImages("title", null, sizeCursor, ImageFilter.NONE));
+        verify(imageRepository, never()).findPage(any(), any(), any(), any(), anyInt());
+    }
+
+    private ImageSummary summary(Long id, Long fileSize) {
+        return new ImageSummary(id, id + ".jpg", "original.jpg", "image/jpeg", fileSize, 800, 600, null,
+            null, null, LocalDateTime.now(), LocalDateTime.now());
     }
 
     @Test
     void getImageById_WithOwnImage_ShouldReturnImageDTO() {
         // Arrange
         Long imageId = 1L;
-        when(imageRepository.findById(imageId)).thenReturn(Optional.of(testImage));
-        when(imageMapper.toDTO(testImage, fileStorageConfig.getBaseUrl())).thenReturn(testImageDTO);
+        ImageSummary summary = summary(imageId, 1000L);
+        when(imageRepository.findSummaryByIdAndUserId(imageId, testUser.getId())).thenReturn(Optional.of(summary));
+        when(imageVariantRepository.findSummariesByImageId(imageId)).thenReturn(List.of());
+        when(imageMapper.toDTO(summary, List.of(), fileStorageConfig.getBaseUrl())).thenReturn(testImageDTO);
 
         // Act
         ImageDTO result = imageService.getImageById(imageId);
@@ -269,24 +611,122 @@ class ImageServiceTest {
         assertNotNull(result);
         assertEquals(testImageDTO.getId(), result.getId());
         assertEquals(testImageDTO.getUrl(), result.getUrl());
-        verify(imageRepository).findById(anyLong());
-        verify(imageMapper).toDTO(any(Image.class), anyString());
+        verify(imageRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void searchImages_ShouldReturnImagesInRankOrder() {
+        // Arrange
+        ImageSummary first = summary(1L, 1000L);
+        ImageSummary second = summary(2L, 2000L);
+        ImageDTO secondDTO = new ImageDTO();
+        secondDTO.setId(2L);
+        when(imageSearchIndex.search(testUser.getId(), "beach", 2)).thenReturn(List.of(2L, 1L));
+        when(imageRepository.findSummariesByIdInAndUserId(List.of(2L, 1L), testUser.getId()))
+            .thenReturn(List.of(first, second));
+        when(imageMapper.toDTO(eq(first), anyList(), anyString())).thenReturn(testImageDTO);
+        when(imageMapper.toDTO(eq(second), anyList(), anyString())).thenReturn(secondDTO);
+
+        // Act
+        List<ImageDTO> result = imageService.searchImages("beach", null);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), result.stream().map(ImageDTO::getId).toList());
+    }
+
+    @Test
+    void searchImages_WithImageNoLongerInDatabase_ShouldDropItFromIndex() {
+        // Arrange
+        ImageSummary remaining = summary(1L, 1000L);
+        when(imageSearchIndex.search(testUser.getId(), "beach", 3)).thenReturn(List.of(5L, 1L));
+        when(imageRepository.findSummariesByIdInAndUserId(List.of(5L, 1L), testUser.getId()))
+            .thenReturn(List.of(remaining));
+        when(imageMapper.toDTO(eq(remaining), anyList(), anyString())).thenReturn(testImageDTO);
+
+        // Act
+        List<ImageDTO> result = imageService.searchImages("beach", 10);
+
+        // Assert
+        assertEquals(1, result.size());
+        verify(imageSearchIndex).remove(testUser.getId(), 5L);
     }
 
     @Test
-    void getImageById_WithOtherUserImage_ShouldThrowException() {
+    void searchImages_WithImageNotYetOnReplica_ShouldKeepItInIndex() {
+        // Arrange
+        ImageSummary replicated = summary(1L, 1000L);
+        ImageSummary recent = summary(5L, 5000L);
+        when(imageSearchIndex.search(testUser.getId(), "beach", 2)).thenReturn(List.of(5L, 1L));
+        when(imageRepository.findSummariesByIdInAndUserId(List.of(5L, 1L), testUser.getId()))
+            .thenReturn(List.of(replicated));
+        when(imageRepository.findSummariesByIdInAndUserId(List.of(5L), testUser.getId()))
+            .thenReturn(List.of(recent));
+        when(imageMapper.toDTO(any(ImageSummary.class), anyList(), anyString())).thenReturn(testImageDTO);
+
+        // Act
+        List<ImageDTO> result = imageService.searchImages("beach", null);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(imageSearchIndex, never()).remove(anyLong(), anyLong());
+    }
+
+    @Test
+    void searchImages_WithStaleIds_ShouldRefillPage() {
+        // Arrange
+        ImageSummary first = summary(1L, 1000L);
+        ImageSummary second = summary(2L, 2000L);
+        when(imageSearchIndex.search(testUser.getId(), "beach", 2))
+            .thenReturn(List.of(5L, 1L))
+            .thenReturn(List.of(1L, 2L));
+        when(imageRepository.findSummariesByIdInAndUserId(List.of(5L, 1L), testUser.getId()))
+            .thenReturn(List.of(first));
+        when(imageRepository.findSummariesByIdInAndUserId(List.of(1L, 2L), testUser.getId()))
+            .thenReturn(List.of(first, second));
+        when(imageMapper.toDTO(any(ImageSummary.class), anyList(), anyString())).thenReturn(testImageDTO);
+
+        // Act
+        List<ImageDTO> result = imageService.searchImages("beach", null);
+
+        // Assert
+        assertEquals(2, result.size());
+        verify(imageSearchIndex).remove(testUser.getId(), 5L);
+        verify(imageSearchIndex, times(2)).search(testUser.getId(), "beach", 2);
+    }
+
+    @Test
+    void searchImages_WithoutMatches_ShouldNotQueryDatabase() {
+        // Arrange
+        when(imageSearchIndex.search(anyLong(), anyString(), anyInt())).thenReturn(List.of());
+
+        // Act
+        List<ImageDTO> result = imageService.searchImages("nothing", null);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verify(imageRepository, never()).findSummariesByIdInAndUserId(any(), any());
+    }
+
+    @Test
+    void searchImages_WithInvalidArguments_ShouldThrowInvalidImageException() {
+        // Act & Assert
+        assertThrows(InvalidImageException.class, () -> imageService.searchImages(" ", null));
+        assertThrows(InvalidImageException.class, () -> imageService.searchImages(null, null));
+        assertThrows(InvalidImageException.class, () -> imageService.searchImages("beach", 0));
+    }
+
+    @Test
+    void getImageById_WithOtherUserImage_ShouldThrowNotFound() {
         // Arrange
         Long imageId = 1L;
-        testImage.setUser(otherUser);
-        when(imageRepository.findById(imageId)).thenReturn(Optional.of(testImage));
+        when(imageRepository.findSummaryByIdAndUserId(imageId, testUser.getId())).thenReturn(Optional.empty());
 
         // Act & Assert
-        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+        ImageNotFoundException exception = assertThrows(ImageNotFoundException.class, () -> {
             imageService.getImageById(imageId);
         });
-        assertEquals("You can only access your own images", exception.getMessage());
-        verify(imageRepository).findById(anyLong());
-        verify(imageMapper, never()).toDTO(any(), any());
+        assertEquals("Image not found with id: 1", exception.getMessage());
+        verify(imageMapper, never()).toDTO(any(ImageSummary.class), any(), any());
     }
 
     @Test
@@ -306,6 +746,24 @@ class ImageServiceTest {
         assertEquals(testImageDTO.getTitle(), result.getTitle());
         assertEquals(testImageDTO.getDescription(), result.getDescription());
         verify(imageRepository).save(any(Image.class));
+        verify(eventPublisher).publishEvent(any(ImageTextChangedEvent.class));
+    }
+
+    @Test
+    void updateImage_WithNewFile_ShouldClearOldPlaceholder() throws IOException {
+        // Arrange
+        testImage.setPlaceholder("L0TI:j");
+        when(imageRepository.findById(1L)).thenReturn(Optional.of(testImage));
+        when(uploadPipeline.process(any(InputStream.class), eq("test.jpg"))).thenReturn(
+            new UploadResult("replacement.jpg", "def456", 18L, new ImageDimensions(800, 600), new UploadTimings(0, 0, 0, 0)));
+        when(imageRepository.save(any(Image.class))).thenReturn(testImage);
+
+        // Act
+        imageService.updateImage(1L, validImage, null, null);
+
+        // Assert
+        verify(imageRepository).save(argThat(image -> "replacement.jpg".equals(image.getFilename())
+            && image.getPlaceholder() == null));
     }
 
     @Test
@@ -0,0 +1,67 @@
+package com.f5.tech_test.services;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageTypeSnifferTest {
+
+    private final ImageTypeSniffer sniffer = new ImageTypeSniffer();
+
+    @Test
+    void sniff_WithEncodedImages_ShouldDetectFormat() throws IOException {
+        // Arrange
+        BufferedImage image = new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+
+        // Act & Assert
+        assertEquals(Optional.of("image/jpeg"), sniffer.sniff(new ByteArrayInputStream(encode(image, "jpg"))));
+        assertEquals(Optional.of("image/png"), sniffer.sniff(new ByteArrayInputStream(encode(image, "png"))));
+        assertEquals(Optional.of("image/gif"), sniffer.sniff(new ByteArrayInputStream(encode(image, "gif"))));
+    }
+
+    @Test
+    void sniff_WithWebpSignature_ShouldDetectWebp() throws IOException {
+        // Arrange
+        byte[] webp = {'R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'E', 'B', 'P', 'V', 'P', '8', ' '};
+
+        // Act & Assert
+        assertEquals(Optional.of("image/webp"), sniffer.sniff(new ByteArrayInputStream(webp)));
+    }
+
+    @Test
+    void sniff_WithUnknownOrShortContent_ShouldReturnEmpty() throws IOException {
+        // Act & Assert
+        assertTrue(sniffer.sniff(new ByteArrayInputStream("plain text".getBytes())).isEmpty());
+        assertTrue(sniffer.sniff(new ByteArrayInputStream(new byte[] {(byte) 0xFF, (byte) 0xD8})).isEmpty());
+        assertTrue(sniffer.sniff(new ByteArrayInputStream(new byte[0])).isEmpty());
+        byte[] riffWave = {'R', 'I', 'F', 'F', 0x24, 0, 0, 0, 'W', 'A', 'V', 'E'};
+        assertTrue(sniffer.sniff(new ByteArrayInputStream(riffWave)).isEmpty());
+    }
+
+    @Test
+    void sniff_ShouldLeaveStreamAtStart() throws IOException {
+        // Arrange
+        byte[] png = encode(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png");
+        InputStream inputStream = new ByteArrayInputStream(png);
+
+        // Act
+        sniffer.sniff(inputStream);
+
+        // Assert
+        assertArrayEquals(png, inputStream.readAllBytes());
+    }
+
+    private static byte[] encode(BufferedImage image, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,179 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImagePlaceholderConfig;
+import com.f5.tech_test.config.ImageVariantConfig;
+import com.f5.tech_test.config.TestFileStorageConfig;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.ImageVariant;
+import com.f5.tech_test.repositories.ImageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ImageVariantServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ImageRepository imageRepository;
+
+    @Mock
+    private ImageVariantConfig imageVariantConfig;
+
+    @Mock
+    private ImagePlaceholderConfig imagePlaceholderConfig;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private LocalFileStorageService fileStorageService;
+    private ImageVariantService imageVariantService;
+    private Image image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(imageVariantConfig.getSizes()).thenReturn(List.of(150, 480, 1080));
+        when(imageVariantConfig.getJpegQuality()).thenReturn(0.85f);
+        when(imagePlaceholderConfig.getComponentsX()).thenReturn(4);
+        when(imagePlaceholderConfig.getComponentsY()).thenReturn(3);
+
+        fileStorageService = new LocalFileStorageService(new TestFileStorageConfig(tempDir.toString()), mock(HotImageCache.class));
+        UploadPipeline uploadPipeline = new UploadPipeline(fileStorageService, new ImageDimensionProbe());
+        ImageResizer imageResizer = new ImageResizer(imageVariantConfig);
+        imageVariantService = new ImageVariantService(imageRepository, fileStorageService, uploadPipeline,
+            imageResizer, new ImagePlaceholderGenerator(imageResizer, imagePlaceholderConfig), imageVariantConfig,
+            transactionManager);
+
+        ByteArrayOutputStream original = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(800, 600, BufferedImage.TYPE_INT_RGB), "jpg", original);
+
+        image = new Image();
+        image.setId(1L);
+        image.setFilename(fileStorageService.storeFile(new ByteArrayInputStream(original.toByteArray()), "photo.jpg"));
+        image.setWidth(800);
+        image.setHeight(600);
+        when(imageRepository.findById(1L)).thenReturn(Optional.of(image));
+    }
+
+    @Test
+    void generateVariants_ShouldCreateEachSizeSmallerThanOriginal() throws IOException {
+        // Act
+        imageVariantService.generateVariants(1L, image.getFilename());
+
+        // Assert
+        List<ImageVariant> variants = image.getVariants();
+        assertEquals(2, variants.size());
+
+        ImageVariant medium = variants.get(0);
+        assertEquals("480", medium.getName());
+        assertEquals(480, medium.getWidth());
+        assertEquals(360, medium.getHeight());
+
+        ImageVariant thumbnail = variants.get(1);
+        assertEquals("150", thumbnail.getName());
+        assertEquals(150, thumbnail.getWidth());
+        assertEquals(113, thumbnail.getHeight());
+
+        for (ImageVariant variant : variants) {
+            Path stored = tempDir.resolve(variant.getFilename());
+            assertEquals(Files.size(stored), variant.getFileSize());
+            BufferedImage decoded = ImageIO.read(stored.toFile());
+            assertEquals(variant.getWidth(), decoded.getWidth());
+            assertSame(image, variant.getImage());
+        }
+        verify(imageRepository).save(image);
+    }
+
+    @Test
+    void generateVariants_ShouldSetPlaceholderFromSmallestVariant() throws IOException {
+        // Act
+        imageVariantService.generateVariants(1L, image.getFilename());
+
+        // Assert
+        assertNotNull(image.getPlaceholder());
+        assertEquals(28, image.getPlaceholder().length());
+        verify(imageRepository, never()).updatePlaceholder(any(), any(), any());
+    }
+
+    @Test
+    void generateVariants_WithImageSmallerThanEveryVariant_ShouldStillStorePlaceholder() throws IOException {
+        // Arrange
+        ByteArrayOutputStream small = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB), "jpg", small);
+        image.setFilename(fileStorageService.storeFile(new ByteArrayInputStream(small.toByteArray()), "small.jpg"));
+        image.setWidth(100);
+        image.setHeight(80);
+
+        // Act
+        imageVariantService.generateVariants(1L, image.getFilename());
+
+        // Assert
+        assertTrue(image.getVariants().isEmpty());
+        verify(imageRepository).updatePlaceholder(eq(1L), eq(image.getFilename()),
+            argThat(placeholder -> placeholder.length() == 28));
+    }
+
+    @Test
+    void generateVariants_WhenALaterVariantFails_ShouldDeleteVariantsAlreadyStored() throws IOException {
+        // Arrange
+        ImageResizer imageResizer = new ImageResizer(imageVariantConfig);
+        UploadPipeline uploadPipeline = spy(new UploadPipeline(fileStorageService, new ImageDimensionProbe()));
+        doCallRealMethod()
+            .doThrow(new IOException("disk full"))
+            .when(uploadPipeline).process(any(), any());
+        ImageVariantService failingService = new ImageVariantService(imageRepository, fileStorageService,
+            uploadPipeline, imageResizer, new ImagePlaceholderGenerator(imageResizer, imagePlaceholderConfig),
+            imageVariantConfig, transactionManager);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> failingService.generateVariants(1L, image.getFilename()));
+        assertEquals(List.of(image.getFilename()), fileStorageService.getAllFiles());
+        assertTrue(image.getVariants().isEmpty());
+        verify(imageRepository, never()).save(any());
+    }
+
+    @Test
+    void generateVariants_WhenImageWasReplaced_ShouldDiscardGeneratedFiles() throws IOException {
+        // Arrange
+        String staleFilename = image.getFilename();
+        Image replaced = new Image();
+        replaced.setId(1L);
+        replaced.setFilename("replacement.jpg");
+        when(imageRepository.findById(1L))
+            .thenReturn(Optional.of(image))
+            .thenReturn(Optional.of(replaced));
+
+        // Act
+        imageVariantService.generateVariants(1L, staleFilename);
+
+        // Assert
+        assertTrue(replaced.getVariants().isEmpty());
+        assertEquals(List.of(staleFilename), fileStorageService.getAllFiles());
+        verify(imageRepository, never()).save(any());
+    }
+}
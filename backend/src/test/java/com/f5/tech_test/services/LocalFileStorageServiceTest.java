@@ -1,31 +1,37 @@
 package com.f5.tech_test.services;
 
 import com.f5.tech_test.config.TestFileStorageConfig;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 class LocalFileStorageServiceTest {
 
     @TempDir
     Path tempDir;
 
+    private HotImageCache hotImageCache;
     private LocalFileStorageService fileStorageService;
     private MockMultipartFile testFile;
 
     @BeforeEach
     void setUp() {
         TestFileStorageConfig config = new TestFileStorageConfig(tempDir.toString());
-        fileStorageService = new LocalFileStorageService(config);
+        hotImageCache = mock(HotImageCache.class);
+        fileStorageService = new LocalFileStorageService(config, hotImageCache);
         testFile = new MockMultipartFile(
             "image",
             "test.jpg",
@@ -48,6 +54,16 @@ class LocalFileStorageServiceTest {
         assertEquals("test image content", new String(Files.readAllBytes(savedFile)));
     }
 
+    @Test
+    void storeFile_WhenStreamFailsMidway_ShouldNotLeavePartialFile() {
+        // Arrange
+        SizeLimitInputStream limited = new SizeLimitInputStream(new ByteArrayInputStream(new byte[100_000]), 50_000);
+
+        // Act & Assert
+        assertThrows(UploadTooLargeException.class, () -> fileStorageService.storeFile(limited, "big.jpg"));
+        assertTrue(fileStorageService.getAllFiles().isEmpty());
+    }
+
     @Test
     void deleteFile_WithExistingFile_ShouldDeleteFile() throws IOException {
         // Arrange
@@ -63,6 +79,18 @@ class LocalFileStorageServiceTest {
         assertFalse(Files.exists(filePath));
     }
 
+    @Test
+    void deleteFile_ShouldInvalidateHotCache() throws IOException {
+        // Arrange
+        String filename = fileStorageService.storeFile(testFile);
+
+        // Act
+        fileStorageService.deleteFile("http://localhost:8080/uploads/" + filename);
+
+        // Assert
+        verify(hotImageCache).invalidate(filename);
+    }
+
     @Test
     void deleteFile_WithNonExistingFile_ShouldReturnFalse() {
         // Act
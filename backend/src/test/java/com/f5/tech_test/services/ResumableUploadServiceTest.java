@@ -0,0 +1,219 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ResumableUploadConfig;
+import com.f5.tech_test.dto.CreateUploadRequest;
+import com.f5.tech_test.dto.ImageDTO;
+import com.f5.tech_test.entities.UploadSession;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.exceptions.InvalidImageException;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.exceptions.UploadConflictException;
+import com.f5.tech_test.exceptions.UploadSessionNotFoundException;
+import com.f5.tech_test.exceptions.UploadTooLargeException;
+import com.f5.tech_test.repositories.UploadSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ResumableUploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private ImageService imageService;
+
+    @Mock
+    private UserStorageService userStorageService;
+
+    @Mock
+    private ResumableUploadConfig resumableUploadConfig;
+
+    private ResumableUploadService resumableUploadService;
+    private UploadSession session;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(resumableUploadConfig.getSessionDir()).thenReturn(tempDir.toString());
+        when(resumableUploadConfig.getMaxSize()).thenReturn(DataSize.ofMegabytes(1));
+        resumableUploadService = new ResumableUploadService(uploadSessionRepository, imageService,
+            userStorageService, resumableUploadConfig);
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+        when(imageService.getCurrentUser()).thenReturn(Optional.of(user));
+
+        content = new byte[200_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        CreateUploadRequest request = new CreateUploadRequest();
+        request.setFilename("large.jpg");
+        request.setContentType("image/jpeg");
+        request.setLength((long) content.length);
+        request.setTitle("Large photo");
+        when(uploadSessionRepository.save(any(UploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        session = resumableUploadService.createSession(request);
+        when(uploadSessionRepository.findByIdAndUserId(session.getId(), 1L)).thenReturn(Optional.of(session));
+    }
+
+    @Test
+    void appendChunk_InSeveralChunks_ShouldWriteEveryByteAndComplete() throws IOException {
+        // Act
+        long offset = resumableUploadService.appendChunk(session.getId(), 0, 150_000,
+            new ByteArrayInputStream(content, 0, 150_000));
+        offset = resumableUploadService.appendChunk(session.getId(), offset, 50_000,
+            new ByteArrayInputStream(content, 150_000, 50_000));
+
+        // Assert
+        assertEquals(content.length, offset);
+        assertEquals(content.length, session.getOffset());
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve(session.getId() + ".part")));
+
+        // Arrange
+        ImageDTO image = new ImageDTO();
+        image.setId(7L);
+        when(imageService.uploadImage(any(InputStream.class), eq("large.jpg"), eq("image/jpeg"), eq("Large photo"), any()))
+            .thenAnswer(invocation -> {
+                assertArrayEquals(content, ((InputStream) invocation.getArgument(0)).readAllBytes());
+                return image;
+            });
+
+        // Act
+        ImageDTO result = resumableUploadService.complete(session.getId());
+
+        // Assert
+        assertEquals(7L, result.getId());
+        verify(uploadSessionRepository).delete(session);
+        assertFalse(Files.exists(tempDir.resolve(session.getId() + ".part")));
+    }
+
+    @Test
+    void appendChunk_WhenConnectionDrops_ShouldKeepReceivedBytesForResume() throws IOException {
+        // Arrange
+        InputStream dropping = new InputStream() {
+            private final InputStream delegate = new ByteArrayInputStream(content, 0, 100_000);
+
+            @Override
+            public int read() throws IOException {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = delegate.read(b, off, len);
+                if (read == -1) {
+                    throw new IOException("Connection reset");
+                }
+                return read;
+            }
+        };
+
+        // Act
+        assertThrows(IOException.class,
+            () -> resumableUploadService.appendChunk(session.getId(), 0, content.length, dropping));
+        long offset = resumableUploadService.appendChunk(session.getId(), session.getOffset(), 100_000,
+            new ByteArrayInputStream(content, 100_000, 100_000));
+
+        // Assert
+        assertEquals(content.length, offset);
+        assertArrayEquals(content, Files.readAllBytes(tempDir.resolve(session.getId() + ".part")));
+    }
+
+    @Test
+    void appendChunk_WithWrongOffset_ShouldThrowConflict() {
+        // Act & Assert
+        assertThrows(UploadConflictException.class, () -> resumableUploadService.appendChunk(session.getId(), 10, 5,
+            new ByteArrayInputStream(new byte[5])));
+        assertEquals(0L, session.getOffset());
+    }
+
+    @Test
+    void appendChunk_PastDeclaredLength_ShouldThrowConflict() {
+        // Act & Assert
+        assertThrows(UploadConflictException.class, () -> resumableUploadService.appendChunk(session.getId(), 0,
+            content.length + 1, new ByteArrayInputStream(new byte[content.length + 1])));
+    }
+
+    @Test
+    void complete_WhenBytesAreMissing_ShouldThrowConflict() throws IOException {
+        // Arrange
+        resumableUploadService.appendChunk(session.getId(), 0, 10, new ByteArrayInputStream(content, 0, 10));
+
+        // Act & Assert
+        assertThrows(UploadConflictException.class, () -> resumableUploadService.complete(session.getId()));
+        verify(imageService, never()).uploadImage(any(InputStream.class), anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void getSession_OfAnotherUser_ShouldThrowNotFound() {
+        // Arrange
+        when(uploadSessionRepository.findByIdAndUserId(anyString(), anyLong())).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(UploadSessionNotFoundException.class, () -> resumableUploadService.getSession(session.getId()));
+    }
+
+    @Test
+    void createSession_WithInvalidRequest_ShouldBeRejectedBeforeAnyData() {
+        // Arrange
+        CreateUploadRequest tooLarge = new CreateUploadRequest();
+        tooLarge.setFilename("huge.jpg");
+        tooLarge.setContentType("image/jpeg");
+        tooLarge.setLength(DataSize.ofMegabytes(2).toBytes());
+
+        CreateUploadRequest wrongType = new CreateUploadRequest();
+        wrongType.setFilename("notes.txt");
+        wrongType.setContentType("text/plain");
+        wrongType.setLength(10L);
+        doThrow(new InvalidImageException("Invalid file type")).when(imageService).validateContentType("text/plain");
+
+        // Act & Assert
+        assertThrows(UploadTooLargeException.class, () -> resumableUploadService.createSession(tooLarge));
+        assertThrows(InvalidImageException.class, () -> resumableUploadService.createSession(wrongType));
+    }
+
+    @Test
+    void createSession_OverStorageQuota_ShouldBeRejectedBeforeAnyData() {
+        // Arrange
+        CreateUploadRequest request = new CreateUploadRequest();
+        request.setFilename("photo.jpg");
+        request.setContentType("image/jpeg");
+        request.setLength(1000L);
+        doThrow(new StorageQuotaExceededException("Storage quota exceeded"))
+            .when(userStorageService).checkQuota(1L, 1000L, 1);
+        clearInvocations(uploadSessionRepository);
+
+        // Act & Assert
+        assertThrows(StorageQuotaExceededException.class, () -> resumableUploadService.createSession(request));
+        verify(uploadSessionRepository, never()).save(any());
+    }
+}
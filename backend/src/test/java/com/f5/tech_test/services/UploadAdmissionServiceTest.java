@@ -0,0 +1,132 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.UploadAdmissionConfig;
+import com.f5.tech_test.exceptions.TooManyUploadsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UploadAdmissionServiceTest {
+
+    @Mock
+    private UploadAdmissionConfig config;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        when(config.getMaxConcurrent()).thenReturn(2);
+        when(config.getMaxPerUser()).thenReturn(1);
+        when(config.getQueueCapacity()).thenReturn(1);
+        when(config.getMaxWait()).thenReturn(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void admit_OverPerUserLimit_ShouldRejectImmediately() {
+        // Arrange
+        UploadAdmissionService service = new UploadAdmissionService(config, meterRegistry);
+        UploadAdmissionService.Permit first = service.admit("alice");
+
+        // Act & Assert
+        assertThrows(TooManyUploadsException.class, () -> service.admit("alice"));
+        assertEquals(1, rejected("user_limit"));
+
+        // Other users are unaffected, and the user is admitted again once their upload ends
+        service.admit("bob").close();
+        first.close();
+        service.admit("alice").close();
+        assertEquals(3, meterRegistry.counter("uploads.admission.admitted").count());
+    }
+
+    @Test
+    void admit_WhenGlobalSlotsAreTaken_ShouldWaitThenTimeOut() {
+        // Arrange
+        UploadAdmissionService service = new UploadAdmissionService(config, meterRegistry);
+        service.admit("alice");
+        service.admit("bob");
+
+        // Act & Assert
+        long start = System.nanoTime();
+        assertThrows(TooManyUploadsException.class, () -> service.admit("carol"));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, rejected("timeout"));
+        assertEquals(2, meterRegistry.get("uploads.admission.in.flight").gauge().value());
+    }
+
+    @Test
+    void admit_WhenSlotIsFreedWhileWaiting_ShouldBeAdmitted() throws Exception {
+        // Arrange
+        when(config.getMaxWait()).thenReturn(Duration.ofSeconds(5));
+        UploadAdmissionService service = new UploadAdmissionService(config, meterRegistry);
+        UploadAdmissionService.Permit alice = service.admit("alice");
+        service.admit("bob");
+
+        // Act
+        CompletableFuture<UploadAdmissionService.Permit> carol = CompletableFuture.supplyAsync(() -> service.admit("carol"));
+        waitForQueueDepth(1);
+        alice.close();
+
+        // Assert
+        assertNotNull(carol.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("uploads.admission.queue.depth").gauge().value());
+    }
+
+    @Test
+    void admit_WhenQueueIsFull_ShouldRejectWithoutWaiting() throws Exception {
+        // Arrange
+        when(config.getMaxWait()).thenReturn(Duration.ofSeconds(5));
+        UploadAdmissionService service = new UploadAdmissionService(config, meterRegistry);
+        UploadAdmissionService.Permit alice = service.admit("alice");
+        service.admit("bob");
+        CompletableFuture<UploadAdmissionService.Permit> carol = CompletableFuture.supplyAsync(() -> service.admit("carol"));
+        waitForQueueDepth(1);
+
+        // Act & Assert
+        assertThrows(TooManyUploadsException.class, () -> service.admit("dave"));
+        assertEquals(1, rejected("queue_full"));
+
+        alice.close();
+        carol.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void close_CalledTwice_ShouldReleaseOnce() {
+        // Arrange
+        UploadAdmissionService service = new UploadAdmissionService(config, meterRegistry);
+        UploadAdmissionService.Permit permit = service.admit("alice");
+
+        // Act
+        permit.close();
+        permit.close();
+
+        // Assert
+        assertEquals(0, meterRegistry.get("uploads.admission.in.flight").gauge().value());
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.counter("uploads.admission.rejected", "reason", reason).count();
+    }
+
+    private void waitForQueueDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("uploads.admission.queue.depth").gauge().value() < depth) {
+            assertTrue(System.nanoTime() < deadline, "Upload never started waiting");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.TestFileStorageConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.IIOImage;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class UploadPipelineTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalFileStorageService fileStorageService;
+    private UploadPipeline uploadPipeline;
+
+    @BeforeEach
+    void setUp() {
+        fileStorageService = new LocalFileStorageService(new TestFileStorageConfig(tempDir.toString()), mock(HotImageCache.class));
+        uploadPipeline = new UploadPipeline(fileStorageService, new ImageDimensionProbe());
+    }
+
+    @Test
+    void process_ShouldStoreHashCountAndProbeInOneRead() throws Exception {
+        // Arrange
+        byte[] png = encodePng(new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB));
+        CountingInputStream source = new CountingInputStream(new ByteArrayInputStream(png));
+
+        // Act
+        UploadResult result = uploadPipeline.process(source, "photo.png");
+
+        // Assert
+        assertEquals(png.length, source.count);
+        assertEquals(png.length, result.size());
+        assertEquals(sha256(png), result.contentHash());
+        assertEquals(new ImageDimensions(120, 80), result.dimensions());
+        assertTrue(result.filename().endsWith(".png"));
+        assertArrayEquals(png, Files.readAllBytes(tempDir.resolve(result.filename())));
+        assertTrue(result.timings().totalNanos() > 0);
+    }
+
+    @Test
+    void process_WithHeaderBeyondCapture_ShouldProbeStoredCopy() throws Exception {
+        // Arrange
+        byte[] jpeg = encodeJpegWithLargeComment(64, 48, UploadPipeline.HEADER_CAPTURE_BYTES);
+        CountingInputStream source = new CountingInputStream(new ByteArrayInputStream(jpeg));
+
+        // Act
+        UploadResult result = uploadPipeline.process(source, "photo.jpg");
+
+        // Assert
+        assertEquals(jpeg.length, source.count);
+        assertEquals(new ImageDimensions(64, 48), result.dimensions());
+    }
+
+    @Test
+    void process_WithNonImageContent_ShouldStoreWithoutDimensions() throws Exception {
+        // Act
+        UploadResult result = uploadPipeline.process(
+            new ByteArrayInputStream("test image content".getBytes()), "test.jpg");
+
+        // Assert
+        assertNull(result.dimensions());
+        assertEquals(18, result.size());
+        assertTrue(Files.exists(tempDir.resolve(result.filename())));
+    }
+
+    private byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private byte[] encodeJpegWithLargeComment(int width, int height, int commentBytes) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), null);
+
+        // Several COM segments push the frame header past the captured bytes
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree("javax_imageio_jpeg_image_1.0");
+        IIOMetadataNode markerSequence = (IIOMetadataNode) root.getElementsByTagName("markerSequence").item(0);
+        for (int written = 0; written <= commentBytes; written += 60_000) {
+            IIOMetadataNode comment = new IIOMetadataNode("com");
+            comment.setUserObject(new byte[60_000]);
+            markerSequence.insertBefore(comment, markerSequence.getFirstChild());
+        }
+        metadata.setFromTree("javax_imageio_jpeg_image_1.0", root);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(new IIOImage(image, null, metadata));
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -40,6 +40,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserStorageService userStorageService;
+
     @InjectMocks
     private UserService userService;
 
@@ -94,6 +97,7 @@ class UserServiceTest {
         verify(passwordEncoder).encode(testRegisterRequest.getPassword());
         verify(userMapper).toEntity(testRegisterRequest);
         verify(userRepository).save(any(User.class));
+        verify(userStorageService).createStats(testUser.getId());
         verify(userMapper).toDTO(testUser);
     }
 
@@ -0,0 +1,211 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.StorageQuotaConfig;
+import com.f5.tech_test.dto.StorageStatsDTO;
+import com.f5.tech_test.entities.Image;
+import com.f5.tech_test.entities.StorageUsage;
+import com.f5.tech_test.entities.User;
+import com.f5.tech_test.entities.UserStorageStats;
+import com.f5.tech_test.exceptions.StorageQuotaExceededException;
+import com.f5.tech_test.repositories.UserStorageStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({UserStorageService.class, StorageQuotaConfig.class})
+@TestPropertySource(properties = {"storage.quota.max-bytes=1000B", "storage.quota.max-images=3"})
+class UserStorageServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserStorageService userStorageService;
+
+    @Autowired
+    private UserStorageStatsRepository userStorageStatsRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(user("owner"));
+        userStorageService.createStats(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void recordAdded_ShouldAddToTotalsAndContentTypes() {
+        // Act
+        userStorageService.recordAdded(user.getId(), List.of(image("image/jpeg", 300L), image("image/png", 200L)));
+        userStorageService.recordAdded(user.getId(), List.of(image("image/jpeg", 100L)));
+
+        // Assert
+        StorageStatsDTO stats = stats();
+        assertEquals(600L, stats.getTotalBytes());
+        assertEquals(3L, stats.getImageCount());
+        assertEquals(400L, stats.getContentTypes().get("image/jpeg").getTotalBytes());
+        assertEquals(2L, stats.getContentTypes().get("image/jpeg").getImageCount());
+        assertEquals(200L, stats.getContentTypes().get("image/png").getTotalBytes());
+        assertEquals(1000L, stats.getMaxBytes());
+        assertEquals(3L, stats.getMaxImages());
+    }
+
+    @Test
+    void recordAdded_OverByteQuota_ShouldThrowAndLeaveStatsUnchanged() {
+        // Arrange
+        userStorageService.recordAdded(user.getId(), List.of(image("image/jpeg", 900L)));
+
+        // Act & Assert
+        assertThrows(StorageQuotaExceededException.class,
+            () -> userStorageService.recordAdded(user.getId(), List.of(image("image/jpeg", 101L))));
+        assertEquals(900L, stats().getTotalBytes());
+        assertEquals(1L, stats().getImageCount());
+    }
+
+    @Test
+    void recordAdded_OverImageQuota_ShouldThrow() {
+        // Arrange
+        userStorageService.recordAdded(user.getId(), List.of(image("image/gif", 1L), image("image/gif", 1L)));
+
+        // Act & Assert
+        assertThrows(StorageQuotaExceededException.class, () -> userStorageService.recordAdded(user.getId(),
+            List.of(image("image/gif", 1L), image("image/gif", 1L))));
+        assertEquals(2L, stats().getImageCount());
+    }
+
+    @Test
+    void recordAdded_WithoutStats_ShouldCountExistingImagesFirst() {
+        // Arrange
+        User legacy = entityManager.persist(user("legacy"));
+        entityManager.persist(stored(legacy, "image/png", 250L));
+        entityManager.flush();
+
+        // Act
+        userStorageService.recordAdded(legacy.getId(), List.of(image("image/jpeg", 100L)));
+
+        // Assert
+        StorageStatsDTO stats = stats(legacy);
+        assertEquals(350L, stats.getTotalBytes());
+        assertEquals(2L, stats.getImageCount());
+        assertEquals(250L, stats.getContentTypes().get("image/png").getTotalBytes());
+    }
+
+    @Test
+    void recordReplaced_ShouldMoveBytesBetweenContentTypes() {
+        // Arrange
+        userStorageService.recordAdded(user.getId(), List.of(image("image/png", 400L)));
+
+        // Act
+        userStorageService.recordReplaced(user.getId(), "image/png", 400L, "image/jpeg", 150L);
+
+        // Assert
+        StorageStatsDTO stats = stats();
+        assertEquals(150L, stats.getTotalBytes());
+        assertEquals(1L, stats.getImageCount());
+        assertEquals(150L, stats.getContentTypes().get("image/jpeg").getTotalBytes());
+        assertFalse(stats.getContentTypes().containsKey("image/png"), "emptied content types are dropped");
+    }
+
+    @Test
+    void recordReplaced_GrowingOverQuota_ShouldThrow() {
+        // Arrange
+        userStorageService.recordAdded(user.getId(), List.of(image("image/png", 400L), image("image/png", 400L)));
+
+        // Act & Assert
+        assertThrows(StorageQuotaExceededException.class,
+            () -> userStorageService.recordReplaced(user.getId(), "image/png", 400L, "image/png", 700L));
+    }
+
+    @Test
+    void recordRemoved_ShouldSubtractEvenWhenOverQuota() {
+        // Arrange
+        userStorageService.recordAdded(user.getId(), List.of(image("image/jpeg", 900L)));
+        Image large = image("image/jpeg", 900L);
+
+        // Act
+        userStorageService.recordRemoved(user.getId(), large);
+
+        // Assert
+        assertEquals(0L, stats().getTotalBytes());
+        assertEquals(0L, stats().getImageCount());
+        assertTrue(stats().getContentTypes().isEmpty());
+    }
+
+    @Test
+    void checkQuota_WhenUploadCannotFit_ShouldThrow() {
+        // Arrange
+        userStorageService.recordAdded(user.getId(), List.of(image("image/jpeg", 800L)));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> userStorageService.checkQuota(user.getId(), 200L, 1));
+        assertThrows(StorageQuotaExceededException.class, () -> userStorageService.checkQuota(user.getId(), 201L, 1));
+    }
+
+    @Test
+    void reconcile_WithDriftedStats_ShouldRecountImages() {
+        // Arrange
+        entityManager.persist(stored(user, "image/jpeg", 300L));
+        entityManager.persist(stored(user, "image/png", 50L));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        boolean repaired = userStorageService.reconcile(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertTrue(repaired);
+        UserStorageStats stats = userStorageStatsRepository.findById(user.getId()).orElseThrow();
+        assertEquals(350L, stats.getTotalBytes());
+        assertEquals(2L, stats.getImageCount());
+        assertEquals(new StorageUsage(300L, 1L), stats.getContentTypes().get("image/jpeg"));
+        assertNotNull(stats.getReconciledAt());
+        assertFalse(userStorageService.reconcile(user.getId()), "nothing left to repair");
+    }
+
+    private StorageStatsDTO stats() {
+        return stats(user);
+    }
+
+    // The totals are changed by update statements, so entities read before them are stale
+    private StorageStatsDTO stats(User owner) {
+        entityManager.flush();
+        entityManager.clear();
+        return userStorageService.getStats(owner.getId());
+    }
+
+    private Image image(String contentType, Long fileSize) {
+        Image image = new Image();
+        image.setContentType(contentType);
+        image.setFileSize(fileSize);
+        return image;
+    }
+
+    private Image stored(User owner, String contentType, Long fileSize) {
+        Image image = image(contentType, fileSize);
+        image.setFilename(contentType.replace('/', '-') + fileSize);
+        image.setOriginalFilename("original");
+        image.setUser(owner);
+        return image;
+    }
+
+    private User user(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        return user;
+    }
+}
@@ -0,0 +1,84 @@
+package com.f5.tech_test.services;
+
+import com.f5.tech_test.config.ImageResizeConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VariantCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private VariantCache createCache(long memoryBytes, long diskBytes) {
+        ImageResizeConfig config = mock(ImageResizeConfig.class);
+        when(config.getMemoryCacheMaxSize()).thenReturn(DataSize.ofBytes(memoryBytes));
+        when(config.getDiskCacheMaxSize()).thenReturn(DataSize.ofBytes(diskBytes));
+        when(config.getDiskCacheDir()).thenReturn(tempDir.toString());
+        return new VariantCache(config);
+    }
+
+    @Test
+    void get_AfterPut_ShouldReturnContent() {
+        // Arrange
+        VariantCache cache = createCache(1024, 1024);
+
+        // Act
+        cache.put("a.jpg-100x-contain", new byte[] {1, 2, 3});
+
+        // Assert
+        assertArrayEquals(new byte[] {1, 2, 3}, cache.get("a.jpg-100x-contain").orElseThrow());
+        assertTrue(cache.get("missing").isEmpty());
+    }
+
+    @Test
+    void put_OverMemoryBudget_ShouldStillServeEvictedEntryFromDisk() {
+        // Arrange
+        VariantCache cache = createCache(10, 1024);
+        cache.put("first", new byte[8]);
+
+        // Act
+        cache.put("second", new byte[8]);
+
+        // Assert
+        assertEquals(8, cache.get("first").orElseThrow().length);
+        assertTrue(Files.exists(tempDir.resolve("first")));
+    }
+
+    @Test
+    void put_OverDiskBudget_ShouldEvictLeastRecentlyUsedFile() {
+        // Arrange
+        VariantCache cache = createCache(0, 20);
+        cache.put("first", new byte[8]);
+        cache.put("second", new byte[8]);
+        cache.get("first");
+
+        // Act
+        cache.put("third", new byte[8]);
+
+        // Assert
+        assertTrue(Files.exists(tempDir.resolve("first")));
+        assertFalse(Files.exists(tempDir.resolve("second")));
+        assertTrue(Files.exists(tempDir.resolve("third")));
+        assertTrue(cache.get("second").isEmpty());
+    }
+
+    @Test
+    void constructor_ShouldReuseEntriesLeftOnDisk() throws Exception {
+        // Arrange
+        Files.write(tempDir.resolve("kept"), new byte[] {7});
+
+        // Act
+        VariantCache cache = createCache(1024, 1024);
+
+        // Assert
+        assertArrayEquals(new byte[] {7}, cache.get("kept").orElseThrow());
+    }
+}
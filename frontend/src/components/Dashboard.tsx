@@ -5,7 +5,7 @@ import { useImageStore } from '../store/useImageStore'
 
 const Dashboard = () => {
   const { isAuthenticated, logout, token } = useAuthStore()
-  const { images, isLoading, error, fetchImages, uploadImage, deleteImage, updateImage } = useImageStore()
+  const { images, nextCursor, isLoading, isLoadingMore, error, fetchImages, loadMoreImages, uploadImage, deleteImage, updateImage } = useImageStore()
   const navigate = useNavigate()
   const [showUploadForm, setShowUploadForm] = useState(false)
   const [selectedFile, setSelectedFile] = useState<File | null>(null)
@@ -182,7 +182,7 @@ const Dashboard = () => {
                 }}
               >
                 <img 
-                  src={image.url} 
+                  src={image.variants?.['480'] ?? image.url} 
                   alt={image.title || image.originalFilename}
                   style={{ 
                     width: '100%', 
@@ -232,6 +232,25 @@ const Dashboard = () => {
             ))}
           </div>
         )}
+
+        {!isLoading && !error && nextCursor && token && (
+          <div style={{ textAlign: 'center', marginTop: '20px' }}>
+            <button
+              onClick={() => loadMoreImages(token)}
+              disabled={isLoadingMore}
+              style={{
+                padding: '8px 16px',
+                backgroundColor: '#007bff',
+                color: 'white',
+                border: 'none',
+                borderRadius: '4px',
+                cursor: isLoadingMore ? 'default' : 'pointer'
+              }}
+            >
+              {isLoadingMore ? 'Loading...' : 'Load more'}
+            </button>
+          </div>
+        )}
       </div>
 
       {editingImage && (
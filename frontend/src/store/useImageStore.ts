@@ -16,14 +16,19 @@ interface Image {
   uploadDate: string
   lastModifiedDate: string
   url: string
+  variants?: Record<string, string>
 }
 
 interface ImageState {
   images: Image[]
+  // Cursor of the next page of GET /api/images, null once every image is loaded
+  nextCursor: string | null
   isLoading: boolean
+  isLoadingMore: boolean
   error: string | null
   selectedImage: Image | null
   fetchImages: (token: string) => Promise<void>
+  loadMoreImages: (token: string) => Promise<void>
   uploadImage: (file: File, title: string, token: string) => Promise<void>
   deleteImage: (id: number, token: string) => Promise<void>
   updateImage: (id: number, file: File | null, title: string | null, token: string) => Promise<void>
@@ -31,25 +36,34 @@ interface ImageState {
   clearError: () => void
 }
 
+// The listing is paginated: each response carries the cursor of the following page, if any
+const fetchImagePage = async (token: string, cursor: string | null) => {
+  const query = cursor ? `?cursor=${encodeURIComponent(cursor)}` : ''
+  const response = await fetch(`${API_BASE_URL}/api/images${query}`, {
+    headers: {
+      'Authorization': `Bearer ${token}`
+    }
+  })
+  if (!response.ok) throw new Error('Failed to fetch images')
+  const images: Image[] = await response.json()
+  return { images, nextCursor: response.headers.get('X-Next-Cursor') }
+}
+
 export const useImageStore = create<ImageState>()(
   persist(
     (set, get) => ({
       images: [],
+      nextCursor: null,
       isLoading: false,
+      isLoadingMore: false,
       error: null,
       selectedImage: null,
 
       fetchImages: async (token: string) => {
         set({ isLoading: true, error: null })
         try {
-          const response = await fetch(`${API_BASE_URL}/api/images`, {
-            headers: {
-              'Authorization': `Bearer ${token}`
-            }
-          })
-          if (!response.ok) throw new Error('Failed to fetch images')
-          const data = await response.json()
-          set({ images: data, isLoading: false })
+          const { images, nextCursor } = await fetchImagePage(token, null)
+          set({ images, nextCursor, isLoading: false })
         } catch (err) {
           set({
             error: err instanceof Error ? err.message : 'Failed to fetch images',
@@ -58,6 +72,25 @@ export const useImageStore = create<ImageState>()(
         }
       },
 
+      loadMoreImages: async (token: string) => {
+        const { nextCursor, isLoadingMore } = get()
+        if (!nextCursor || isLoadingMore) return
+        set({ isLoadingMore: true, error: null })
+        try {
+          const page = await fetchImagePage(token, nextCursor)
+          set((state) => ({
+            images: [...state.images, ...page.images],
+            nextCursor: page.nextCursor,
+            isLoadingMore: false
+          }))
+        } catch (err) {
+          set({
+            error: err instanceof Error ? err.message : 'Failed to fetch images',
+            isLoadingMore: false
+          })
+        }
+      },
+
       uploadImage: async (file: File, title: string, token: string) => {
         set({ isLoading: true, error: null })
         try {